@@ -89,9 +89,15 @@ build_java_services() {
     fi
     cd ..
     
+    # Install the shared audit client used by the services
+    print_status "Building audit-client..."
+    cd microservices/audit-client
+    mvn clean install -DskipTests
+    cd ../..
+    
     # Build microservices
     for service in microservices/*; do
-        if [ -d "$service" ] && [ -f "$service/pom.xml" ]; then
+        if [ -d "$service" ] && [ -f "$service/pom.xml" ] && [ "$(basename $service)" != "audit-client" ]; then
             print_status "Building $(basename $service)..."
             cd "$service"
             mvn clean package -DskipTests
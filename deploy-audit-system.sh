@@ -41,6 +41,12 @@ if [[ "$HOSTNAME" == *"gcp"* ]] || [[ "$HOSTNAME" == *"instance"* ]]; then
     print_status "Stopping all services..."
     docker-compose down
     
+    # Install the shared audit client used by the services
+    print_status "Rebuilding audit-client..."
+    cd microservices/audit-client
+    mvn clean install -DskipTests
+    cd ../..
+    
     # Rebuild audit service
     print_status "Rebuilding audit-log-service..."
     cd microservices/audit-log-service
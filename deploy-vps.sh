@@ -173,6 +173,7 @@ start_services() {
     
     # Build Java services
     execute_on_vps "cd $VPS_PATH/backend-api-gateway && mvn clean package -DskipTests"
+    execute_on_vps "cd $VPS_PATH/microservices/audit-client && mvn clean install -DskipTests"
     execute_on_vps "cd $VPS_PATH/microservices/product-service && mvn clean package -DskipTests"
     execute_on_vps "cd $VPS_PATH/microservices/order-service && mvn clean package -DskipTests"
     execute_on_vps "cd $VPS_PATH/microservices/user-service && mvn clean package -DskipTests"
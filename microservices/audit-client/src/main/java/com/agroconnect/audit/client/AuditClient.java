@@ -0,0 +1,239 @@
+package com.agroconnect.audit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends audit events to audit-log-service without holding up the caller.
+ *
+ * log() only puts the event in a lock-free ring buffer. One background thread takes
+ * events off in batches and POSTs each batch, retrying with backoff. A batch that still
+ * fails goes to the local journal, and so does everything after it until the journal
+ * has been replayed, so events arrive in the order they were logged. Delivery is at
+ * least once; the service deduplicates on eventId.
+ *
+ * If the buffer is full (the sender cannot keep up or the disk is full too), events
+ * are dropped and counted rather than slowing requests down.
+ */
+public class AuditClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditClient.class);
+
+    private static final String BATCH_PATH = "/api/audit/log/batch";
+
+    private final AuditClientProperties properties;
+    private final String serviceName;
+    private final RestTemplate restTemplate;
+    private final AuditRingBuffer buffer;
+    private final AuditJournal journal;
+    private final String batchUrl;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong journaled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile Thread sender;
+    private long nextReplayAt;
+
+    public AuditClient(AuditClientProperties properties, String serviceName, RestTemplate restTemplate,
+                       ObjectMapper objectMapper, Path journalDir) {
+        this.properties = properties;
+        this.serviceName = serviceName;
+        this.restTemplate = restTemplate;
+        this.buffer = new AuditRingBuffer(properties.getBufferSize());
+        this.journal = new AuditJournal(journalDir, properties.getJournalMaxSize().toBytes(), objectMapper);
+        this.batchUrl = properties.getUrl().replaceAll("/+$", "") + BATCH_PATH;
+    }
+
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::run, "audit-client-sender");
+        thread.setDaemon(true);
+        sender = thread;
+        thread.start();
+    }
+
+    public void close() {
+        Thread thread = sender;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warn("Audit client did not finish within {}, {} buffered events may be lost",
+                    properties.getShutdownTimeout(), buffer.size());
+        }
+    }
+
+    public void log(String username, String action, String details) {
+        log(username, action, details, null, null, null);
+    }
+
+    public void log(String username, String action, String details, String ipAddress, String userAgent, String requestId) {
+        log(new AuditEvent(serviceName, username != null ? username : "system", action, details,
+                ipAddress, userAgent, requestId));
+    }
+
+    /**
+     * Queue an event; returns false if it was dropped because the buffer is full
+     */
+    public boolean log(AuditEvent event) {
+        if (!running) {
+            return false;
+        }
+        if (buffer.offer(event)) {
+            return true;
+        }
+        if (dropped.incrementAndGet() % 1000 == 1) {
+            logger.warn("Audit buffer full, {} events dropped so far", dropped.get());
+        }
+        return false;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getJournaledCount() {
+        return journaled.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    private void run() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long flushNanos = properties.getFlushInterval().toNanos();
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            try {
+                replayJournalIfDue();
+                buffer.drainTo(batch, batchSize);
+                if (batch.size() < batchSize && running) {
+                    // Give a partial batch one flush interval to fill up
+                    LockSupport.parkNanos(flushNanos);
+                    buffer.drainTo(batch, batchSize - batch.size());
+                }
+                if (!batch.isEmpty()) {
+                    deliver(batch);
+                    batch.clear();
+                }
+            } catch (RuntimeException e) {
+                logger.error("Audit client sender failed: {}", e.getMessage(), e);
+                batch.clear();
+            }
+        }
+        journal.close();
+    }
+
+    private void deliver(List<AuditEvent> batch) {
+        // Keep order: nothing overtakes events still waiting in the journal
+        if (journal.hasPending() || !post(batch, properties.getMaxAttempts())) {
+            spill(batch);
+        }
+    }
+
+    private boolean post(List<AuditEvent> batch, int attempts) {
+        long backoff = properties.getRetryBackoff().toMillis();
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                restTemplate.postForEntity(batchUrl, batch, Void.class);
+                sent.addAndGet(batch.size());
+                return true;
+            } catch (RuntimeException e) {
+                if (isRejection(e)) {
+                    // The service rejected the events themselves; sending them again will not help
+                    HttpClientErrorException rejection = (HttpClientErrorException) e;
+                    logger.error("Audit service rejected {} events: {} {}", batch.size(), rejection.getStatusCode(),
+                            rejection.getResponseBodyAsString());
+                    dropped.addAndGet(batch.size());
+                    return true;
+                }
+                // Unreachable, overloaded or an older service without the batch endpoint
+                if (attempt == attempts) {
+                    logger.warn("Audit service unreachable after {} attempts: {}", attempts, e.getMessage());
+                    break;
+                }
+                if (running) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+                }
+                backoff *= 2;
+            }
+        }
+        nextReplayAt = System.currentTimeMillis() + properties.getReplayInterval().toMillis();
+        return false;
+    }
+
+    private static boolean isRejection(RuntimeException e) {
+        if (!(e instanceof HttpClientErrorException)) {
+            return false;
+        }
+        int status = ((HttpClientErrorException) e).getStatusCode().value();
+        return status == 400 || status == 413 || status == 422;
+    }
+
+    private void spill(List<AuditEvent> batch) {
+        if (journal.append(batch)) {
+            journaled.addAndGet(batch.size());
+        } else {
+            dropped.addAndGet(batch.size());
+            logger.error("Audit journal full or unwritable, dropped {} events", batch.size());
+        }
+    }
+
+    // Send the journal oldest file first; stops at the first failure and tries again later
+    private void replayJournalIfDue() {
+        if (!journal.hasPending() || System.currentTimeMillis() < nextReplayAt) {
+            return;
+        }
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (Path file : journal.pendingFiles()) {
+            List<AuditEvent> events;
+            try {
+                events = journal.read(file);
+            } catch (IOException e) {
+                logger.error("Failed to read audit journal file {}: {}", file, e.getMessage());
+                nextReplayAt = System.currentTimeMillis() + properties.getReplayInterval().toMillis();
+                return;
+            }
+            for (int from = 0; from < events.size(); from += batchSize) {
+                // A file cut short is sent again from the start; eventIds make that harmless
+                if (!post(events.subList(from, Math.min(from + batchSize, events.size())), 1)) {
+                    return;
+                }
+            }
+            journal.delete(file);
+        }
+        logger.info("Audit journal delivered, {} events journaled since start", journaled.get());
+    }
+}
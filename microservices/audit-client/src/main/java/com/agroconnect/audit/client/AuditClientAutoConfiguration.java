@@ -0,0 +1,41 @@
+package com.agroconnect.audit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * Registers an AuditClient in every service that has the audit-client jar.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(AuditClientProperties.class)
+public class AuditClientAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public AuditClient auditClient(AuditClientProperties properties, ObjectProvider<ObjectMapper> objectMapper,
+                                   Environment environment) {
+        String serviceName = properties.getServiceName() != null ? properties.getServiceName()
+                : environment.getProperty("spring.application.name", "unknown-service");
+        Path journalDir = properties.getJournalDir() != null ? Path.of(properties.getJournalDir())
+                : Path.of(System.getProperty("java.io.tmpdir"), "agroconnect-audit", serviceName);
+
+        // Its own RestTemplate, so audit timeouts do not depend on the service's HTTP settings
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+        requestFactory.setReadTimeout((int) properties.getReadTimeout().toMillis());
+
+        AuditClient client = new AuditClient(properties, serviceName, new RestTemplate(requestFactory),
+                objectMapper.getIfAvailable(ObjectMapper::new), journalDir);
+        client.start();
+        return client;
+    }
+}
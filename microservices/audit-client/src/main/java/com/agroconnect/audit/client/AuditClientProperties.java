@@ -0,0 +1,150 @@
+package com.agroconnect.audit.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the audit client, under audit.client.*
+ */
+@ConfigurationProperties(prefix = "audit.client")
+public class AuditClientProperties {
+
+    // When false, events are only written to the local log
+    private boolean enabled = true;
+    // Base URL of audit-log-service
+    private String url = "http://audit-log-service:8084";
+    // Defaults to spring.application.name
+    private String serviceName;
+    // Events waiting to be sent; further events are dropped while it is full
+    private int bufferSize = 8192;
+    private int batchSize = 500;
+    // How long a partial batch waits for more events
+    private Duration flushInterval = Duration.ofMillis(200);
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration readTimeout = Duration.ofSeconds(3);
+    // Attempts per batch before it goes to the journal
+    private int maxAttempts = 3;
+    // Doubled after every failed attempt
+    private Duration retryBackoff = Duration.ofMillis(200);
+    // How often delivery of the journal is retried while the service is unreachable
+    private Duration replayInterval = Duration.ofSeconds(10);
+    // Defaults to <java.io.tmpdir>/agroconnect-audit/<service name>
+    private String journalDir;
+    private DataSize journalMaxSize = DataSize.ofMegabytes(256);
+    // Time given to deliver or journal buffered events on shutdown
+    private Duration shutdownTimeout = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public Duration getReplayInterval() {
+        return replayInterval;
+    }
+
+    public void setReplayInterval(Duration replayInterval) {
+        this.replayInterval = replayInterval;
+    }
+
+    public String getJournalDir() {
+        return journalDir;
+    }
+
+    public void setJournalDir(String journalDir) {
+        this.journalDir = journalDir;
+    }
+
+    public DataSize getJournalMaxSize() {
+        return journalMaxSize;
+    }
+
+    public void setJournalMaxSize(DataSize journalMaxSize) {
+        this.journalMaxSize = journalMaxSize;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
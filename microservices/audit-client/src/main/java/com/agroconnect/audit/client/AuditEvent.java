@@ -0,0 +1,112 @@
+package com.agroconnect.audit.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One audit entry as sent to audit-log-service. eventId is assigned on creation and
+ * lets the service recognise an event delivered twice after a retry or journal replay.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuditEvent {
+
+    private String eventId;
+    private String serviceName;
+    private String username;
+    private String action;
+    private String details;
+    private String ipAddress;
+    private String userAgent;
+    private String requestId;
+    // ISO local date-time of when the event happened, not when it was delivered
+    private String timestamp;
+
+    public AuditEvent() {}
+
+    public AuditEvent(String serviceName, String username, String action, String details,
+                      String ipAddress, String userAgent, String requestId) {
+        this.eventId = UUID.randomUUID().toString();
+        this.serviceName = serviceName;
+        this.username = username;
+        this.action = action;
+        this.details = details;
+        this.ipAddress = ipAddress;
+        this.userAgent = userAgent;
+        this.requestId = requestId;
+        this.timestamp = LocalDateTime.now().toString();
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public void setDetails(String details) {
+        this.details = details;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    public void setIpAddress(String ipAddress) {
+        this.ipAddress = ipAddress;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public void setUserAgent(String userAgent) {
+        this.userAgent = userAgent;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(String requestId) {
+        this.requestId = requestId;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+}
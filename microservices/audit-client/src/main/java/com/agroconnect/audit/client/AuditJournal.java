@@ -0,0 +1,157 @@
+package com.agroconnect.audit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local spill file for events that could not be delivered, kept as NDJSON files in one
+ * directory and replayed oldest first. Survives restarts: files left by a previous run
+ * are picked up on the next replay. Only the sender thread touches it.
+ */
+final class AuditJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".ndjson";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+
+    private BufferedWriter writer;
+    private long fileCounter;
+    private long bytes = -1;
+
+    AuditJournal(Path directory, long maxBytes, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Append events; returns false (nothing written) if the journal is full or unwritable
+     */
+    boolean append(List<AuditEvent> events) {
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (AuditEvent event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+            byte[] data = lines.toString().getBytes(StandardCharsets.UTF_8);
+            if (size() + data.length > maxBytes) {
+                return false;
+            }
+            if (writer == null) {
+                Files.createDirectories(directory);
+                Path file = directory.resolve(String.format("%s%013d-%06d%s", PREFIX, System.currentTimeMillis(),
+                        fileCounter++ % 1_000_000, SUFFIX));
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(lines.toString());
+            writer.flush();
+            bytes += data.length;
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to write audit journal in {}: {}", directory, e.getMessage());
+            return false;
+        }
+    }
+
+    boolean hasPending() {
+        return size() > 0;
+    }
+
+    /**
+     * Journal files oldest first. The file being written is closed first, so later
+     * appends start a new file and every returned file is complete.
+     */
+    List<Path> pendingFiles() {
+        closeWriter();
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.error("Failed to list audit journal in {}: {}", directory, e.getMessage());
+        }
+        files.sort(null);
+        return files;
+    }
+
+    List<AuditEvent> read(Path file) throws IOException {
+        List<AuditEvent> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    events.add(objectMapper.readValue(line, AuditEvent.class));
+                } catch (IOException e) {
+                    // A line cut short by a crash; the rest of the file is still good
+                    logger.warn("Skipping unreadable audit journal line in {}", file.getFileName());
+                }
+            }
+        }
+        return events;
+    }
+
+    void delete(Path file) {
+        try {
+            long length = Files.size(file);
+            Files.deleteIfExists(file);
+            bytes = Math.max(0, size() - length);
+        } catch (IOException e) {
+            logger.error("Failed to delete audit journal file {}: {}", file, e.getMessage());
+        }
+    }
+
+    void close() {
+        closeWriter();
+    }
+
+    // Measured once from disk, then tracked
+    private long size() {
+        if (bytes < 0) {
+            bytes = 0;
+            if (Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+                    for (Path file : stream) {
+                        bytes += Files.size(file);
+                    }
+                } catch (IOException e) {
+                    logger.error("Failed to measure audit journal in {}: {}", directory, e.getMessage());
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close audit journal file: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.agroconnect.audit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditRingBufferTest {
+
+    @Test
+    void testCapacityRoundsUpToPowerOfTwo() {
+        assertEquals(2, new AuditRingBuffer(1).capacity());
+        assertEquals(8, new AuditRingBuffer(8).capacity());
+        assertEquals(16, new AuditRingBuffer(9).capacity());
+    }
+
+    @Test
+    void testOfferFailsWhenFull() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(event(i)));
+        }
+        assertFalse(buffer.offer(event(4)));
+        assertEquals(4, buffer.size());
+
+        List<AuditEvent> drained = new ArrayList<>();
+        assertEquals(1, buffer.drainTo(drained, 1));
+        assertTrue(buffer.offer(event(5)));
+        assertFalse(buffer.offer(event(6)));
+    }
+
+    @Test
+    void testDrainKeepsOrderAcrossLaps() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        List<AuditEvent> drained = new ArrayList<>();
+        int next = 0;
+        // Ten laps around four slots, three events at a time so positions wrap mid-batch
+        for (int round = 0; round < 13; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(buffer.offer(event(next++)));
+            }
+            assertEquals(3, buffer.drainTo(drained, 10));
+            assertEquals(0, buffer.size());
+        }
+        assertEquals(next, drained.size());
+        for (int i = 0; i < next; i++) {
+            assertEquals("e" + i, drained.get(i).getDetails());
+        }
+    }
+
+    @Test
+    void testDrainStopsAtMax() {
+        AuditRingBuffer buffer = new AuditRingBuffer(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(event(i));
+        }
+        List<AuditEvent> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained, 2));
+        assertEquals(3, buffer.size());
+        assertEquals(3, buffer.drainTo(drained, 10));
+        assertEquals(0, buffer.drainTo(drained, 10));
+        assertEquals(5, drained.size());
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 10_000;
+        AuditRingBuffer buffer = new AuditRingBuffer(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        // The buffer is small, so producers keep running into it full
+                        while (!buffer.offer(event(producer * perProducer + i))) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+
+            Set<String> seen = new HashSet<>();
+            int[] lastByProducer = new int[producers];
+            Arrays.fill(lastByProducer, -1);
+            List<AuditEvent> batch = new ArrayList<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (seen.size() < producers * perProducer) {
+                assertTrue(System.nanoTime() < deadline, "Timed out after " + seen.size() + " events");
+                batch.clear();
+                buffer.drainTo(batch, 100);
+                for (AuditEvent event : batch) {
+                    assertNotNull(event);
+                    assertTrue(seen.add(event.getDetails()), "Duplicate " + event.getDetails());
+                    // Each producer's events come out in the order it offered them
+                    int value = Integer.parseInt(event.getDetails().substring(1));
+                    int producer = value / perProducer;
+                    assertTrue(value > lastByProducer[producer]);
+                    lastByProducer[producer] = value;
+                }
+            }
+            assertEquals(0, buffer.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static AuditEvent event(int n) {
+        AuditEvent event = new AuditEvent();
+        event.setDetails("e" + n);
+        return event;
+    }
+}
@@ -0,0 +1,48 @@
+package com.agroconnect.audit.config;
+
+import com.agroconnect.audit.model.AuditCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Gives hourly counters written before they carried expireAt one, a retention from now,
+ * so the TTL index removes them too. All-time counters are left without.
+ */
+@Configuration
+public class AuditCounterExpiryBackfill implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditCounterExpiryBackfill.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${audit.stats.hourly-retention:7d}")
+    private Duration hourlyRetention;
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            Query hourly = new Query(Criteria.where("period").ne(AuditCounter.ALL_TIME)
+                    .and("expireAt").exists(false));
+            long updated = mongoTemplate.updateMulti(hourly,
+                    new Update().set("expireAt", LocalDateTime.now().plus(hourlyRetention)),
+                    AuditCounter.class).getModifiedCount();
+            if (updated > 0) {
+                logger.info("Set an expiry on {} hourly audit counters", updated);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to set an expiry on hourly audit counters: {}", e.getMessage(), e);
+        }
+    }
+}
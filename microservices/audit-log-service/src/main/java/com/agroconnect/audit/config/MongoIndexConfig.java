@@ -0,0 +1,59 @@
+package com.agroconnect.audit.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes for the audit-log-service collections other than the audit partitions, which
+ * get theirs from MongoAuditPartitions when they are created. Applied at startup.
+ */
+@Configuration
+public class MongoIndexConfig implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public static Map<String, List<Index>> indexDefinitions() {
+        Map<String, List<Index>> indexes = new LinkedHashMap<>();
+
+        indexes.put("audit_counters", List.of(
+                // all-time counters of a dimension, the busiest first, and hourly series
+                new Index().on("dimension", Direction.ASC).on("period", Direction.ASC).on("count", Direction.DESC)
+                        .named("dimension_period_count"),
+                // hourly counters are removed at their expireAt; all-time counters have none
+                new Index().on("expireAt", Direction.ASC).expire(Duration.ZERO).named("expireAt_ttl")
+        ));
+
+        return indexes;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        indexDefinitions().forEach((collection, indexes) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            for (Index index : indexes) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (Exception e) {
+                    // A missing index only costs performance, so keep starting up
+                    logger.error("Failed to create index {} on {}: {}", index.getIndexOptions().get("name"),
+                            collection, e.getMessage(), e);
+                }
+            }
+        });
+    }
+}
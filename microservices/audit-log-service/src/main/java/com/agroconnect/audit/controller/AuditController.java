@@ -1,14 +1,30 @@
 package com.agroconnect.audit.controller;
 
+import com.agroconnect.audit.dto.AuditPage;
+import com.agroconnect.audit.dto.BatchAck;
 import com.agroconnect.audit.model.AuditLog;
+import com.agroconnect.audit.service.AuditIngestService;
+import com.agroconnect.audit.service.AuditQueryService;
 import com.agroconnect.audit.service.AuditService;
+import com.agroconnect.audit.service.AuditStatsService;
+import com.agroconnect.audit.service.BatchTooLargeException;
+import com.agroconnect.audit.store.AuditQuery;
+import com.agroconnect.audit.store.AuditStoreException;
+import com.mongodb.MongoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,9 +32,22 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class AuditController {
     
+    private static final Logger logger = LoggerFactory.getLogger(AuditController.class);
+    
+    private static final String NDJSON = "application/x-ndjson";
+    
     @Autowired
     private AuditService auditService;
     
+    @Autowired
+    private AuditIngestService auditIngestService;
+    
+    @Autowired
+    private AuditQueryService auditQueryService;
+    
+    @Autowired
+    private AuditStatsService auditStatsService;
+    
     /**
      * Create a new audit log entry
      */
@@ -37,50 +66,104 @@ public class AuditController {
     }
     
     /**
-     * Get all audit logs
+     * Create many audit log entries from a JSON array or NDJSON body. Invalid events are
+     * reported in the acknowledgement and the rest are stored; an eventId that was already
+     * stored counts as a duplicate, so redelivered batches are harmless.
+     */
+    @PostMapping(value = "/log/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BatchAck> createAuditLogs(InputStream body) {
+        try {
+            return ResponseEntity.ok(auditIngestService.ingest(body));
+        } catch (BatchTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (IOException e) {
+            // Malformed JSON; nothing was stored
+            return ResponseEntity.badRequest().build();
+        } catch (MongoException | AuditStoreException e) {
+            logger.error("Failed to store audit batch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    /**
+     * Audit logs newest first, one page at a time. Filters combine; pass the returned
+     * nextCursor to get the next page.
      */
     @GetMapping("/logs")
-    public ResponseEntity<List<AuditLog>> getAllAuditLogs() {
-        List<AuditLog> logs = auditService.findAll();
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<AuditPage> getAuditLogs(
+            @RequestParam(required = false) String service,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String requestId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return page(query(service, user, action, requestId, from, to), cursor, size);
+    }
+    
+    /**
+     * Stream every matching audit log as NDJSON, newest first, for exports
+     */
+    @GetMapping(value = "/logs/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(required = false) String service,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String requestId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        AuditQuery query = query(service, user, action, requestId, from, to);
+        StreamingResponseBody body = out -> {
+            long exported = auditQueryService.export(query, out);
+            logger.info("AUDIT_EXPORT: {} entries | {} | {} | {} | {} | {} | {}",
+                    exported, service, user, action, requestId, from, to);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audit-export.ndjson\"")
+                .body(body);
     }
     
     /**
      * Get audit logs by service name
      */
     @GetMapping("/logs/service/{serviceName}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByService(@PathVariable String serviceName) {
-        List<AuditLog> logs = auditService.findByServiceName(serviceName);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<AuditPage> getAuditLogsByService(@PathVariable String serviceName,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return page(AuditQuery.all().serviceName(serviceName), cursor, size);
     }
     
     /**
      * Get audit logs by username
      */
     @GetMapping("/logs/user/{username}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByUser(@PathVariable String username) {
-        List<AuditLog> logs = auditService.findByUsername(username);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<AuditPage> getAuditLogsByUser(@PathVariable String username,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return page(AuditQuery.all().username(username), cursor, size);
     }
     
     /**
      * Get audit logs by action
      */
     @GetMapping("/logs/action/{action}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByAction(@PathVariable String action) {
-        List<AuditLog> logs = auditService.findByAction(action);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<AuditPage> getAuditLogsByAction(@PathVariable String action,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return page(AuditQuery.all().action(action), cursor, size);
     }
     
     /**
      * Get audit logs by date range
      */
     @GetMapping("/logs/range")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByDateRange(
+    public ResponseEntity<AuditPage> getAuditLogsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<AuditLog> logs = auditService.findByDateRange(startDate, endDate);
-        return ResponseEntity.ok(logs);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return page(AuditQuery.all().from(startDate).to(endDate), cursor, size);
     }
     
     /**
@@ -98,23 +181,58 @@ public class AuditController {
      */
     @DeleteMapping("/logs/{id}")
     public ResponseEntity<Void> deleteAuditLog(@PathVariable String id) {
-        auditService.deleteById(id);
-        return ResponseEntity.ok().build();
+        try {
+            return auditService.deleteById(id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+        } catch (UnsupportedOperationException e) {
+            // The segment log is append-only
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
+        }
     }
     
     /**
-     * Get audit statistics
+     * Get audit statistics: totals, this hour's count and event rates per service, plus
+     * counts per action, the busiest users and the last 24 hours
      */
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getAuditStats() {
-        Map<String, Object> stats = Map.of(
-            "totalLogs", auditService.getTotalAuditLogs(),
-            "productServiceLogs", auditService.getAuditLogsCountByService("product-service"),
-            "orderServiceLogs", auditService.getAuditLogsCountByService("order-service"),
-            "userServiceLogs", auditService.getAuditLogsCountByService("user-service"),
-            "auditServiceLogs", auditService.getAuditLogsCountByService("audit-service")
-        );
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(auditStatsService.getStats());
+    }
+    
+    /**
+     * Recount the statistics from the stored audit logs
+     */
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildAuditStats() {
+        try {
+            return ResponseEntity.ok(auditStatsService.rebuild());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    private ResponseEntity<AuditPage> page(AuditQuery query, String cursor, int size) {
+        try {
+            return ResponseEntity.ok(auditQueryService.search(query, cursor,
+                    Math.min(Math.max(size, 1), AuditQueryService.MAX_PAGE_SIZE)));
+        } catch (IllegalArgumentException e) {
+            // Bad cursor or from after to
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    private static AuditQuery query(String service, String user, String action, String requestId,
+                                    LocalDateTime from, LocalDateTime to) {
+        return AuditQuery.all()
+                .serviceName(blankToNull(service))
+                .username(blankToNull(user))
+                .action(blankToNull(action))
+                .requestId(blankToNull(requestId))
+                .from(from)
+                .to(to);
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
     
     /**
@@ -0,0 +1,39 @@
+package com.agroconnect.audit.dto;
+
+import com.agroconnect.audit.model.AuditLog;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of audit entries, newest first. nextCursor is absent on the last page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuditPage {
+
+    private final List<AuditLog> items;
+    private final int size;
+    private final String nextCursor;
+
+    public AuditPage(List<AuditLog> items, int size, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AuditLog> getItems() {
+        return items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.agroconnect.audit.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batch ingest. Every event is either stored, a duplicate of one stored
+ * earlier (same eventId), rejected as invalid, or failed to write; only failed events
+ * are worth sending again. errors lists the first MAX_ERRORS problems by position.
+ */
+public class BatchAck {
+
+    public static final int MAX_ERRORS = 100;
+
+    private int received;
+    private int stored;
+    private int duplicates;
+    private int rejected;
+    private int failed;
+    private final List<EventError> errors = new ArrayList<>();
+
+    public void reject(int index, String eventId, String reason) {
+        rejected++;
+        addError(index, eventId, reason);
+    }
+
+    public void fail(int index, String eventId, String reason) {
+        failed++;
+        addError(index, eventId, reason);
+    }
+
+    private void addError(int index, String eventId, String reason) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new EventError(index, eventId, reason));
+        }
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getStored() {
+        return stored;
+    }
+
+    public void addStored(int count) {
+        stored += count;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void addDuplicates(int count) {
+        duplicates += count;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<EventError> getErrors() {
+        return errors;
+    }
+
+    public static class EventError {
+        private final int index;
+        private final String eventId;
+        private final String reason;
+
+        public EventError(int index, String eventId, String reason) {
+            this.index = index;
+            this.eventId = eventId;
+            this.reason = reason;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getEventId() {
+            return eventId;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.agroconnect.audit.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of audit events for one service, action, user (or all of them) in one hour,
+ * or since the beginning when period is "all". The id is period|dimension|name.
+ * Hourly counters carry expireAt and are removed by a TTL index once it has passed.
+ */
+@Document(collection = "audit_counters")
+public class AuditCounter {
+
+    public static final String ALL_TIME = "all";
+
+    public static final String TOTAL = "total";
+    public static final String SERVICE = "service";
+    public static final String ACTION = "action";
+    public static final String USER = "user";
+
+    @Id
+    private String id;
+    private String period;
+    private String dimension;
+    private String name;
+    private long count;
+    private LocalDateTime updatedAt;
+    private LocalDateTime expireAt;
+
+    public AuditCounter() {
+    }
+
+    public AuditCounter(String period, String dimension, String name) {
+        this.id = idOf(period, dimension, name);
+        this.period = period;
+        this.dimension = dimension;
+        this.name = name;
+    }
+
+    public static String idOf(String period, String dimension, String name) {
+        return period + "|" + dimension + "|" + name;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(LocalDateTime expireAt) {
+        this.expireAt = expireAt;
+    }
+}
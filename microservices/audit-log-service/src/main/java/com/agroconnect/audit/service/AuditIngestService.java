@@ -0,0 +1,142 @@
+package com.agroconnect.audit.service;
+
+import com.agroconnect.audit.dto.AuditEventRequest;
+import com.agroconnect.audit.dto.BatchAck;
+import com.agroconnect.audit.model.AuditLog;
+import com.agroconnect.audit.store.AuditStore;
+import com.agroconnect.audit.store.StoreResult;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * High-volume ingest of audit events.
+ *
+ * A request body (JSON array or NDJSON) is parsed as a stream, each event is checked
+ * once, and the valid ones are handed to the AuditStore in a single append, so one bad
+ * or duplicate event does not stop the rest.
+ */
+@Service
+public class AuditIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditIngestService.class);
+
+    public static final int MAX_EVENTS = 10_000;
+
+    private static final int MAX_NAME_LENGTH = 128;
+    private static final int MAX_TEXT_LENGTH = 8192;
+
+    @Autowired
+    private AuditStore auditStore;
+
+    @Autowired
+    private AuditStatsService auditStatsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ObjectReader eventReader;
+
+    @PostConstruct
+    public void init() {
+        eventReader = objectMapper.readerFor(AuditEventRequest.class);
+    }
+
+    public BatchAck ingest(InputStream body) throws IOException {
+        BatchAck ack = new BatchAck();
+        List<AuditLog> entries = new ArrayList<>();
+        // Position in the request of each entry, to report write errors
+        List<Integer> positions = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        int index = 0;
+        try (MappingIterator<AuditEventRequest> events = eventReader.readValues(body)) {
+            while (events.hasNextValue()) {
+                if (index == MAX_EVENTS) {
+                    throw new BatchTooLargeException(MAX_EVENTS);
+                }
+                AuditEventRequest event = events.nextValue();
+                String problem = validate(event);
+                if (problem != null) {
+                    ack.reject(index, event.getEventId(), problem);
+                } else {
+                    entries.add(toAuditLog(event, now));
+                    positions.add(index);
+                }
+                index++;
+            }
+        }
+        ack.setReceived(index);
+        write(entries, positions, ack);
+        logger.debug("AUDIT_BATCH: {} received, {} stored, {} duplicates, {} rejected, {} failed",
+                ack.getReceived(), ack.getStored(), ack.getDuplicates(), ack.getRejected(), ack.getFailed());
+        return ack;
+    }
+
+    private void write(List<AuditLog> entries, List<Integer> positions, BatchAck ack) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        StoreResult result = auditStore.append(entries);
+        auditStatsService.record(entries, result);
+        ack.addStored(result.getStored());
+        ack.addDuplicates(result.getDuplicates());
+        result.getFailures().forEach((position, reason) ->
+                ack.fail(positions.get(position), entries.get(position).getId(), reason));
+    }
+    private static String validate(AuditEventRequest event) {
+        if (isBlank(event.getServiceName())) {
+            return "serviceName is required";
+        }
+        if (isBlank(event.getAction())) {
+            return "action is required";
+        }
+        if (tooLong(event.getServiceName(), MAX_NAME_LENGTH) || tooLong(event.getAction(), MAX_NAME_LENGTH)
+                || tooLong(event.getUsername(), MAX_NAME_LENGTH) || tooLong(event.getEventId(), MAX_NAME_LENGTH)
+                || tooLong(event.getRequestId(), MAX_NAME_LENGTH) || tooLong(event.getIpAddress(), MAX_NAME_LENGTH)) {
+            return "serviceName, action, username, eventId, requestId and ipAddress may be at most "
+                    + MAX_NAME_LENGTH + " characters";
+        }
+        if (tooLong(event.getDetails(), MAX_TEXT_LENGTH) || tooLong(event.getUserAgent(), MAX_TEXT_LENGTH)) {
+            return "details and userAgent may be at most " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (event.getTimestamp() != null) {
+            try {
+                LocalDateTime.parse(event.getTimestamp());
+            } catch (DateTimeParseException e) {
+                return "timestamp must be an ISO local date-time";
+            }
+        }
+        return null;
+    }
+
+    private static AuditLog toAuditLog(AuditEventRequest event, LocalDateTime now) {
+        AuditLog entry = new AuditLog(event.getServiceName(), event.getUsername(), event.getAction(), event.getDetails());
+        entry.setId(isBlank(event.getEventId()) ? null : event.getEventId());
+        entry.setTimestamp(event.getTimestamp() != null ? LocalDateTime.parse(event.getTimestamp()) : now);
+        entry.setIpAddress(event.getIpAddress());
+        entry.setUserAgent(event.getUserAgent());
+        entry.setRequestId(event.getRequestId());
+        return entry;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean tooLong(String value, int max) {
+        return value != null && value.length() > max;
+    }
+}
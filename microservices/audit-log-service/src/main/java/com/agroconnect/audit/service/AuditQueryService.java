@@ -0,0 +1,111 @@
+package com.agroconnect.audit.service;
+
+import com.agroconnect.audit.dto.AuditPage;
+import com.agroconnect.audit.model.AuditLog;
+import com.agroconnect.audit.store.AuditQuery;
+import com.agroconnect.audit.store.AuditStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Audit lookups, newest first, with keyset pagination.
+ *
+ * Entries are ordered by timestamp and then id, both descending; the cursor holds the
+ * last entry's pair, so every page costs the same however deep it is. Filters combine
+ * freely and the store routes them to the partitions and indexes that can answer them.
+ * Exports walk the same pages and write each entry as one NDJSON line, so their memory
+ * use does not depend on how many entries match.
+ */
+@Service
+public class AuditQueryService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
+    @Autowired
+    private AuditStore auditStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public AuditPage search(AuditQuery query, String cursor, int size) {
+        checkRange(query);
+        if (cursor != null && !cursor.isBlank()) {
+            Map<String, Object> position = decode(cursor);
+            query.before((LocalDateTime) position.get("timestamp"), (String) position.get("id"));
+        }
+        List<AuditLog> entries = auditStore.find(query, size + 1);
+        String nextCursor = null;
+        if (entries.size() > size) {
+            entries = entries.subList(0, size);
+            nextCursor = encode(entries.get(size - 1));
+        }
+        return new AuditPage(entries, size, nextCursor);
+    }
+
+    /**
+     * Write every matching entry as NDJSON, newest first
+     */
+    public long export(AuditQuery query, OutputStream out) throws IOException {
+        checkRange(query);
+        long written = 0;
+        while (true) {
+            List<AuditLog> page = auditStore.find(query, EXPORT_PAGE_SIZE);
+            for (AuditLog entry : page) {
+                out.write(objectMapper.writeValueAsBytes(entry));
+                out.write('\n');
+            }
+            written += page.size();
+            out.flush();
+            if (page.size() < EXPORT_PAGE_SIZE) {
+                return written;
+            }
+            AuditLog last = page.get(page.size() - 1);
+            query.before(last.getTimestamp(), last.getId());
+        }
+    }
+
+    private static void checkRange(AuditQuery query) {
+        if (query.getFrom() != null && query.getTo() != null && query.getFrom().isAfter(query.getTo())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+
+    private String encode(AuditLog last) {
+        Map<String, Object> cursor = new LinkedHashMap<>();
+        cursor.put("timestamp", last.getTimestamp().toString());
+        cursor.put("id", last.getId());
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encode audit cursor", e);
+        }
+    }
+
+    private Map<String, Object> decode(String cursor) {
+        Map<String, Object> position = new LinkedHashMap<>();
+        try {
+            Map<?, ?> raw = objectMapper.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), Map.class);
+            position.put("timestamp", LocalDateTime.parse((String) raw.get("timestamp")));
+            position.put("id", raw.get("id"));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!(position.get("id") instanceof String)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return position;
+    }
+}
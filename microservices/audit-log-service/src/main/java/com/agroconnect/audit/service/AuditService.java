@@ -1,7 +1,8 @@
 package com.agroconnect.audit.service;
 
 import com.agroconnect.audit.model.AuditLog;
-import com.agroconnect.audit.repository.AuditLogRepository;
+import com.agroconnect.audit.store.AuditStore;
+import com.agroconnect.audit.store.StoreResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +18,10 @@ public class AuditService {
     private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditStore auditStore;
+    
+    @Autowired
+    private AuditStatsService auditStatsService;
     
     /**
      * Log an audit event
@@ -37,13 +41,17 @@ public class AuditService {
             auditLog.setUserAgent(userAgent);
             auditLog.setRequestId(requestId);
             
-            AuditLog savedLog = auditLogRepository.save(auditLog);
+            StoreResult result = auditStore.append(List.of(auditLog));
+            if (!result.getFailures().isEmpty()) {
+                throw new RuntimeException("Failed to store audit log: " + result.getFailures().get(0));
+            }
+            auditStatsService.record(List.of(auditLog), result);
             
             // Log to file as well
             logger.info("AUDIT_LOG: {} | {} | {} | {} | {} | {} | {}", 
-                savedLog.getTimestamp(), serviceName, username, action, details, ipAddress, requestId);
+                auditLog.getTimestamp(), serviceName, username, action, details, ipAddress, requestId);
             
-            return savedLog;
+            return auditLog;
         } catch (Exception e) {
             logger.error("Failed to save audit log: {}", e.getMessage(), e);
             // Still log to file even if DB save fails
@@ -53,67 +61,21 @@ public class AuditService {
         }
     }
     
-    /**
-     * Find audit logs by service name
-     */
-    public List<AuditLog> findByServiceName(String serviceName) {
-        return auditLogRepository.findByServiceNameOrderByTimestampDesc(serviceName);
-    }
-    
-    /**
-     * Find audit logs by username
-     */
-    public List<AuditLog> findByUsername(String username) {
-        return auditLogRepository.findByUsernameOrderByTimestampDesc(username);
-    }
-    
-    /**
-     * Find audit logs by action
-     */
-    public List<AuditLog> findByAction(String action) {
-        return auditLogRepository.findByActionOrderByTimestampDesc(action);
-    }
-    
-    /**
-     * Find audit logs by date range
-     */
-    public List<AuditLog> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return auditLogRepository.findByTimestampBetweenOrderByTimestampDesc(startDate, endDate);
-    }
-    
-    /**
-     * Get all audit logs (paginated)
-     */
-    public List<AuditLog> findAll() {
-        return auditLogRepository.findAllByOrderByTimestampDesc();
-    }
-    
     /**
      * Get audit log by ID
      */
     public Optional<AuditLog> findById(String id) {
-        return auditLogRepository.findById(id);
+        return auditStore.findById(id);
     }
     
     /**
-     * Delete audit log by ID
+     * Delete audit log by ID; returns false if there was none
      */
-    public void deleteById(String id) {
-        auditLogRepository.deleteById(id);
-        logger.info("AUDIT_LOG_DELETED: {}", id);
-    }
-    
-    /**
-     * Get audit statistics
-     */
-    public long getTotalAuditLogs() {
-        return auditLogRepository.count();
-    }
-    
-    /**
-     * Get audit logs count by service
-     */
-    public long getAuditLogsCountByService(String serviceName) {
-        return auditLogRepository.countByServiceName(serviceName);
+    public boolean deleteById(String id) {
+        boolean deleted = auditStore.deleteById(id);
+        if (deleted) {
+            logger.info("AUDIT_LOG_DELETED: {}", id);
+        }
+        return deleted;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,352 @@
+package com.agroconnect.audit.service;
+
+import com.agroconnect.audit.config.MongoIndexConfig;
+import com.agroconnect.audit.model.AuditCounter;
+import com.agroconnect.audit.model.AuditLog;
+import com.agroconnect.audit.store.AuditQuery;
+import com.agroconnect.audit.store.AuditStore;
+import com.agroconnect.audit.store.StoreResult;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Audit statistics kept as counters instead of counted per request.
+ *
+ * Every stored event increments in-memory counters for its service, action and user,
+ * per hour and all-time. They are added to audit_counters with $inc upserts every
+ * flush interval, after which the figures served by /stats are re-read once, so a stats
+ * read is a lookup in memory that is at most one interval behind (and includes what
+ * other instances flushed). Rates are moving averages of the events this instance has
+ * taken in. Counting starts when this is deployed; rebuild() recounts from the store.
+ * Hourly counters expire audit.stats.hourly-retention after their hour; all-time ones
+ * are kept.
+ */
+@Service
+public class AuditStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditStatsService.class);
+
+    private static final String COLLECTION = "audit_counters";
+    private static final String REBUILD_SUFFIX = "_rebuild";
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH");
+    private static final String UNKNOWN = "unknown";
+    private static final int HOURS = 24;
+    private static final int TOP_USERS = 20;
+    private static final int REBUILD_PAGE = 1000;
+    private static final int REBUILD_MAX_KEYS = 50_000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AuditStore auditStore;
+
+    @Value("${audit.stats.hourly-retention:7d}")
+    private Duration hourlyRetention;
+
+    // Counts not yet flushed, by counter id
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+    private final RateMeter rate = new RateMeter();
+    private final Map<String, RateMeter> serviceRates = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.error("Failed to load audit counters: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Count the entries of an append that were actually stored
+     */
+    public void record(List<AuditLog> entries, StoreResult result) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (result.isStored(i)) {
+                record(entries.get(i));
+            }
+        }
+    }
+
+    public void record(AuditLog entry) {
+        for (String id : counterIds(entry)) {
+            LongAdder counter = pending.computeIfAbsent(id, key -> new LongAdder());
+            counter.increment();
+            if (pending.get(id) != counter) {
+                // A flush dropped it as idle in between; what landed in it is carried over
+                requeue(id, counter.sumThenReset());
+            }
+        }
+        rate.mark();
+        serviceRates.computeIfAbsent(nameOf(entry.getServiceName()), key -> new RateMeter()).mark();
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalLogs", current.total);
+        stats.put("currentHourLogs", current.hourly.getOrDefault(current.currentHour, 0L));
+        stats.put("eventsPerSecond", rates(rate));
+
+        // Every service that has been counted or is sending now
+        Map<String, Object> services = new LinkedHashMap<>();
+        TreeSet<String> names = new TreeSet<>(current.services.keySet());
+        names.addAll(serviceRates.keySet());
+        for (String name : names) {
+            Map<String, Object> service = new LinkedHashMap<>();
+            service.put("totalLogs", current.services.getOrDefault(name, 0L));
+            service.put("currentHourLogs", current.servicesThisHour.getOrDefault(name, 0L));
+            RateMeter meter = serviceRates.get(name);
+            service.put("eventsPerSecond", meter != null ? meter.oneMinute() : 0.0);
+            services.put(name, service);
+        }
+        stats.put("services", services);
+        stats.put("actions", current.actions);
+        stats.put("topUsers", current.topUsers);
+        stats.put("hourly", current.hourly);
+        stats.put("updatedAt", current.updatedAt);
+        return stats;
+    }
+
+    @Scheduled(fixedRate = RateMeter.TICK_SECONDS * 1000L)
+    public void tick() {
+        rate.tick();
+        serviceRates.values().forEach(RateMeter::tick);
+    }
+
+    @Scheduled(fixedDelayString = "${audit.stats.flush-interval:10000}")
+    public synchronized void flush() {
+        // The counts are recounted and written into the rebuilt collection; flushing now
+        // would write into the one about to be replaced
+        if (rebuilding.get()) {
+            return;
+        }
+        String currentHour = LocalDateTime.now().format(HOUR);
+        Map<String, Long> counts = new HashMap<>();
+        for (Map.Entry<String, LongAdder> counter : pending.entrySet()) {
+            String id = counter.getKey();
+            long count = counter.getValue().sumThenReset();
+            if (count != 0) {
+                counts.put(id, count);
+            } else if (!id.startsWith(AuditCounter.ALL_TIME + "|") && !id.startsWith(currentHour + "|")) {
+                // An hour that is over and saw nothing since the last flush is not kept
+                // around. Only dropped while it still reads 0; an event that gets hold of
+                // it anyway is carried over by record()
+                pending.computeIfPresent(id, (key, adder) -> adder.sum() == 0 ? null : adder);
+            }
+        }
+        try {
+            write(COLLECTION, counts);
+        } catch (Exception e) {
+            logger.error("Failed to flush {} audit counters: {}", counts.size(), e.getMessage());
+            // Kept for the next flush
+            counts.forEach(this::requeue);
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.error("Failed to refresh audit stats: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recount every stored entry into a fresh collection and swap it in. The counts
+     * pending here are dropped first, since the recount includes those entries, and
+     * flushes wait until the swap. Events logged while the first page is read, and what
+     * other instances flush meanwhile, may be counted twice or not at all; run it when
+     * traffic is low.
+     */
+    public Map<String, Long> rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A stats rebuild is already running");
+        }
+        try {
+            // Waits for a flush that is under way
+            synchronized (this) {
+                pending.clear();
+            }
+            String staging = COLLECTION + REBUILD_SUFFIX;
+            mongoTemplate.dropCollection(staging);
+            mongoTemplate.createCollection(staging);
+            for (Index index : MongoIndexConfig.indexDefinitions().getOrDefault(COLLECTION, List.of())) {
+                mongoTemplate.indexOps(staging).ensureIndex(index);
+            }
+
+            Map<String, Long> counts = new HashMap<>();
+            long entries = 0;
+            AuditQuery query = AuditQuery.all();
+            while (true) {
+                List<AuditLog> page = auditStore.find(query, REBUILD_PAGE);
+                for (AuditLog entry : page) {
+                    counterIds(entry).forEach(id -> counts.merge(id, 1L, Long::sum));
+                }
+                entries += page.size();
+                // Written in parts so memory does not grow with the history
+                if (counts.size() >= REBUILD_MAX_KEYS) {
+                    write(staging, counts);
+                    counts.clear();
+                }
+                if (page.size() < REBUILD_PAGE) {
+                    break;
+                }
+                AuditLog last = page.get(page.size() - 1);
+                query.before(last.getTimestamp(), last.getId());
+            }
+            write(staging, counts);
+            mongoTemplate.getCollection(staging).renameCollection(
+                    new MongoNamespace(mongoTemplate.getDb().getName(), COLLECTION),
+                    new RenameCollectionOptions().dropTarget(true));
+            refresh();
+
+            Map<String, Long> result = new LinkedHashMap<>();
+            result.put("entries", entries);
+            logger.info("Rebuilt audit counters from {} entries", entries);
+            return result;
+        } finally {
+            rebuilding.set(false);
+            // What was counted here meanwhile goes into the collection now in place
+            flush();
+        }
+    }
+
+    private void write(String collection, Map<String, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuditCounter.class, collection);
+        counts.forEach((id, count) -> {
+            String[] parts = id.split("\\|", 3);
+            Update update = new Update()
+                    .setOnInsert("period", parts[0])
+                    .setOnInsert("dimension", parts[1])
+                    .setOnInsert("name", parts[2])
+                    .inc("count", count)
+                    .set("updatedAt", now);
+            if (!AuditCounter.ALL_TIME.equals(parts[0])) {
+                update.setOnInsert("expireAt", LocalDateTime.parse(parts[0], HOUR).plus(hourlyRetention));
+            }
+            bulk.upsert(new Query(Criteria.where("id").is(id)), update);
+        });
+        bulk.execute();
+    }
+
+    // Added while the map holds the counter, so a flush cannot drop it before the count lands
+    private void requeue(String id, long count) {
+        if (count == 0) {
+            return;
+        }
+        pending.compute(id, (key, adder) -> {
+            LongAdder counter = adder != null ? adder : new LongAdder();
+            counter.add(count);
+            return counter;
+        });
+    }
+
+    // Re-read the figures /stats serves
+    private void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        Snapshot next = new Snapshot();
+        next.currentHour = now.format(HOUR);
+        next.updatedAt = now;
+
+        for (AuditCounter counter : mongoTemplate.find(new Query(Criteria.where("dimension")
+                .in(AuditCounter.TOTAL, AuditCounter.SERVICE, AuditCounter.ACTION)
+                .and("period").is(AuditCounter.ALL_TIME)), AuditCounter.class)) {
+            switch (counter.getDimension()) {
+                case AuditCounter.TOTAL -> next.total = counter.getCount();
+                case AuditCounter.SERVICE -> next.services.put(counter.getName(), counter.getCount());
+                default -> next.actions.put(counter.getName(), counter.getCount());
+            }
+        }
+        mongoTemplate.find(new Query(Criteria.where("dimension").is(AuditCounter.USER)
+                        .and("period").is(AuditCounter.ALL_TIME))
+                        .with(Sort.by(Sort.Direction.DESC, "count")).limit(TOP_USERS), AuditCounter.class)
+                .forEach(counter -> next.topUsers.put(counter.getName(), counter.getCount()));
+        mongoTemplate.find(new Query(Criteria.where("dimension").is(AuditCounter.TOTAL)
+                        .and("period").gte(now.minusHours(HOURS - 1).format(HOUR)).lte(next.currentHour))
+                        .with(Sort.by("period")), AuditCounter.class)
+                .forEach(counter -> next.hourly.put(counter.getPeriod(), counter.getCount()));
+        mongoTemplate.find(new Query(Criteria.where("dimension").is(AuditCounter.SERVICE)
+                        .and("period").is(next.currentHour)), AuditCounter.class)
+                .forEach(counter -> next.servicesThisHour.put(counter.getName(), counter.getCount()));
+        snapshot = next;
+    }
+
+    // Hourly and all-time, for everything, the service, the action and the user
+    private static List<String> counterIds(AuditLog entry) {
+        String hour = entry.getTimestamp().format(HOUR);
+        String service = nameOf(entry.getServiceName());
+        String action = nameOf(entry.getAction());
+        String user = nameOf(entry.getUsername());
+        return List.of(
+                AuditCounter.idOf(hour, AuditCounter.TOTAL, AuditCounter.TOTAL),
+                AuditCounter.idOf(AuditCounter.ALL_TIME, AuditCounter.TOTAL, AuditCounter.TOTAL),
+                AuditCounter.idOf(hour, AuditCounter.SERVICE, service),
+                AuditCounter.idOf(AuditCounter.ALL_TIME, AuditCounter.SERVICE, service),
+                AuditCounter.idOf(hour, AuditCounter.ACTION, action),
+                AuditCounter.idOf(AuditCounter.ALL_TIME, AuditCounter.ACTION, action),
+                AuditCounter.idOf(hour, AuditCounter.USER, user),
+                AuditCounter.idOf(AuditCounter.ALL_TIME, AuditCounter.USER, user));
+    }
+
+    private static Map<String, Double> rates(RateMeter meter) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rates.put("1m", meter.oneMinute());
+        rates.put("5m", meter.fiveMinutes());
+        rates.put("15m", meter.fifteenMinutes());
+        return rates;
+    }
+
+    private static String nameOf(String value) {
+        return value == null || value.isBlank() ? UNKNOWN : value;
+    }
+
+    private static final class Snapshot {
+        private long total;
+        private String currentHour;
+        private LocalDateTime updatedAt;
+        private final Map<String, Long> services = new LinkedHashMap<>();
+        private final Map<String, Long> servicesThisHour = new HashMap<>();
+        private final Map<String, Long> actions = new LinkedHashMap<>();
+        private final Map<String, Long> topUsers = new LinkedHashMap<>();
+        private final Map<String, Long> hourly = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,8 @@
+package com.agroconnect.audit.service;
+
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(int maxEvents) {
+        super("A batch may contain at most " + maxEvents + " events");
+    }
+}
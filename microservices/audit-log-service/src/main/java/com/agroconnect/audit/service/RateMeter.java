@@ -0,0 +1,48 @@
+package com.agroconnect.audit.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Events per second as exponentially weighted moving averages over 1, 5 and 15
+ * minutes, in the style of Unix load averages. mark() is lock-free; tick() must be
+ * called every TICK_SECONDS.
+ */
+final class RateMeter {
+
+    static final int TICK_SECONDS = 5;
+
+    private static final double[] ALPHAS = {
+            1 - Math.exp(-TICK_SECONDS / 60.0),
+            1 - Math.exp(-TICK_SECONDS / 300.0),
+            1 - Math.exp(-TICK_SECONDS / 900.0)
+    };
+
+    private final LongAdder uncounted = new LongAdder();
+    private final double[] rates = new double[ALPHAS.length];
+    private boolean started;
+
+    void mark() {
+        uncounted.increment();
+    }
+
+    synchronized void tick() {
+        double instant = uncounted.sumThenReset() / (double) TICK_SECONDS;
+        for (int i = 0; i < rates.length; i++) {
+            // The first tick starts from the observed rate rather than climbing from zero
+            rates[i] = started ? rates[i] + ALPHAS[i] * (instant - rates[i]) : instant;
+        }
+        started = true;
+    }
+
+    synchronized double oneMinute() {
+        return rates[0];
+    }
+
+    synchronized double fiveMinutes() {
+        return rates[1];
+    }
+
+    synchronized double fifteenMinutes() {
+        return rates[2];
+    }
+}
@@ -0,0 +1,137 @@
+package com.agroconnect.audit.store;
+
+import com.agroconnect.audit.model.AuditLog;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for audit lookups. Unset fields match everything; from and to are inclusive.
+ * before(timestamp, id) resumes a newest-first listing after the entry it names.
+ */
+public class AuditQuery {
+
+    private String serviceName;
+    private String username;
+    private String action;
+    private String requestId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private LocalDateTime beforeTimestamp;
+    private String beforeId;
+
+    public static AuditQuery all() {
+        return new AuditQuery();
+    }
+
+    public AuditQuery serviceName(String serviceName) {
+        this.serviceName = serviceName;
+        return this;
+    }
+
+    public AuditQuery username(String username) {
+        this.username = username;
+        return this;
+    }
+
+    public AuditQuery action(String action) {
+        this.action = action;
+        return this;
+    }
+
+    public AuditQuery requestId(String requestId) {
+        this.requestId = requestId;
+        return this;
+    }
+
+    public AuditQuery from(LocalDateTime from) {
+        this.from = from;
+        return this;
+    }
+
+    public AuditQuery to(LocalDateTime to) {
+        this.to = to;
+        return this;
+    }
+
+    /**
+     * Only entries that come after this one in newest-first order
+     */
+    public AuditQuery before(LocalDateTime timestamp, String id) {
+        this.beforeTimestamp = timestamp;
+        this.beforeId = id;
+        return this;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public LocalDateTime getBeforeTimestamp() {
+        return beforeTimestamp;
+    }
+
+    public String getBeforeId() {
+        return beforeId;
+    }
+
+    /**
+     * The newest timestamp an entry can have: to or the keyset position, whichever is earlier
+     */
+    public LocalDateTime getUpperBound() {
+        if (beforeTimestamp == null) {
+            return to;
+        }
+        return to == null || beforeTimestamp.isBefore(to) ? beforeTimestamp : to;
+    }
+
+    /**
+     * Whether anything besides the time range is filtered on
+     */
+    public boolean hasFieldFilters() {
+        return serviceName != null || username != null || action != null || requestId != null
+                || beforeTimestamp != null;
+    }
+
+    public boolean matches(AuditLog entry) {
+        return matches(serviceName, entry.getServiceName())
+                && matches(username, entry.getUsername())
+                && matches(action, entry.getAction())
+                && matches(requestId, entry.getRequestId())
+                && (from == null || !entry.getTimestamp().isBefore(from))
+                && (to == null || !entry.getTimestamp().isAfter(to))
+                && isBefore(entry);
+    }
+
+    // Newest first means timestamp descending, then id descending
+    private boolean isBefore(AuditLog entry) {
+        if (beforeTimestamp == null) {
+            return true;
+        }
+        int byTime = entry.getTimestamp().compareTo(beforeTimestamp);
+        return byTime < 0 || (byTime == 0 && entry.getId() != null && entry.getId().compareTo(beforeId) < 0);
+    }
+
+    private static boolean matches(String expected, String actual) {
+        return expected == null || expected.equals(actual);
+    }
+}
@@ -0,0 +1,88 @@
+package com.agroconnect.audit.store;
+
+import com.agroconnect.audit.model.AuditLog;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of audit entries inside a segment block: per entry the timestamp as epoch
+ * millis, then each text field as a length (-1 for null) and its UTF-8 bytes.
+ */
+final class AuditRecordCodec {
+
+    private AuditRecordCodec() {
+    }
+
+    static long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    static void encode(AuditLog entry, DataOutputStream out) {
+        try {
+            out.writeLong(toMillis(entry.getTimestamp()));
+            writeString(out, entry.getId());
+            writeString(out, entry.getServiceName());
+            writeString(out, entry.getUsername());
+            writeString(out, entry.getAction());
+            writeString(out, entry.getDetails());
+            writeString(out, entry.getIpAddress());
+            writeString(out, entry.getUserAgent());
+            writeString(out, entry.getRequestId());
+        } catch (IOException e) {
+            // Only written to memory
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<AuditLog> decode(byte[] data, int count) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        List<AuditLog> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AuditLog entry = new AuditLog();
+            entry.setTimestamp(fromMillis(buffer.getLong()));
+            entry.setId(readString(buffer));
+            entry.setServiceName(readString(buffer));
+            entry.setUsername(readString(buffer));
+            entry.setAction(readString(buffer));
+            entry.setDetails(readString(buffer));
+            entry.setIpAddress(readString(buffer));
+            entry.setUserAgent(readString(buffer));
+            entry.setRequestId(readString(buffer));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,35 @@
+package com.agroconnect.audit.store;
+
+import com.agroconnect.audit.model.AuditLog;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where audit entries are kept. Chosen with audit.storage.type: "mongo" (default) keeps
+ * them in monthly Mongo collections, "segment-log" in append-only local segment files.
+ * Results are always newest first.
+ */
+public interface AuditStore {
+
+    /**
+     * Store entries. Entries without an id get one; an id that is already stored counts
+     * as a duplicate and is not written again.
+     */
+    StoreResult append(List<AuditLog> entries);
+
+    /**
+     * Entries matching the query, newest first; a limit of 0 or less means no limit
+     */
+    List<AuditLog> find(AuditQuery query, int limit);
+
+    Optional<AuditLog> findById(String id);
+
+    long count(AuditQuery query);
+
+    /**
+     * Remove one entry; returns false if there was none. Stores that cannot remove single
+     * entries throw UnsupportedOperationException.
+     */
+    boolean deleteById(String id);
+}
@@ -0,0 +1,11 @@
+package com.agroconnect.audit.store;
+
+/**
+ * The store could not be read or written; nothing about the request itself is wrong
+ */
+public class AuditStoreException extends RuntimeException {
+
+    public AuditStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,355 @@
+package com.agroconnect.audit.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * One file of the audit segment log: a sequence of compressed blocks, each with a header
+ *
+ *   magic, compressed length, raw length, entry count, min and max timestamp, CRC32
+ *
+ * followed by the deflated entries. Blocks are only ever appended. The sparse index is
+ * the list of block headers (offset and timestamp range), kept in memory and written to
+ * a .idx file next to the segment when it is sealed; without one it is rebuilt by hopping
+ * from header to header. Reads go through a read-only memory mapping of the file.
+ */
+final class LogSegment {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSegment.class);
+
+    static final String SUFFIX = ".seg";
+    static final int HEADER_BYTES = 36;
+
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int MAGIC = 0x41554431;
+    private static final int INDEX_MAGIC = 0x41554958;
+    private static final int INDEX_ENTRY_BYTES = 36;
+
+    private final long number;
+    private final Path file;
+    private final Path indexFile;
+    private final List<Block> blocks = new CopyOnWriteArrayList<>();
+    private final long openedAt = System.currentTimeMillis();
+
+    private volatile long size;
+    private volatile long minMillis = Long.MAX_VALUE;
+    private volatile long maxMillis = Long.MIN_VALUE;
+    private volatile boolean sealed;
+
+    // Open only while the segment is the one being written
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+
+    private LogSegment(Path directory, long number) {
+        this.number = number;
+        this.file = directory.resolve(String.format("%020d%s", number, SUFFIX));
+        this.indexFile = directory.resolve(String.format("%020d%s", number, INDEX_SUFFIX));
+    }
+
+    static LogSegment create(Path directory, long number) throws IOException {
+        LogSegment segment = new LogSegment(directory, number);
+        segment.channel = FileChannel.open(segment.file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return segment;
+    }
+
+    /**
+     * Open an existing segment. Sealed segments load their index; any other is scanned,
+     * a block cut short by a crash is cut off, and it is left open for appending.
+     */
+    static LogSegment open(Path directory, long number) throws IOException {
+        LogSegment segment = new LogSegment(directory, number);
+        if (Files.exists(segment.indexFile) && segment.loadIndex()) {
+            segment.sealed = true;
+            return segment;
+        }
+        segment.channel = FileChannel.open(segment.file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment.recover();
+        return segment;
+    }
+
+    static long numberOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    long getNumber() {
+        return number;
+    }
+
+    // When this process opened it, which for a recovered segment is the restart time
+    long getOpenedAt() {
+        return openedAt;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    long getMinMillis() {
+        return minMillis;
+    }
+
+    long getMaxMillis() {
+        return maxMillis;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    boolean overlaps(long from, long to) {
+        return !blocks.isEmpty() && minMillis <= to && maxMillis >= from;
+    }
+
+    List<Block> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+    /**
+     * Append one block of already deflated entries. Only the store's writer calls this.
+     */
+    void append(byte[] compressed, int rawLength, int count, long blockMin, long blockMax, boolean force)
+            throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + compressed.length);
+        buffer.putInt(MAGIC).putInt(compressed.length).putInt(rawLength).putInt(count)
+                .putLong(blockMin).putLong(blockMax).putInt((int) crc.getValue()).put(compressed).flip();
+        long offset = size;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        if (force) {
+            channel.force(false);
+        }
+        // Published only once the bytes are in the file, so readers never see a partial block
+        size = offset + HEADER_BYTES + compressed.length;
+        addBlock(new Block(offset, HEADER_BYTES + compressed.length, rawLength, count, blockMin, blockMax));
+    }
+
+    /**
+     * The raw (inflated) entries of a block
+     */
+    byte[] read(Block block) throws IOException {
+        ByteBuffer view = mapping(block.offset + block.length);
+        view.position((int) block.offset);
+        if (view.getInt() != MAGIC) {
+            throw new IOException("Corrupt block at " + block.offset + " in " + file.getFileName());
+        }
+        int compressedLength = view.getInt();
+        view.position((int) block.offset + HEADER_BYTES - 4);
+        int checksum = view.getInt();
+        byte[] compressed = new byte[compressedLength];
+        view.get(compressed);
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Checksum mismatch at " + block.offset + " in " + file.getFileName());
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[block.rawLength];
+            int inflated = 0;
+            while (inflated < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, inflated, raw.length - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != raw.length) {
+                throw new IOException("Block at " + block.offset + " in " + file.getFileName() + " is truncated");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block at " + block.offset + " in " + file.getFileName(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Stop appending: flush, close the file and write the index
+     */
+    void seal() throws IOException {
+        if (sealed) {
+            return;
+        }
+        closeChannel(true);
+        ByteBuffer index = ByteBuffer.allocate(8 + blocks.size() * INDEX_ENTRY_BYTES);
+        index.putInt(INDEX_MAGIC).putInt(blocks.size());
+        for (Block block : blocks) {
+            index.putLong(block.offset).putInt(block.length).putInt(block.rawLength).putInt(block.count)
+                    .putLong(block.minMillis).putLong(block.maxMillis);
+        }
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        Files.write(temp, index.array());
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sealed = true;
+    }
+
+    void close() throws IOException {
+        closeChannel(true);
+    }
+
+    void delete() throws IOException {
+        closeChannel(false);
+        Files.deleteIfExists(indexFile);
+        Files.deleteIfExists(file);
+    }
+
+    // Remapped when the segment has grown past the current mapping
+    private synchronized ByteBuffer mapping(long needed) throws IOException {
+        if (mapping == null || mapping.capacity() < needed) {
+            try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+                mapping = reader.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+        return mapping.duplicate();
+    }
+
+    private boolean loadIndex() throws IOException {
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        if (index.remaining() < 8 || index.getInt() != INDEX_MAGIC) {
+            return false;
+        }
+        int count = index.getInt();
+        if (index.remaining() != (long) count * INDEX_ENTRY_BYTES) {
+            return false;
+        }
+        List<Block> loaded = new ArrayList<>(count);
+        long offset = 0;
+        for (int i = 0; i < count; i++) {
+            Block block = new Block(index.getLong(), index.getInt(), index.getInt(), index.getInt(),
+                    index.getLong(), index.getLong());
+            if (block.offset != offset) {
+                return false;
+            }
+            loaded.add(block);
+            offset += block.length;
+        }
+        // An index that does not cover the file exactly is not trusted
+        if (offset != Files.size(file)) {
+            return false;
+        }
+        loaded.forEach(this::addBlock);
+        size = offset;
+        return true;
+    }
+
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (offset + HEADER_BYTES <= fileSize) {
+            header.clear();
+            readFully(header, offset);
+            header.flip();
+            int magic = header.getInt();
+            int compressedLength = header.getInt();
+            int rawLength = header.getInt();
+            int count = header.getInt();
+            long blockMin = header.getLong();
+            long blockMax = header.getLong();
+            int checksum = header.getInt();
+            if (magic != MAGIC || compressedLength < 0 || rawLength < 0
+                    || offset + HEADER_BYTES + compressedLength > fileSize) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(compressedLength);
+            readFully(payload, offset + HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            addBlock(new Block(offset, HEADER_BYTES + compressedLength, rawLength, count, blockMin, blockMax));
+            offset += HEADER_BYTES + compressedLength;
+        }
+        if (offset < fileSize) {
+            logger.warn("Audit segment {} ends in an incomplete block; cutting {} bytes", file.getFileName(),
+                    fileSize - offset);
+            channel.truncate(offset);
+        }
+        size = offset;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + file.getFileName());
+            }
+        }
+    }
+
+    private void addBlock(Block block) {
+        blocks.add(block);
+        minMillis = Math.min(minMillis, block.minMillis);
+        maxMillis = Math.max(maxMillis, block.maxMillis);
+    }
+
+    private void closeChannel(boolean force) throws IOException {
+        if (channel != null) {
+            try {
+                if (force) {
+                    channel.force(true);
+                }
+            } finally {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file.getFileName().toString();
+    }
+
+    /**
+     * Index entry for one block
+     */
+    static final class Block {
+        final long offset;
+        final int length;
+        final int rawLength;
+        final int count;
+        final long minMillis;
+        final long maxMillis;
+
+        Block(long offset, int length, int rawLength, int count, long minMillis, long maxMillis) {
+            this.offset = offset;
+            this.length = length;
+            this.rawLength = rawLength;
+            this.count = count;
+            this.minMillis = minMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        boolean overlaps(long from, long to) {
+            return minMillis <= to && maxMillis >= from;
+        }
+
+        boolean within(long from, long to) {
+            return minMillis >= from && maxMillis <= to;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.agroconnect.audit.store;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Sorts;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Monthly audit collections (audit_logs_yyyy_MM), so recent queries only touch the
+ * newest, small collections however much history there is.
+ *
+ * Partitions are created with their indexes on first write. A daily maintenance run
+ * writes each partition that ended more than archive-after ago to a gzipped NDJSON file
+ * in archive-dir and drops it, and removes partitions and archives that ended more than
+ * retention ago. Entries for months past archive-after are rejected at ingest, so nothing
+ * is written to a partition while or after it is archived. Entries left in the old single
+ * audit_logs collection are moved into their partitions at startup. Maintenance is meant
+ * to run on one instance only.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.storage.type", havingValue = "mongo", matchIfMissing = true)
+public class MongoAuditPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoAuditPartitions.class);
+
+    private static final String LEGACY_COLLECTION = "audit_logs";
+
+    private static final String PREFIX = "audit_logs_";
+    private static final Pattern NAME = Pattern.compile("audit_logs_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String ARCHIVE_SUFFIX = ".ndjson.gz";
+    private static final JsonWriterSettings ARCHIVE_JSON = JsonWriterSettings.builder()
+            .outputMode(JsonMode.RELAXED).build();
+    private static final int MIGRATE_BATCH = 1000;
+    private static final int DUPLICATE_KEY = 11000;
+    // Archiving waits this long after ingest stops accepting a month, so in-flight writes have landed
+    private static final Duration ARCHIVE_GRACE = Duration.ofDays(1);
+    // Replaced by the _id-suffixed indexes
+    private static final List<String> OBSOLETE_INDEXES = List.of(
+            "serviceName_timestamp", "username_timestamp", "action_timestamp", "requestId");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // 0 keeps everything
+    @Value("${audit.storage.mongo.retention:365d}")
+    private Duration retention;
+
+    // 0 keeps every partition in Mongo
+    @Value("${audit.storage.mongo.archive-after:90d}")
+    private Duration archiveAfter;
+
+    @Value("${audit.storage.mongo.archive-dir:data/audit-archive}")
+    private String archiveDir;
+
+    @Value("${audit.storage.mongo.maintenance-enabled:true}")
+    private boolean maintenanceEnabled;
+
+    private final ConcurrentSkipListMap<YearMonth, String> partitions = new ConcurrentSkipListMap<>();
+
+    /**
+     * Indexes every partition gets, one per access path of the query API. Each ends in
+     * timestamp and _id, which serve the time range and the newest-first keyset order;
+     * other filter combinations use the index of their most selective field and filter
+     * the rest.
+     */
+    public static List<Index> partitionIndexes() {
+        return List.of(
+                // no filter or time range only
+                new Index().on("timestamp", Direction.DESC).on("_id", Direction.DESC).named("timestamp_id"),
+                // by service, the most common filter
+                new Index().on("serviceName", Direction.ASC).on("timestamp", Direction.DESC).on("_id", Direction.DESC)
+                        .named("serviceName_timestamp_id"),
+                // one kind of action within a service
+                new Index().on("serviceName", Direction.ASC).on("action", Direction.ASC)
+                        .on("timestamp", Direction.DESC).on("_id", Direction.DESC)
+                        .named("serviceName_action_timestamp_id"),
+                // by user
+                new Index().on("username", Direction.ASC).on("timestamp", Direction.DESC).on("_id", Direction.DESC)
+                        .named("username_timestamp_id"),
+                // by action across services
+                new Index().on("action", Direction.ASC).on("timestamp", Direction.DESC).on("_id", Direction.DESC)
+                        .named("action_timestamp_id"),
+                // everything one request did
+                new Index().on("requestId", Direction.ASC).on("timestamp", Direction.DESC).on("_id", Direction.DESC)
+                        .named("requestId_timestamp_id")
+        );
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+        partitions.values().forEach(this::ensureIndexes);
+        if (mongoTemplate.collectionExists(LEGACY_COLLECTION)) {
+            migrateLegacy();
+        }
+    }
+
+    static YearMonth monthOf(LocalDateTime timestamp) {
+        return YearMonth.from(timestamp);
+    }
+
+    static String nameFor(YearMonth month) {
+        return PREFIX + month.format(MONTH);
+    }
+
+    /**
+     * Whether entries of this month are already past retention and must not be stored
+     */
+    boolean isExpired(YearMonth month) {
+        return !retention.isZero() && endOf(month).isBefore(LocalDateTime.now().minus(retention));
+    }
+
+    /**
+     * Whether this month is past archive-after; its partition is archived and dropped, so
+     * entries for it must not be stored either
+     */
+    boolean isArchivable(YearMonth month) {
+        return isArchivable(month, LocalDateTime.now());
+    }
+
+    private boolean isArchivable(YearMonth month, LocalDateTime now) {
+        return !archiveAfter.isZero() && endOf(month).isBefore(now.minus(archiveAfter));
+    }
+
+    /**
+     * The month's collection, created with its indexes if this is its first entry
+     */
+    String ensure(YearMonth month) {
+        String existing = partitions.get(month);
+        if (existing != null) {
+            return existing;
+        }
+        String name = nameFor(month);
+        if (!mongoTemplate.collectionExists(name)) {
+            try {
+                mongoTemplate.createCollection(name);
+            } catch (Exception e) {
+                // Created meanwhile by another instance
+                logger.debug("Audit partition {} not created: {}", name, e.getMessage());
+            }
+        }
+        ensureIndexes(name);
+        partitions.put(month, name);
+        return name;
+    }
+
+    /**
+     * Partitions that can hold entries in the range (either end may be null), newest first
+     */
+    List<String> overlapping(LocalDateTime from, LocalDateTime to) {
+        NavigableMap<YearMonth, String> range = partitions;
+        if (from != null) {
+            range = range.tailMap(monthOf(from), true);
+        }
+        if (to != null) {
+            range = range.headMap(monthOf(to), true);
+        }
+        return new ArrayList<>(range.descendingMap().values());
+    }
+
+    // Picks up partitions created, and forgets partitions dropped, by other instances
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void refresh() {
+        Set<String> names = mongoTemplate.getCollectionNames();
+        for (String name : names) {
+            Matcher matcher = NAME.matcher(name);
+            if (matcher.matches()) {
+                partitions.putIfAbsent(YearMonth.of(Integer.parseInt(matcher.group(1)),
+                        Integer.parseInt(matcher.group(2))), name);
+            }
+        }
+        // A partition created between listing and here is dropped from the map too; ensure() re-adds it
+        partitions.values().removeIf(name -> !names.contains(name));
+    }
+
+    @Scheduled(cron = "${audit.storage.mongo.maintenance-cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!maintenanceEnabled) {
+            return;
+        }
+        refresh();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<YearMonth, String> partition : partitions.entrySet()) {
+            YearMonth month = partition.getKey();
+            String name = partition.getValue();
+            try {
+                if (isExpired(month)) {
+                    mongoTemplate.dropCollection(name);
+                    partitions.remove(month);
+                    logger.info("Dropped audit partition {} past retention of {}", name, retention);
+                } else if (isArchivable(month, now.minus(ARCHIVE_GRACE))) {
+                    archive(month, name);
+                }
+            } catch (Exception e) {
+                logger.error("Maintenance of audit partition {} failed: {}", name, e.getMessage(), e);
+            }
+        }
+        deleteExpiredArchives();
+    }
+
+    // Written to a temporary file and moved into place before the collection is dropped
+    private void archive(YearMonth month, String name) throws IOException {
+        Path directory = Paths.get(archiveDir);
+        Files.createDirectories(directory);
+        Path target = directory.resolve(name + ARCHIVE_SUFFIX);
+        if (Files.exists(target)) {
+            // Entries that arrived late for an already archived month
+            target = directory.resolve(name + "-" + System.currentTimeMillis() + ARCHIVE_SUFFIX);
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long count = 0;
+        try (Writer out = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8);
+             MongoCursor<Document> cursor = mongoTemplate.getCollection(name).find()
+                     .sort(Sorts.ascending("timestamp", "_id")).batchSize(MIGRATE_BATCH).iterator()) {
+            while (cursor.hasNext()) {
+                out.write(cursor.next().toJson(ARCHIVE_JSON));
+                out.write('\n');
+                count++;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        mongoTemplate.dropCollection(name);
+        partitions.remove(month);
+        logger.info("Archived audit partition {} ({} entries) to {}", name, count, target);
+    }
+
+    private void deleteExpiredArchives() {
+        Path directory = Paths.get(archiveDir);
+        if (retention.isZero() || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + ARCHIVE_SUFFIX)) {
+            for (Path file : files) {
+                Matcher matcher = NAME.matcher(file.getFileName().toString());
+                if (matcher.lookingAt() && isExpired(YearMonth.of(Integer.parseInt(matcher.group(1)),
+                        Integer.parseInt(matcher.group(2))))) {
+                    Files.deleteIfExists(file);
+                    logger.info("Deleted audit archive {} past retention of {}", file.getFileName(), retention);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to clean up audit archives in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    // Moves entries from the single pre-partitioning collection in batches, then drops it
+    private void migrateLegacy() {
+        MongoCollection<Document> legacy = mongoTemplate.getCollection(LEGACY_COLLECTION);
+        long total = legacy.estimatedDocumentCount();
+        if (total > 0) {
+            logger.info("Moving {} audit entries from {} into monthly partitions", total, LEGACY_COLLECTION);
+        }
+        long moved = 0;
+        List<Document> batch = new ArrayList<>(MIGRATE_BATCH);
+        try (MongoCursor<Document> cursor = legacy.find().batchSize(MIGRATE_BATCH).iterator()) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == MIGRATE_BATCH || !cursor.hasNext()) {
+                    moved += moveBatch(legacy, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (legacy.countDocuments() == 0) {
+            mongoTemplate.dropCollection(LEGACY_COLLECTION);
+            logger.info("Moved {} audit entries into monthly partitions", moved);
+        } else {
+            logger.warn("{} still holds entries that could not be moved; they are not queried", LEGACY_COLLECTION);
+        }
+    }
+
+    private int moveBatch(MongoCollection<Document> legacy, List<Document> batch) {
+        Map<YearMonth, List<Document>> byMonth = new HashMap<>();
+        List<Object> done = new ArrayList<>();
+        for (Document document : batch) {
+            Date timestamp = document.getDate("timestamp");
+            LocalDateTime time = timestamp != null
+                    ? LocalDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault()) : LocalDateTime.now();
+            YearMonth month = monthOf(time);
+            if (isExpired(month)) {
+                done.add(document.get("_id"));
+            } else {
+                byMonth.computeIfAbsent(month, key -> new ArrayList<>()).add(document);
+            }
+        }
+        int moved = 0;
+        for (Map.Entry<YearMonth, List<Document>> month : byMonth.entrySet()) {
+            try {
+                mongoTemplate.getCollection(ensure(month.getKey()))
+                        .insertMany(month.getValue(), new InsertManyOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                // Already moved by an earlier, interrupted run
+                if (e.getWriteErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                    logger.error("Failed to move audit entries to {}: {}", nameFor(month.getKey()), e.getMessage());
+                    continue;
+                }
+            }
+            month.getValue().forEach(document -> done.add(document.get("_id")));
+            moved += month.getValue().size();
+        }
+        if (!done.isEmpty()) {
+            legacy.deleteMany(Filters.in("_id", done));
+        }
+        return moved;
+    }
+
+    private void ensureIndexes(String name) {
+        IndexOperations indexOps = mongoTemplate.indexOps(name);
+        try {
+            for (IndexInfo info : indexOps.getIndexInfo()) {
+                if (OBSOLETE_INDEXES.contains(info.getName())) {
+                    indexOps.dropIndex(info.getName());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to drop obsolete indexes on {}: {}", name, e.getMessage());
+        }
+        for (Index index : partitionIndexes()) {
+            try {
+                indexOps.ensureIndex(index);
+            } catch (Exception e) {
+                // A missing index only costs performance, so keep going
+                logger.error("Failed to create index {} on {}: {}", index.getIndexOptions().get("name"), name,
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    private static LocalDateTime endOf(YearMonth month) {
+        return month.plusMonths(1).atDay(1).atStartOfDay();
+    }
+}
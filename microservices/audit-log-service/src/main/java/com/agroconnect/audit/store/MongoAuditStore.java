@@ -0,0 +1,221 @@
+package com.agroconnect.audit.store;
+
+import com.agroconnect.audit.model.AuditLog;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Audit entries as documents in monthly partitions (see MongoAuditPartitions). Appends
+ * are one unordered insertMany of prebuilt documents per month, so a duplicate or bad
+ * entry does not stop the rest. Queries only visit the partitions their time range
+ * overlaps, newest first, and stop once the limit is reached. Documents have the shape
+ * Spring Data writes for AuditLog, so they read back like any other entry.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.storage.type", havingValue = "mongo", matchIfMissing = true)
+public class MongoAuditStore implements AuditStore {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoAuditPartitions partitions;
+
+    @Override
+    public StoreResult append(List<AuditLog> entries) {
+        StoreResult result = new StoreResult();
+        // Positions in entries, per month
+        Map<YearMonth, List<Integer>> byMonth = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            YearMonth month = MongoAuditPartitions.monthOf(entries.get(i).getTimestamp());
+            if (partitions.isExpired(month)) {
+                result.fail(i, "timestamp is older than the audit retention period");
+            } else if (partitions.isArchivable(month)) {
+                result.fail(i, "timestamp falls in a month that is already archived");
+            } else {
+                byMonth.computeIfAbsent(month, key -> new ArrayList<>()).add(i);
+            }
+        }
+        for (Map.Entry<YearMonth, List<Integer>> month : byMonth.entrySet()) {
+            insert(partitions.ensure(month.getKey()), entries, month.getValue(), result);
+        }
+        return result;
+    }
+
+    @Override
+    public List<AuditLog> find(AuditQuery query, int limit) {
+        List<AuditLog> matches = new ArrayList<>();
+        for (String partition : partitions.overlapping(query.getFrom(), query.getUpperBound())) {
+            Query mongoQuery = new Query(criteria(query))
+                    .with(Sort.by(Sort.Direction.DESC, "timestamp", "id"));
+            if (limit > 0) {
+                mongoQuery.limit(limit - matches.size());
+            }
+            matches.addAll(mongoTemplate.find(mongoQuery, AuditLog.class, partition));
+            if (limit > 0 && matches.size() >= limit) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public Optional<AuditLog> findById(String id) {
+        for (String partition : partitionsFor(id)) {
+            AuditLog entry = mongoTemplate.findById(id, AuditLog.class, partition);
+            if (entry != null) {
+                return Optional.of(entry);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public long count(AuditQuery query) {
+        long count = 0;
+        for (String partition : partitions.overlapping(query.getFrom(), query.getUpperBound())) {
+            count += mongoTemplate.count(new Query(criteria(query)), partition);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        for (String partition : partitionsFor(id)) {
+            if (mongoTemplate.remove(new Query(Criteria.where("id").is(id)), AuditLog.class, partition)
+                    .getDeletedCount() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insert(String partition, List<AuditLog> entries, List<Integer> positions, StoreResult result) {
+        List<Document> documents = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            documents.add(toDocument(entries.get(position)));
+        }
+        try {
+            mongoTemplate.getCollection(partition).insertMany(documents, new InsertManyOptions().ordered(false));
+            result.addStored(documents.size());
+        } catch (MongoBulkWriteException e) {
+            // Unordered, so every document without an error was written
+            result.addStored(documents.size() - e.getWriteErrors().size());
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() == DUPLICATE_KEY) {
+                    result.duplicate(positions.get(error.getIndex()));
+                } else {
+                    result.fail(positions.get(error.getIndex()), error.getMessage());
+                }
+            }
+        }
+    }
+
+    // Generated ids carry their creation time, which is almost always the entry's month
+    private List<String> partitionsFor(String id) {
+        List<String> candidates = partitions.overlapping(null, null);
+        if (ObjectId.isValid(id)) {
+            LocalDateTime created = LocalDateTime.ofInstant(new ObjectId(id).getDate().toInstant(), ZoneId.systemDefault());
+            String likely = MongoAuditPartitions.nameFor(MongoAuditPartitions.monthOf(created));
+            if (candidates.remove(likely)) {
+                candidates.add(0, likely);
+            }
+        }
+        return candidates;
+    }
+
+    private static Criteria criteria(AuditQuery query) {
+        Criteria criteria = new Criteria();
+        if (query.getServiceName() != null) {
+            criteria.and("serviceName").is(query.getServiceName());
+        }
+        if (query.getUsername() != null) {
+            criteria.and("username").is(query.getUsername());
+        }
+        if (query.getAction() != null) {
+            criteria.and("action").is(query.getAction());
+        }
+        if (query.getRequestId() != null) {
+            criteria.and("requestId").is(query.getRequestId());
+        }
+        if (query.getFrom() != null || query.getTo() != null) {
+            Criteria timestamp = criteria.and("timestamp");
+            if (query.getFrom() != null) {
+                timestamp.gte(query.getFrom());
+            }
+            if (query.getTo() != null) {
+                timestamp.lte(query.getTo());
+            }
+        }
+        if (query.getBeforeTimestamp() != null) {
+            criteria.orOperator(Criteria.where("timestamp").lt(query.getBeforeTimestamp()),
+                    new Criteria().andOperator(Criteria.where("timestamp").is(query.getBeforeTimestamp()),
+                            idBefore(query.getBeforeId())));
+        }
+        return criteria;
+    }
+
+    // Ids sort ObjectIds above strings, and $lt only compares ids of the same type
+    private static Criteria idBefore(String id) {
+        if (ObjectId.isValid(id)) {
+            return new Criteria().orOperator(Criteria.where("_id").lt(new ObjectId(id)),
+                    Criteria.where("_id").type(JsonSchemaObject.Type.STRING));
+        }
+        return Criteria.where("_id").lt(id);
+    }
+
+    private static Document toDocument(AuditLog entry) {
+        Document document = new Document("_id", id(entry));
+        put(document, "serviceName", entry.getServiceName());
+        put(document, "username", entry.getUsername());
+        put(document, "action", entry.getAction());
+        put(document, "details", entry.getDetails());
+        // Stored the way Spring Data converts LocalDateTime
+        document.put("timestamp", Date.from(entry.getTimestamp().atZone(ZoneId.systemDefault()).toInstant()));
+        put(document, "ipAddress", entry.getIpAddress());
+        put(document, "userAgent", entry.getUserAgent());
+        put(document, "requestId", entry.getRequestId());
+        document.put("_class", AuditLog.class.getName());
+        return document;
+    }
+
+    // Spring Data reads and queries 24-hex ids as ObjectIds, so store them that way
+    private static Object id(AuditLog entry) {
+        String id = entry.getId();
+        if (id == null || id.isBlank()) {
+            ObjectId generated = new ObjectId();
+            entry.setId(generated.toHexString());
+            return generated;
+        }
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static void put(Document document, String field, String value) {
+        if (value != null) {
+            document.put(field, value);
+        }
+    }
+}
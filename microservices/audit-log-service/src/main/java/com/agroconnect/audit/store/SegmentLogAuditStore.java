@@ -0,0 +1,356 @@
+package com.agroconnect.audit.store;
+
+import com.agroconnect.audit.model.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.Deflater;
+
+/**
+ * Audit entries in append-only segment files on local disk instead of Mongo, for when
+ * write volume matters more than ad-hoc querying (audit.storage.type=segment-log).
+ *
+ * Appends are grouped into blocks of up to block-records entries, deflated and written
+ * to the end of the current segment. A segment is sealed and a new one started when it
+ * reaches segment-size or has been written to for max-age; sealed segments whose
+ * newest entry is older than retention are deleted. Every block's timestamp range is
+ * kept in memory, so a time-range query only inflates the blocks that overlap it and
+ * reads them sequentially through a memory mapping. Other filters are applied while
+ * scanning those blocks, and lookups by id scan newest first, so both cost a pass over
+ * the selected range.
+ *
+ * The ids of the last dedupe-window entries are remembered (and reloaded on startup), so
+ * batches redelivered by audit clients are reported as duplicates, not stored twice.
+ * Entries cannot be deleted one at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.storage.type", havingValue = "segment-log")
+public class SegmentLogAuditStore implements AuditStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentLogAuditStore.class);
+
+    private static final Comparator<AuditLog> NEWEST_FIRST = Comparator
+            .comparing(AuditLog::getTimestamp, Comparator.reverseOrder())
+            .thenComparing(AuditLog::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+    private static final long MAX_SEGMENT_SIZE = DataSize.ofGigabytes(1).toBytes();
+
+    @Value("${audit.storage.segment.dir:data/audit-segments}")
+    private String dir;
+
+    @Value("${audit.storage.segment.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${audit.storage.segment.max-age:1d}")
+    private Duration maxAge;
+
+    @Value("${audit.storage.segment.block-records:1000}")
+    private int blockRecords;
+
+    @Value("${audit.storage.segment.block-size:1MB}")
+    private DataSize blockSize;
+
+    @Value("${audit.storage.segment.retention:365d}")
+    private Duration retention;
+
+    // Force each block to disk before acknowledging it
+    @Value("${audit.storage.segment.fsync:false}")
+    private boolean fsync;
+
+    @Value("${audit.storage.segment.dedupe-window:100000}")
+    private int dedupeWindow;
+
+    // Oldest first; the last one is being written
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+
+    private Path directory;
+    private LogSegment active;
+    private Set<String> recentIds;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (segmentSize.toBytes() > MAX_SEGMENT_SIZE) {
+            throw new IllegalStateException("audit.storage.segment.segment-size may be at most 1GB");
+        }
+        directory = Paths.get(dir);
+        Files.createDirectories(directory);
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + LogSegment.SUFFIX)) {
+            files.forEach(file -> numbers.add(LogSegment.numberOf(file)));
+        }
+        Collections.sort(numbers);
+        for (long number : numbers) {
+            segments.add(LogSegment.open(directory, number));
+        }
+        // Only the newest may stay open; an older unsealed one was left by a crash while rolling
+        for (int i = 0; i < segments.size() - 1; i++) {
+            segments.get(i).seal();
+        }
+        LogSegment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last == null || last.isSealed()) {
+            last = LogSegment.create(directory, last == null ? 1 : last.getNumber() + 1);
+            segments.add(last);
+        }
+        active = last;
+        applyRetention();
+        loadRecentIds();
+        logger.info("Audit segment log in {}: {} segments", directory.toAbsolutePath(), segments.size());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            active.close();
+        } catch (IOException e) {
+            logger.error("Failed to close audit segment {}: {}", active, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized StoreResult append(List<AuditLog> entries) {
+        StoreResult result = new StoreResult();
+        List<AuditLog> block = new ArrayList<>();
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(raw);
+        Set<String> batchIds = new HashSet<>();
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                AuditLog entry = entries.get(i);
+                if (entry.getId() == null || entry.getId().isBlank()) {
+                    entry.setId(new ObjectId().toHexString());
+                } else if (recentIds.contains(entry.getId()) || !batchIds.add(entry.getId())) {
+                    result.duplicate(i);
+                    continue;
+                }
+                AuditRecordCodec.encode(entry, out);
+                block.add(entry);
+                if (block.size() >= blockRecords || raw.size() >= blockSize.toBytes()) {
+                    writeBlock(block, raw.toByteArray());
+                    result.addStored(block.size());
+                    block.clear();
+                    raw.reset();
+                }
+            }
+            if (!block.isEmpty()) {
+                writeBlock(block, raw.toByteArray());
+                result.addStored(block.size());
+            }
+        } catch (IOException e) {
+            throw new AuditStoreException("Failed to append to audit segment " + active, e);
+        }
+        return result;
+    }
+
+    @Override
+    public List<AuditLog> find(AuditQuery query, int limit) {
+        long from = from(query);
+        long to = to(query);
+        if (limit <= 0) {
+            List<AuditLog> matches = new ArrayList<>();
+            for (Candidate candidate : candidates(from, to)) {
+                candidate.read().stream().filter(query::matches).forEach(matches::add);
+            }
+            matches.sort(NEWEST_FIRST);
+            return matches;
+        }
+        // Keeps the newest `limit` matches; the oldest of them is at the head
+        PriorityQueue<AuditLog> newest = new PriorityQueue<>(NEWEST_FIRST.reversed());
+        for (Candidate candidate : candidates(from, to)) {
+            // Blocks come newest first, so once one ends before everything kept, the rest do too
+            if (newest.size() == limit
+                    && candidate.block.maxMillis < AuditRecordCodec.toMillis(newest.peek().getTimestamp())) {
+                break;
+            }
+            for (AuditLog entry : candidate.read()) {
+                if (query.matches(entry)) {
+                    newest.add(entry);
+                    if (newest.size() > limit) {
+                        newest.poll();
+                    }
+                }
+            }
+        }
+        List<AuditLog> matches = new ArrayList<>(newest);
+        matches.sort(NEWEST_FIRST);
+        return matches;
+    }
+
+    @Override
+    public Optional<AuditLog> findById(String id) {
+        for (Candidate candidate : candidates(Long.MIN_VALUE, Long.MAX_VALUE)) {
+            for (AuditLog entry : candidate.read()) {
+                if (id.equals(entry.getId())) {
+                    return Optional.of(entry);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public long count(AuditQuery query) {
+        long from = from(query);
+        long to = to(query);
+        long count = 0;
+        for (Candidate candidate : candidates(from, to)) {
+            if (!query.hasFieldFilters() && candidate.block.within(from, to)) {
+                count += candidate.block.count;
+            } else {
+                count += candidate.read().stream().filter(query::matches).count();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        throw new UnsupportedOperationException("Audit segments are append-only; entries leave by retention");
+    }
+
+    private void writeBlock(List<AuditLog> block, byte[] raw) throws IOException {
+        long blockMin = Long.MAX_VALUE;
+        long blockMax = Long.MIN_VALUE;
+        for (AuditLog entry : block) {
+            long millis = AuditRecordCodec.toMillis(entry.getTimestamp());
+            blockMin = Math.min(blockMin, millis);
+            blockMax = Math.max(blockMax, millis);
+        }
+        byte[] compressed = deflate(raw);
+        long now = System.currentTimeMillis();
+        if (active.getSize() > 0 && (active.getSize() + LogSegment.HEADER_BYTES + compressed.length > segmentSize.toBytes()
+                || active.getOpenedAt() < now - maxAge.toMillis())) {
+            roll();
+        }
+        active.append(compressed, raw.length, block.size(), blockMin, blockMax, fsync);
+        for (AuditLog entry : block) {
+            recentIds.add(entry.getId());
+        }
+    }
+
+    private void roll() throws IOException {
+        LogSegment next = LogSegment.create(directory, active.getNumber() + 1);
+        active.seal();
+        segments.add(next);
+        logger.info("Rolled audit segment {} ({} bytes), now writing {}", active, active.getSize(), next);
+        active = next;
+        applyRetention();
+    }
+
+    private void applyRetention() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        for (LogSegment segment : segments) {
+            if (segment != active && segment.getMaxMillis() < cutoff) {
+                segments.remove(segment);
+                try {
+                    segment.delete();
+                    logger.info("Deleted audit segment {} past retention of {}", segment, retention);
+                } catch (IOException e) {
+                    logger.error("Failed to delete audit segment {}: {}", segment, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void loadRecentIds() {
+        recentIds = Collections.newSetFromMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupeWindow;
+            }
+        });
+        List<String> ids = new ArrayList<>();
+        for (Candidate candidate : candidates(Long.MIN_VALUE, Long.MAX_VALUE)) {
+            if (ids.size() >= dedupeWindow) {
+                break;
+            }
+            candidate.read().forEach(entry -> ids.add(entry.getId()));
+        }
+        // Oldest first, so the newest are the last to be evicted
+        for (int i = ids.size() - 1; i >= 0; i--) {
+            recentIds.add(ids.get(i));
+        }
+    }
+
+    // Blocks that overlap the range, newest first
+    private List<Candidate> candidates(long from, long to) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (LogSegment segment : segments) {
+            if (segment.overlaps(from, to)) {
+                for (LogSegment.Block block : segment.getBlocks()) {
+                    if (block.overlaps(from, to)) {
+                        candidates.add(new Candidate(segment, block));
+                    }
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingLong((Candidate candidate) -> candidate.block.maxMillis).reversed());
+        return candidates;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long from(AuditQuery query) {
+        return query.getFrom() != null ? AuditRecordCodec.toMillis(query.getFrom()) : Long.MIN_VALUE;
+    }
+
+    private static long to(AuditQuery query) {
+        return query.getUpperBound() != null ? AuditRecordCodec.toMillis(query.getUpperBound()) : Long.MAX_VALUE;
+    }
+
+    private static final class Candidate {
+        private final LogSegment segment;
+        private final LogSegment.Block block;
+
+        private Candidate(LogSegment segment, LogSegment.Block block) {
+            this.segment = segment;
+            this.block = block;
+        }
+
+        private List<AuditLog> read() {
+            try {
+                return AuditRecordCodec.decode(segment.read(block), block.count);
+            } catch (IOException e) {
+                throw new AuditStoreException("Failed to read audit segment " + segment, e);
+            }
+        }
+    }
+}
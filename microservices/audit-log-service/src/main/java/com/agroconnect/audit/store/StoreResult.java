@@ -0,0 +1,51 @@
+package com.agroconnect.audit.store;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of AuditStore.append: how many entries were written, how many were already
+ * stored, and why the others failed, keyed by their position in the appended list
+ */
+public class StoreResult {
+
+    private int stored;
+    private int duplicates;
+    private final Map<Integer, String> failures = new LinkedHashMap<>();
+    private final Set<Integer> notStored = new HashSet<>();
+
+    public void fail(int index, String reason) {
+        failures.put(index, reason);
+        notStored.add(index);
+    }
+
+    public void duplicate(int index) {
+        duplicates++;
+        notStored.add(index);
+    }
+
+    public void addStored(int count) {
+        stored += count;
+    }
+
+    /**
+     * Whether the entry at this position was written by this append
+     */
+    public boolean isStored(int index) {
+        return !notStored.contains(index);
+    }
+
+    public int getStored() {
+        return stored;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public Map<Integer, String> getFailures() {
+        return failures;
+    }
+}
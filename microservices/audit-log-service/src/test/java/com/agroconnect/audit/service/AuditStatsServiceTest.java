@@ -0,0 +1,148 @@
+package com.agroconnect.audit.service;
+
+import com.agroconnect.audit.model.AuditCounter;
+import com.agroconnect.audit.model.AuditLog;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AuditStatsServiceTest {
+
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH");
+
+    // What the flushes added to audit_counters, by counter id
+    private final Map<String, Long> stored = new ConcurrentHashMap<>();
+
+    private MongoTemplate mongoTemplate;
+    private AuditStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(AuditCounter.class), anyString()))
+                .thenAnswer(call -> {
+                    BulkOperations bulk = mock(BulkOperations.class);
+                    when(bulk.upsert(any(Query.class), any(Update.class))).thenAnswer(upsert -> {
+                        String id = (String) ((Query) upsert.getArgument(0)).getQueryObject().get("id");
+                        Number count = (Number) ((Update) upsert.getArgument(1)).getUpdateObject()
+                                .get("$inc", Document.class).get("count");
+                        stored.merge(id, count.longValue(), Long::sum);
+                        return bulk;
+                    });
+                    return bulk;
+                });
+
+        service = new AuditStatsService();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "hourlyRetention", Duration.ofDays(7));
+    }
+
+    @Test
+    void testCountsAreWrittenOnce() {
+        service.record(entry("orders", LocalDateTime.now()));
+        service.record(entry("orders", LocalDateTime.now()));
+
+        service.flush();
+        service.flush();
+
+        assertEquals(2L, stored.get(total(AuditCounter.ALL_TIME)));
+        assertEquals(2L, stored.get(AuditCounter.idOf(AuditCounter.ALL_TIME, AuditCounter.SERVICE, "orders")));
+        verify(mongoTemplate, times(1)).bulkOps(any(BulkOperations.BulkMode.class), eq(AuditCounter.class), anyString());
+    }
+
+    @Test
+    void testPastHourIsDroppedOnlyOnceIdle() {
+        LocalDateTime earlier = LocalDateTime.now().minusHours(3);
+        String hour = total(earlier.format(HOUR));
+        service.record(entry("orders", earlier));
+
+        service.flush();
+        assertEquals(1L, stored.get(hour));
+        assertTrue(pending().containsKey(hour));
+
+        service.flush();
+        assertFalse(pending().containsKey(hour));
+        assertTrue(pending().containsKey(total(AuditCounter.ALL_TIME)));
+
+        // A late event for the hour starts it again
+        service.record(entry("orders", earlier));
+        service.flush();
+        assertEquals(2L, stored.get(hour));
+    }
+
+    @Test
+    void testFailedFlushKeepsCounts() {
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(AuditCounter.class), anyString()))
+                .thenThrow(new RuntimeException("down"));
+        LocalDateTime earlier = LocalDateTime.now().minusHours(3);
+        service.record(entry("orders", earlier));
+
+        service.flush();
+
+        assertEquals(1L, pending().get(total(earlier.format(HOUR))).sum());
+        assertEquals(1L, pending().get(total(AuditCounter.ALL_TIME)).sum());
+    }
+
+    @Test
+    void testNothingIsLostWhileFlushing() throws Exception {
+        int threads = 4;
+        int events = 5_000;
+        LocalDateTime earlier = LocalDateTime.now().minusHours(3);
+        List<Thread> recorders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread recorder = new Thread(() -> {
+                for (int i = 0; i < events; i++) {
+                    service.record(entry("orders", earlier));
+                }
+            });
+            recorders.add(recorder);
+            recorder.start();
+        }
+        while (recorders.stream().anyMatch(Thread::isAlive)) {
+            service.flush();
+            Thread.yield();
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+        service.flush();
+
+        assertEquals((long) threads * events, stored.get(total(earlier.format(HOUR))));
+        assertEquals((long) threads * events, stored.get(total(AuditCounter.ALL_TIME)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, LongAdder> pending() {
+        return (Map<String, LongAdder>) ReflectionTestUtils.getField(service, "pending");
+    }
+
+    private static String total(String period) {
+        return AuditCounter.idOf(period, AuditCounter.TOTAL, AuditCounter.TOTAL);
+    }
+
+    private static AuditLog entry(String serviceName, LocalDateTime timestamp) {
+        AuditLog entry = new AuditLog(serviceName, "alice", "CREATE", null);
+        entry.setTimestamp(timestamp);
+        return entry;
+    }
+}
@@ -0,0 +1,174 @@
+package com.agroconnect.audit.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testAppendAndRead() throws IOException {
+        LogSegment segment = LogSegment.create(dir, 1);
+        append(segment, "first", 100, 200);
+        append(segment, "second", 300, 400);
+
+        List<LogSegment.Block> blocks = segment.getBlocks();
+        assertEquals(2, blocks.size());
+        assertEquals("first", text(segment.read(blocks.get(0))));
+        assertEquals("second", text(segment.read(blocks.get(1))));
+        assertEquals(100, segment.getMinMillis());
+        assertEquals(400, segment.getMaxMillis());
+        assertEquals(Files.size(segmentFile()), segment.getSize());
+        segment.close();
+    }
+
+    @Test
+    void testSealedSegmentReloadsIndex() throws IOException {
+        LogSegment segment = LogSegment.create(dir, 1);
+        append(segment, "first", 100, 200);
+        append(segment, "second", 300, 400);
+        segment.seal();
+        assertTrue(Files.exists(indexFile()));
+
+        LogSegment reopened = LogSegment.open(dir, 1);
+        assertTrue(reopened.isSealed());
+        assertEquals(2, reopened.getBlocks().size());
+        assertEquals(segment.getSize(), reopened.getSize());
+        assertEquals(100, reopened.getMinMillis());
+        assertEquals(400, reopened.getMaxMillis());
+        assertEquals("second", text(reopened.read(reopened.getBlocks().get(1))));
+    }
+
+    @Test
+    void testIndexNotCoveringFileIsRebuilt() throws IOException {
+        LogSegment segment = LogSegment.create(dir, 1);
+        append(segment, "first", 100, 200);
+        segment.seal();
+        // The segment grew after its index was written
+        byte[] index = Files.readAllBytes(indexFile());
+        Files.delete(indexFile());
+        LogSegment grown = LogSegment.open(dir, 1);
+        append(grown, "second", 300, 400);
+        grown.close();
+        Files.write(indexFile(), index);
+
+        LogSegment reopened = LogSegment.open(dir, 1);
+        assertFalse(reopened.isSealed());
+        assertEquals(2, reopened.getBlocks().size());
+        assertEquals("second", text(reopened.read(reopened.getBlocks().get(1))));
+        reopened.close();
+    }
+
+    @Test
+    void testTornBlockIsCutOff() throws IOException {
+        LogSegment segment = LogSegment.create(dir, 1);
+        append(segment, "first", 100, 200);
+        append(segment, "second", 300, 400);
+        long intact = segment.getBlocks().get(1).offset;
+        segment.close();
+        // A crash in the middle of writing the second block's payload
+        truncate(intact + LogSegment.HEADER_BYTES + 3);
+
+        LogSegment recovered = LogSegment.open(dir, 1);
+        assertFalse(recovered.isSealed());
+        assertEquals(1, recovered.getBlocks().size());
+        assertEquals(intact, recovered.getSize());
+        assertEquals(intact, Files.size(segmentFile()));
+        assertEquals(200, recovered.getMaxMillis());
+
+        // Appending carries on where the intact blocks end
+        append(recovered, "third", 500, 600);
+        assertEquals(2, recovered.getBlocks().size());
+        assertEquals("third", text(recovered.read(recovered.getBlocks().get(1))));
+        recovered.close();
+    }
+
+    @Test
+    void testTornHeaderIsCutOff() throws IOException {
+        LogSegment segment = LogSegment.create(dir, 1);
+        append(segment, "first", 100, 200);
+        long intact = segment.getSize();
+        append(segment, "second", 300, 400);
+        segment.close();
+        truncate(intact + LogSegment.HEADER_BYTES / 2);
+
+        LogSegment recovered = LogSegment.open(dir, 1);
+        assertEquals(1, recovered.getBlocks().size());
+        assertEquals(intact, Files.size(segmentFile()));
+        recovered.close();
+    }
+
+    @Test
+    void testBlockWithBadChecksumIsCutOff() throws IOException {
+        LogSegment segment = LogSegment.create(dir, 1);
+        append(segment, "first", 100, 200);
+        append(segment, "second", 300, 400);
+        LogSegment.Block last = segment.getBlocks().get(1);
+        segment.close();
+        // Flip the last payload byte
+        try (FileChannel channel = FileChannel.open(segmentFile(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            long position = last.offset + last.length - 1;
+            channel.read(b, position);
+            b.flip();
+            byte flipped = (byte) ~b.get();
+            channel.write(ByteBuffer.wrap(new byte[]{flipped}), position);
+        }
+
+        LogSegment recovered = LogSegment.open(dir, 1);
+        assertEquals(1, recovered.getBlocks().size());
+        assertEquals(last.offset, Files.size(segmentFile()));
+        assertEquals("first", text(recovered.read(recovered.getBlocks().get(0))));
+        recovered.close();
+    }
+
+    private static void append(LogSegment segment, String text, long min, long max) throws IOException {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[256];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            segment.append(out.toByteArray(), raw.length, 1, min, max, false);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String text(byte[] raw) {
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private void truncate(long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile(), StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private Path segmentFile() {
+        return dir.resolve(String.format("%020d%s", 1, LogSegment.SUFFIX));
+    }
+
+    private Path indexFile() {
+        return dir.resolve(String.format("%020d.idx", 1));
+    }
+}
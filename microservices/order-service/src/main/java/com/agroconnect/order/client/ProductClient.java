@@ -0,0 +1,77 @@
+package com.agroconnect.order.client;
+
+import com.agroconnect.order.model.OrderItem;
+import com.agroconnect.order.service.OrderPlacementException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calls to product-service for pricing and stock.
+ */
+@Component
+public class ProductClient {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${services.product.url:http://agroconnect-product-service:8081}")
+    private String productServiceUrl;
+
+    /**
+     * All products for the given ids in one request; unknown ids are left out
+     */
+    public List<ProductSnapshot> getProducts(Collection<String> ids) {
+        ProductSnapshot[] products = restTemplate.postForObject(productServiceUrl + "/products/batch",
+                new ArrayList<>(ids), ProductSnapshot[].class);
+        return products != null ? Arrays.asList(products) : List.of();
+    }
+
+    /**
+     * Hold stock for every item of the order; returns the reservation id
+     */
+    public String reserve(String orderId, List<OrderItem> items) {
+        List<Map<String, Object>> reservationItems = new ArrayList<>();
+        for (OrderItem item : items) {
+            reservationItems.add(Map.of("productId", item.getProductId(), "quantity", item.getQuantity()));
+        }
+        Map<String, Object> request = new HashMap<>();
+        request.put("orderId", orderId);
+        request.put("items", reservationItems);
+        try {
+            Map<?, ?> reservation = restTemplate.postForObject(productServiceUrl + "/products/stock/reservations",
+                    request, Map.class);
+            return reservation != null ? (String) reservation.get("id") : null;
+        } catch (HttpClientErrorException.Conflict e) {
+            Map<?, ?> body = e.getResponseBodyAs(Map.class);
+            Object productId = body != null ? body.get("productId") : null;
+            throw new OrderPlacementException(HttpStatus.CONFLICT, productId != null
+                    ? "Insufficient stock for product: " + productId : "Insufficient stock");
+        }
+    }
+
+    public void commit(String reservationId) {
+        restTemplate.postForLocation(productServiceUrl + "/products/stock/reservations/{id}/commit", null, reservationId);
+    }
+
+    public void release(String reservationId) {
+        restTemplate.postForLocation(productServiceUrl + "/products/stock/reservations/{id}/release", null, reservationId);
+    }
+
+    /**
+     * Put the stock of a committed reservation back; repeating the call is a no-op
+     */
+    public void returnStock(String reservationId) {
+        restTemplate.postForLocation(productServiceUrl + "/products/stock/reservations/{id}/return", null, reservationId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.agroconnect.order.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes for the order-service queries, applied at startup. Search indexes put the
+ * equality filters first and end in orderDate and _id, which serve the date range and
+ * the newest-first keyset order.
+ */
+@Configuration
+public class MongoIndexConfig implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public static Map<String, List<Index>> indexDefinitions() {
+        Map<String, List<Index>> indexes = new LinkedHashMap<>();
+
+        indexes.put("orders", List.of(
+                // no filter or date range only; also findByOrderDateBetween
+                new Index().on("orderDate", Direction.DESC).on("_id", Direction.DESC).named("orderDate_id"),
+                // a customer's orders, optionally with payment status; also findByCustomerId
+                new Index().on("customerId", Direction.ASC).on("orderDate", Direction.DESC).on("_id", Direction.DESC)
+                        .named("customerId_orderDate_id"),
+                // a customer's orders by status; also findByCustomerIdAndStatus
+                new Index().on("customerId", Direction.ASC).on("status", Direction.ASC)
+                        .on("orderDate", Direction.DESC).on("_id", Direction.DESC)
+                        .named("customerId_status_orderDate_id"),
+                // orders by status, optionally with payment status; also findByStatus
+                new Index().on("status", Direction.ASC).on("orderDate", Direction.DESC).on("_id", Direction.DESC)
+                        .named("status_orderDate_id"),
+                // orders by payment status; also findByPaymentStatus
+                new Index().on("paymentStatus", Direction.ASC).on("orderDate", Direction.DESC).on("_id", Direction.DESC)
+                        .named("paymentStatus_orderDate_id"),
+                // cancelled orders whose stock has not been returned yet
+                new Index().on("stockReturnPending", Direction.ASC)
+                        .partial(PartialIndexFilter.of(Criteria.where("stockReturnPending").exists(true)))
+                        .named("stockReturnPending")
+        ));
+
+        // order_daily_metrics is keyed by date and needs no further index
+        indexes.put("order_product_daily_metrics", List.of(
+                // top products over a date range
+                new Index().on("date", Direction.ASC).named("date")
+        ));
+
+        indexes.put("order_idempotency_keys", List.of(
+                // keys are forgotten once their retention has passed
+                new Index().on("expiresAt", Direction.ASC).expire(Duration.ZERO).named("expiresAt_ttl")
+        ));
+
+        return indexes;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        indexDefinitions().forEach((collection, indexes) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            for (Index index : indexes) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (Exception e) {
+                    // A missing index only costs performance, so keep starting up
+                    logger.error("Failed to create index {} on {}: {}", index.getIndexOptions().get("name"),
+                            collection, e.getMessage(), e);
+                }
+            }
+        });
+    }
+}
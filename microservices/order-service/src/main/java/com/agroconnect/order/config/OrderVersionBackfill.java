@@ -0,0 +1,38 @@
+package com.agroconnect.order.config;
+
+import com.agroconnect.order.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Gives orders stored before Order.version existed a version of 0. Without one, Spring
+ * Data treats them as new and would try to insert them again on save.
+ */
+@Configuration
+public class OrderVersionBackfill implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderVersionBackfill.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            long updated = mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L), Order.class).getModifiedCount();
+            if (updated > 0) {
+                logger.info("Initialised version on {} orders", updated);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to initialise order versions: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.agroconnect.order.controller;
+
+import com.agroconnect.order.service.OrderConflictException;
+import com.agroconnect.order.service.OrderPlacementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    @ExceptionHandler(OrderPlacementException.class)
+    public ResponseEntity<Map<String, String>> handleOrderPlacement(OrderPlacementException e) {
+        return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(OrderConflictException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(OrderConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    // Connection refused or timed out
+    @ExceptionHandler(ResourceAccessException.class)
+    public ResponseEntity<Map<String, String>> handleUnavailable(ResourceAccessException e) {
+        logger.error("Dependent service unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", "A dependent service is unavailable, please retry"));
+    }
+
+    // Unexpected error status from a dependent service
+    @ExceptionHandler(HttpStatusCodeException.class)
+    public ResponseEntity<Map<String, String>> handleUpstreamError(HttpStatusCodeException e) {
+        logger.error("Dependent service returned {}: {}", e.getStatusCode(), e.getResponseBodyAsString());
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(Map.of("error", "A dependent service returned an error"));
+    }
+}
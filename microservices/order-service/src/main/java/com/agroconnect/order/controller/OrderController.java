@@ -1,12 +1,17 @@
 package com.agroconnect.order.controller;
 
+import com.agroconnect.order.dto.OrderPage;
 import com.agroconnect.order.model.Order;
+import com.agroconnect.order.service.OrderQueryService;
 import com.agroconnect.order.service.OrderService;
+import com.agroconnect.order.service.OrderSubmissionService;
 import com.agroconnect.order.service.AuditLogService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,6 +22,12 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private OrderQueryService orderQueryService;
+    
+    @Autowired
+    private OrderSubmissionService orderSubmissionService;
+    
     @Autowired
     private AuditLogService auditLogService;
 
@@ -27,6 +38,26 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    // Filtered, newest-first listing; pass back nextCursor with the same filters for the next page
+    @GetMapping("/search")
+    public ResponseEntity<OrderPage<?>> searchOrders(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) String paymentStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "summary") String view) {
+        if (!"summary".equalsIgnoreCase(view) && !"full".equalsIgnoreCase(view)) {
+            return ResponseEntity.badRequest().build();
+        }
+        OrderPage<?> page = orderQueryService.search(customerId, status, paymentStatus, from, to, cursor,
+                Math.min(Math.max(size, 1), 100), "summary".equalsIgnoreCase(view));
+        auditLogService.log("READ", "order", "search");
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable String id) {
         Order order = orderService.getOrderById(id);
@@ -35,10 +66,14 @@ public class OrderController {
     }
 
     @PostMapping("/")
-    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
-        Order savedOrder = orderService.createOrder(order);
-        auditLogService.log("CREATE", "order", savedOrder.getId());
-        return ResponseEntity.ok(savedOrder);
+    public ResponseEntity<Order> createOrder(@RequestBody Order order,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderSubmissionService.OrderSubmission submission = orderSubmissionService.submit(idempotencyKey, order);
+        if (submission.isReplayed()) {
+            return ResponseEntity.ok().header("Idempotent-Replayed", "true").body(submission.getOrder());
+        }
+        auditLogService.log("CREATE", "order", submission.getOrder().getId());
+        return ResponseEntity.ok(submission.getOrder());
     }
 
     @PutMapping("/{id}")
@@ -71,8 +106,9 @@ public class OrderController {
     }
 
     @PutMapping("/{id}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable String id, @RequestParam String status) {
-        Order order = orderService.updateOrderStatus(id, status);
+    public ResponseEntity<Order> updateOrderStatus(@PathVariable String id, @RequestParam String status,
+                                                   @RequestParam(required = false) Long version) {
+        Order order = orderService.updateOrderStatus(id, status, version);
         auditLogService.log("UPDATE_STATUS", "order", id + ":" + status);
         return ResponseEntity.ok(order);
     }
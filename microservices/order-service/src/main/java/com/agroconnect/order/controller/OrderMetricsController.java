@@ -0,0 +1,59 @@
+package com.agroconnect.order.controller;
+
+import com.agroconnect.order.dto.ProductSales;
+import com.agroconnect.order.model.OrderDailyMetrics;
+import com.agroconnect.order.service.AuditLogService;
+import com.agroconnect.order.service.OrderMetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/orders/metrics")
+@CrossOrigin(origins = "*")
+public class OrderMetricsController {
+
+    @Autowired
+    private OrderMetricsService metricsService;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    // Orders placed, counts by status and revenue per currency for each day in the range
+    @GetMapping("/daily")
+    public ResponseEntity<List<OrderDailyMetrics>> getDaily(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<OrderDailyMetrics> metrics = metricsService.getDaily(from, to);
+        auditLogService.log("READ", "order_metrics", "daily:" + from + ".." + to);
+        return ResponseEntity.ok(metrics);
+    }
+
+    @GetMapping("/top-products")
+    public ResponseEntity<List<ProductSales>> getTopProducts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ProductSales> products = metricsService.getTopProducts(from, to, Math.min(Math.max(limit, 1), 100));
+        auditLogService.log("READ", "order_metrics", "top-products:" + from + ".." + to);
+        return ResponseEntity.ok(products);
+    }
+
+    // Recompute the rollups from all orders, e.g. after a backfill or an outage
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuild() {
+        try {
+            Map<String, Long> result = metricsService.rebuild();
+            auditLogService.log("REBUILD", "order_metrics", "all");
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
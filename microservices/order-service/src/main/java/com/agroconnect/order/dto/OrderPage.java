@@ -0,0 +1,38 @@
+package com.agroconnect.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of an order search. nextCursor is absent on the last page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderPage<T> {
+
+    private final List<T> items;
+    private final int size;
+    private final String nextCursor;
+
+    public OrderPage(List<T> items, int size, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
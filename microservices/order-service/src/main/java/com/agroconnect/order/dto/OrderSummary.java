@@ -0,0 +1,96 @@
+package com.agroconnect.order.dto;
+
+import com.agroconnect.order.model.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order list row without the line items.
+ */
+public class OrderSummary {
+
+    // Fields read from the database for a summary
+    public static final String[] FIELDS = {"customerId", "customerName", "companyName", "totalAmount", "currency",
+            "status", "paymentStatus", "orderDate", "expectedDeliveryDate", "trackingNumber", "version"};
+
+    private final String id;
+    private final String customerId;
+    private final String customerName;
+    private final String companyName;
+    private final BigDecimal totalAmount;
+    private final String currency;
+    private final String status;
+    private final String paymentStatus;
+    private final LocalDateTime orderDate;
+    private final LocalDateTime expectedDeliveryDate;
+    private final String trackingNumber;
+    private final Long version;
+
+    private OrderSummary(Order order) {
+        this.id = order.getId();
+        this.customerId = order.getCustomerId();
+        this.customerName = order.getCustomerName();
+        this.companyName = order.getCompanyName();
+        this.totalAmount = order.getTotalAmount();
+        this.currency = order.getCurrency();
+        this.status = order.getStatus();
+        this.paymentStatus = order.getPaymentStatus();
+        this.orderDate = order.getOrderDate();
+        this.expectedDeliveryDate = order.getExpectedDeliveryDate();
+        this.trackingNumber = order.getTrackingNumber();
+        this.version = order.getVersion();
+    }
+
+    public static OrderSummary of(Order order) {
+        return new OrderSummary(order);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public LocalDateTime getExpectedDeliveryDate() {
+        return expectedDeliveryDate;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,120 @@
+package com.agroconnect.order.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an order submission under a client's Idempotency-Key. The key is the
+ * document id, so only one submission per key can ever start. Records are removed by
+ * a TTL index once expiresAt has passed.
+ */
+@Document(collection = "order_idempotency_keys")
+public class IdempotencyRecord {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    private String key;
+    // SHA-256 of the request body; a key may only be reused for the same request
+    private String requestHash;
+    private String status;
+    // Chosen up front, so a retry that takes over a crashed submission places the same order
+    private String orderId;
+    // Serialized response of a completed submission
+    private String response;
+    // Identifies the submission holding an IN_PROGRESS record; a takeover gives it a new one
+    private String attempt;
+    // An IN_PROGRESS record older than this is taken to be abandoned
+    private LocalDateTime lockedUntil;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String key, String requestHash, String orderId, String attempt,
+                             LocalDateTime lockedUntil, LocalDateTime expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.status = IN_PROGRESS;
+        this.orderId = orderId;
+        this.attempt = attempt;
+        this.lockedUntil = lockedUntil;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public String getAttempt() {
+        return attempt;
+    }
+
+    public void setAttempt(String attempt) {
+        this.attempt = attempt;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.agroconnect.order.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -29,8 +30,15 @@ public class Order {
     private LocalDateTime actualDeliveryDate;
     private String trackingNumber;
     private String invoiceNumber;
+    // Stock reservation in product-service taken when the order was placed
+    private String reservationId;
+    // Set when the order is cancelled, until product-service has taken its stock back
+    private Boolean stockReturnPending;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Incremented on every change; updates that carry an older value are rejected
+    @Version
+    private Long version;
 
     // Constructors
     public Order() {
@@ -194,6 +202,30 @@ public class Order {
         this.invoiceNumber = invoiceNumber;
     }
 
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public Boolean getStockReturnPending() {
+        return stockReturnPending;
+    }
+
+    public void setStockReturnPending(Boolean stockReturnPending) {
+        this.stockReturnPending = stockReturnPending;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,73 @@
+package com.agroconnect.order.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rollup of the orders placed on one day (server time), kept up to date as orders are
+ * placed, change status or are deleted. Revenue leaves out cancelled orders.
+ */
+@Document(collection = "order_daily_metrics")
+public class OrderDailyMetrics {
+
+    // ISO date, e.g. 2024-05-01
+    @Id
+    private String date;
+    private long orders;
+    // Current status of the orders placed that day
+    private Map<String, Long> statusCounts = new HashMap<>();
+    // Per currency
+    private Map<String, BigDecimal> revenue = new HashMap<>();
+    private LocalDateTime updatedAt;
+
+    public OrderDailyMetrics() {}
+
+    public OrderDailyMetrics(String date) {
+        this.date = date;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(long orders) {
+        this.orders = orders;
+    }
+
+    public Map<String, Long> getStatusCounts() {
+        return statusCounts;
+    }
+
+    public void setStatusCounts(Map<String, Long> statusCounts) {
+        this.statusCounts = statusCounts;
+    }
+
+    public Map<String, BigDecimal> getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(Map<String, BigDecimal> revenue) {
+        this.revenue = revenue;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,58 @@
+package com.agroconnect.order.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Order lifecycle: PENDING -> CONFIRMED -> PROCESSING -> SHIPPED -> DELIVERED, with
+ * CANCELLED reachable until the order ships. DELIVERED and CANCELLED are final.
+ */
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    PROCESSING,
+    SHIPPED,
+    DELIVERED,
+    CANCELLED;
+
+    public Set<OrderStatus> nextStatuses() {
+        switch (this) {
+            case PENDING:
+                return EnumSet.of(CONFIRMED, CANCELLED);
+            case CONFIRMED:
+                return EnumSet.of(PROCESSING, CANCELLED);
+            case PROCESSING:
+                return EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED:
+                return EnumSet.of(DELIVERED);
+            default:
+                return EnumSet.noneOf(OrderStatus.class);
+        }
+    }
+
+    public boolean canMoveTo(OrderStatus target) {
+        return nextStatuses().contains(target);
+    }
+
+    /**
+     * Statuses an order may be in for a move to this one
+     */
+    public Set<OrderStatus> previousStatuses() {
+        Set<OrderStatus> previous = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : values()) {
+            if (status.canMoveTo(this)) {
+                previous.add(status);
+            }
+        }
+        return previous;
+    }
+
+    public static OrderStatus from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unknown order status: " + value);
+        }
+    }
+}
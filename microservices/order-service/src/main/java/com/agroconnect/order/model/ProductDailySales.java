@@ -0,0 +1,112 @@
+package com.agroconnect.order.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Units and revenue of one product in one currency over the orders placed on one day,
+ * leaving out cancelled orders.
+ */
+@Document(collection = "order_product_daily_metrics")
+public class ProductDailySales {
+
+    // date:productId:currency
+    @Id
+    private String id;
+    private String date;
+    private String productId;
+    private String productName;
+    private String currency;
+    private long quantity;
+    private long orders;
+    private BigDecimal revenue = BigDecimal.ZERO;
+    private LocalDateTime updatedAt;
+
+    public ProductDailySales() {}
+
+    public ProductDailySales(String date, String productId, String currency) {
+        this.id = key(date, productId, currency);
+        this.date = date;
+        this.productId = productId;
+        this.currency = currency;
+    }
+
+    public static String key(String date, String productId, String currency) {
+        return date + ':' + productId + ':' + currency;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(long orders) {
+        this.orders = orders;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
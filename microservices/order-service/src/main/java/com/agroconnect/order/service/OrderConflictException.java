@@ -0,0 +1,12 @@
+package com.agroconnect.order.service;
+
+/**
+ * A change that does not apply to the order as it is now: a transition the lifecycle
+ * does not allow, or an update based on an outdated version.
+ */
+public class OrderConflictException extends RuntimeException {
+
+    public OrderConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,299 @@
+package com.agroconnect.order.service;
+
+import com.agroconnect.order.config.MongoIndexConfig;
+import com.agroconnect.order.dto.ProductSales;
+import com.agroconnect.order.model.Order;
+import com.agroconnect.order.model.OrderDailyMetrics;
+import com.agroconnect.order.model.OrderItem;
+import com.agroconnect.order.model.OrderStatus;
+import com.agroconnect.order.model.ProductDailySales;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Order analytics served from rollups instead of scanning orders.
+ *
+ * Placing, cancelling, re-statusing or deleting an order applies its contribution to
+ * its day's OrderDailyMetrics and to a ProductDailySales row per product with atomic
+ * $inc upserts. The rollups are written after the order itself, so a crash in between
+ * leaves them slightly behind; rebuild() recomputes them from the orders.
+ */
+@Service
+public class OrderMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderMetricsService.class);
+
+    private static final String DAILY = "order_daily_metrics";
+    private static final String PRODUCTS = "order_product_daily_metrics";
+    private static final String REBUILD_SUFFIX = "_rebuild";
+    private static final int WRITE_BATCH = 1000;
+    private static final int MAX_DAYS = 366;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${orders.default-currency:USD}")
+    private String defaultCurrency;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public void recordPlaced(Order order) {
+        record(order, 1, statusKey(order.getStatus()), !isCancelled(order.getStatus()));
+    }
+
+    public void recordStatusChange(Order order, String fromStatus, String toStatus) {
+        String from = statusKey(fromStatus);
+        String to = statusKey(toStatus);
+        if (from.equals(to)) {
+            return;
+        }
+        try {
+            Update update = new Update().inc("statusCounts." + from, -1).inc("statusCounts." + to, 1)
+                    .set("updatedAt", LocalDateTime.now());
+            boolean cancelled = isCancelled(toStatus) && !isCancelled(fromStatus);
+            if (cancelled) {
+                update.inc("revenue." + currency(order), amount(order.getTotalAmount()).negate());
+            }
+            mongoTemplate.upsert(new Query(Criteria.where("date").is(day(order))), update, OrderDailyMetrics.class);
+            if (cancelled) {
+                recordProducts(order, -1);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to update metrics for order {}: {}", order.getId(), e.getMessage(), e);
+        }
+    }
+
+    public void recordRemoved(Order order) {
+        record(order, -1, statusKey(order.getStatus()), !isCancelled(order.getStatus()));
+    }
+
+    public List<OrderDailyMetrics> getDaily(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        Query query = new Query(Criteria.where("date").gte(from.toString()).lte(to.toString()))
+                .with(Sort.by("date"));
+        return mongoTemplate.find(query, OrderDailyMetrics.class);
+    }
+
+    /**
+     * Best-selling products over the range by units sold; a product sold in two
+     * currencies appears once per currency
+     */
+    public List<ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        checkRange(from, to);
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("date").gte(from.toString()).lte(to.toString())),
+                Aggregation.group("productId", "currency")
+                        .sum("quantity").as("quantity")
+                        .sum("orders").as("orders")
+                        .sum("revenue").as("revenue")
+                        .last("productName").as("productName"),
+                Aggregation.match(Criteria.where("quantity").gt(0)),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "quantity")),
+                Aggregation.limit(limit),
+                Aggregation.project("quantity", "orders", "revenue", "productName", "productId", "currency"));
+        return mongoTemplate.aggregate(aggregation, PRODUCTS, ProductSales.class).getMappedResults();
+    }
+
+    /**
+     * Recompute every rollup from the orders into fresh collections and swap them in.
+     * Orders written while this runs may be missed; run it when order traffic is low.
+     */
+    public Map<String, Long> rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A metrics rebuild is already running");
+        }
+        try {
+            Map<String, OrderDailyMetrics> days = new HashMap<>();
+            Map<String, ProductDailySales> products = new HashMap<>();
+            long orders = 0;
+            Query all = new Query();
+            all.fields().include("orderDate", "createdAt", "status", "currency", "totalAmount", "items");
+            try (Stream<Order> stream = mongoTemplate.stream(all, Order.class)) {
+                for (Order order : (Iterable<Order>) stream::iterator) {
+                    accumulate(order, days, products);
+                    orders++;
+                }
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            days.values().forEach(metrics -> metrics.setUpdatedAt(now));
+            products.values().forEach(sales -> sales.setUpdatedAt(now));
+            replace(DAILY, new ArrayList<>(days.values()));
+            replace(PRODUCTS, new ArrayList<>(products.values()));
+
+            Map<String, Long> result = new LinkedHashMap<>();
+            result.put("orders", orders);
+            result.put("days", (long) days.size());
+            result.put("productDays", (long) products.size());
+            logger.info("Rebuilt order metrics from {} orders: {} days, {} product rows", orders, days.size(), products.size());
+            return result;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void record(Order order, int sign, String status, boolean sales) {
+        try {
+            Update update = new Update().inc("orders", sign).inc("statusCounts." + status, sign)
+                    .set("updatedAt", LocalDateTime.now());
+            if (sales) {
+                BigDecimal total = amount(order.getTotalAmount());
+                update.inc("revenue." + currency(order), sign < 0 ? total.negate() : total);
+            }
+            mongoTemplate.upsert(new Query(Criteria.where("date").is(day(order))), update, OrderDailyMetrics.class);
+            if (sales) {
+                recordProducts(order, sign);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to update metrics for order {}: {}", order.getId(), e.getMessage(), e);
+        }
+    }
+
+    private void recordProducts(Order order, int sign) {
+        Map<String, ProductDailySales> lines = productLines(order);
+        if (lines.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductDailySales.class);
+        for (ProductDailySales line : lines.values()) {
+            Update update = new Update()
+                    .setOnInsert("date", line.getDate())
+                    .setOnInsert("productId", line.getProductId())
+                    .setOnInsert("currency", line.getCurrency())
+                    .inc("quantity", sign * line.getQuantity())
+                    .inc("orders", sign)
+                    .inc("revenue", sign < 0 ? line.getRevenue().negate() : line.getRevenue())
+                    .set("updatedAt", now);
+            if (line.getProductName() != null) {
+                update.set("productName", line.getProductName());
+            }
+            bulk.upsert(new Query(Criteria.where("id").is(line.getId())), update);
+        }
+        bulk.execute();
+    }
+
+    private void accumulate(Order order, Map<String, OrderDailyMetrics> days, Map<String, ProductDailySales> products) {
+        String day = day(order);
+        OrderDailyMetrics metrics = days.computeIfAbsent(day, OrderDailyMetrics::new);
+        metrics.setOrders(metrics.getOrders() + 1);
+        metrics.getStatusCounts().merge(statusKey(order.getStatus()), 1L, Long::sum);
+        if (isCancelled(order.getStatus())) {
+            return;
+        }
+        metrics.getRevenue().merge(currency(order), amount(order.getTotalAmount()), BigDecimal::add);
+        for (ProductDailySales line : productLines(order).values()) {
+            ProductDailySales sales = products.computeIfAbsent(line.getId(),
+                    id -> new ProductDailySales(line.getDate(), line.getProductId(), line.getCurrency()));
+            sales.setQuantity(sales.getQuantity() + line.getQuantity());
+            sales.setOrders(sales.getOrders() + 1);
+            sales.setRevenue(sales.getRevenue().add(line.getRevenue()));
+            if (line.getProductName() != null) {
+                sales.setProductName(line.getProductName());
+            }
+        }
+    }
+
+    // The order's items merged per product
+    private Map<String, ProductDailySales> productLines(Order order) {
+        Map<String, ProductDailySales> lines = new LinkedHashMap<>();
+        if (order.getItems() == null) {
+            return lines;
+        }
+        String day = day(order);
+        String currency = currency(order);
+        for (OrderItem item : order.getItems()) {
+            if (item.getProductId() == null || item.getQuantity() == null) {
+                continue;
+            }
+            ProductDailySales line = lines.computeIfAbsent(item.getProductId(),
+                    productId -> new ProductDailySales(day, productId, currency));
+            line.setQuantity(line.getQuantity() + item.getQuantity());
+            line.setRevenue(line.getRevenue().add(amount(item.getTotalPrice())));
+            if (item.getProductName() != null) {
+                line.setProductName(item.getProductName());
+            }
+        }
+        return lines;
+    }
+
+    // Written next to the live collection, then renamed over it in one step
+    private void replace(String collection, List<?> documents) {
+        String staging = collection + REBUILD_SUFFIX;
+        mongoTemplate.dropCollection(staging);
+        mongoTemplate.createCollection(staging);
+        for (Index index : MongoIndexConfig.indexDefinitions().getOrDefault(collection, List.of())) {
+            mongoTemplate.indexOps(staging).ensureIndex(index);
+        }
+        for (int from = 0; from < documents.size(); from += WRITE_BATCH) {
+            mongoTemplate.insert(documents.subList(from, Math.min(from + WRITE_BATCH, documents.size())), staging);
+        }
+        mongoTemplate.getCollection(staging).renameCollection(
+                new MongoNamespace(mongoTemplate.getDb().getName(), collection),
+                new RenameCollectionOptions().dropTarget(true));
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("A range may span at most " + MAX_DAYS + " days");
+        }
+    }
+
+    private static String day(Order order) {
+        LocalDateTime placed = order.getOrderDate() != null ? order.getOrderDate() : order.getCreatedAt();
+        return (placed != null ? placed.toLocalDate() : LocalDate.now()).toString();
+    }
+
+    // Currencies and statuses become field names, so codes outside ISO 4217's shape and
+    // statuses outside the lifecycle are counted as OTHER
+    private String currency(Order order) {
+        String currency = order.getCurrency() != null ? order.getCurrency() : defaultCurrency;
+        return currency.matches("[A-Z]{3}") ? currency : "OTHER";
+    }
+
+    private static String statusKey(String status) {
+        if (status == null) {
+            return "OTHER";
+        }
+        try {
+            return OrderStatus.from(status).name();
+        } catch (IllegalArgumentException e) {
+            return "OTHER";
+        }
+    }
+
+    private static boolean isCancelled(String status) {
+        return OrderStatus.CANCELLED.name().equals(statusKey(status));
+    }
+
+    private static BigDecimal amount(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,20 @@
+package com.agroconnect.order.service;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An order that cannot be placed, with the HTTP status that describes why.
+ */
+public class OrderPlacementException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public OrderPlacementException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,120 @@
+package com.agroconnect.order.service;
+
+import com.agroconnect.order.dto.OrderPage;
+import com.agroconnect.order.dto.OrderSummary;
+import com.agroconnect.order.model.Order;
+import com.agroconnect.order.model.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order search, newest first, with keyset pagination.
+ *
+ * Results are ordered by orderDate and then _id, both descending; the cursor holds the
+ * last order's pair, so every page costs the same however deep it is. Every filter
+ * combination is served by one of the indexes in MongoIndexConfig (equality fields
+ * first, then orderDate for both the range and the sort).
+ */
+@Service
+public class OrderQueryService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public OrderPage<?> search(String customerId, List<String> statuses, String paymentStatus,
+                               LocalDateTime from, LocalDateTime to, String cursor, int size, boolean summary) {
+        Criteria criteria = new Criteria();
+        if (customerId != null && !customerId.isBlank()) {
+            criteria.and("customerId").is(customerId);
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            criteria.and("status").in(statuses.stream().map(status -> OrderStatus.from(status).name()).toList());
+        }
+        if (paymentStatus != null && !paymentStatus.isBlank()) {
+            criteria.and("paymentStatus").is(paymentStatus.trim().toUpperCase());
+        }
+        if (from != null || to != null) {
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+            Criteria range = criteria.and("orderDate");
+            if (from != null) {
+                range.gte(from);
+            }
+            if (to != null) {
+                range.lt(to);
+            }
+        }
+
+        if (cursor != null && !cursor.isBlank()) {
+            // Part of the same criteria: a query holds only one that is not keyed by a field
+            criteria.andOperator(before(decode(cursor)));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "orderDate").and(Sort.by(Sort.Direction.DESC, "id")))
+                .limit(size + 1);
+        if (summary) {
+            query.fields().include(OrderSummary.FIELDS);
+        }
+        List<Order> orders = mongoTemplate.find(query, Order.class);
+
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            nextCursor = encode(orders.get(size - 1));
+        }
+        List<?> items = summary ? orders.stream().map(OrderSummary::of).toList() : orders;
+        return new OrderPage<>(items, size, nextCursor);
+    }
+
+    // Orders strictly after the cursor position in descending {orderDate, _id} order
+    private static Criteria before(Map<String, Object> position) {
+        Object orderDate = position.get("orderDate");
+        Object id = position.get("id");
+        return new Criteria().orOperator(
+                Criteria.where("orderDate").lt(orderDate),
+                new Criteria().andOperator(Criteria.where("orderDate").is(orderDate), Criteria.where("id").lt(id)));
+    }
+
+    private String encode(Order last) {
+        Map<String, Object> cursor = new LinkedHashMap<>();
+        cursor.put("orderDate", last.getOrderDate().toString());
+        cursor.put("id", last.getId());
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encode order cursor", e);
+        }
+    }
+
+    private Map<String, Object> decode(String cursor) {
+        Map<String, Object> position = new LinkedHashMap<>();
+        try {
+            Map<?, ?> raw = objectMapper.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), Map.class);
+            position.put("orderDate", LocalDateTime.parse((String) raw.get("orderDate")));
+            position.put("id", raw.get("id"));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!(position.get("id") instanceof String)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return position;
+    }
+}
@@ -1,20 +1,62 @@
 package com.agroconnect.order.service;
 
+import com.agroconnect.order.client.ProductClient;
+import com.agroconnect.order.client.ProductSnapshot;
 import com.agroconnect.order.model.Order;
+import com.agroconnect.order.model.OrderItem;
+import com.agroconnect.order.model.OrderStatus;
 import com.agroconnect.order.repository.OrderRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class OrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
+    private static final int MAX_ITEMS = 100;
+    private static final Set<String> PAYMENT_STATUSES = Set.of("PENDING", "PAID", "FAILED");
     
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ProductClient productClient;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private OrderMetricsService metricsService;
+
+    @Autowired
+    private StockReturnService stockReturnService;
+
+    @Value("${orders.default-currency:USD}")
+    private String defaultCurrency;
+
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
@@ -27,31 +69,213 @@ public class OrderService {
         throw new RuntimeException("Order not found with id: " + id);
     }
 
+    /**
+     * Place an order: price it from product-service, hold the stock, save it, then make
+     * the stock hold final. Client-supplied names, prices and totals are replaced.
+     * If any step after the hold fails, the stock is put back and nothing is kept, unless
+     * putting it back fails too: then the order is kept as cancelled until it succeeds.
+     */
     public Order createOrder(Order order) {
-        order.setCreatedAt(LocalDateTime.now());
-        order.setUpdatedAt(LocalDateTime.now());
+        return createOrder(order, new ObjectId().toHexString());
+    }
+
+    /**
+     * Place an order under an id chosen by the caller; the stock hold is keyed by it, so
+     * placing the same id again reuses the hold instead of taking stock twice.
+     */
+    public Order createOrder(Order order, String orderId) {
+        List<OrderItem> items = order.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new OrderPlacementException(HttpStatus.BAD_REQUEST, "An order needs at least one item");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new OrderPlacementException(HttpStatus.BAD_REQUEST, "An order may contain at most " + MAX_ITEMS + " items");
+        }
+        Set<String> productIds = new LinkedHashSet<>();
+        for (OrderItem item : items) {
+            if (item.getProductId() == null || item.getProductId().isBlank()) {
+                throw new OrderPlacementException(HttpStatus.BAD_REQUEST, "Every item needs a productId");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new OrderPlacementException(HttpStatus.BAD_REQUEST, "Item quantities must be positive");
+            }
+            productIds.add(item.getProductId());
+        }
+
+        // One request for all products instead of one per item
+        Map<String, ProductSnapshot> products = new HashMap<>();
+        productClient.getProducts(productIds).forEach(product -> products.put(product.getId(), product));
+        price(order, products);
+
+        LocalDateTime now = LocalDateTime.now();
+        order.setId(orderId);
+        order.setStatus(OrderStatus.PENDING.name());
+        if (order.getPaymentStatus() == null) {
+            order.setPaymentStatus("PENDING");
+        }
         if (order.getOrderDate() == null) {
-            order.setOrderDate(LocalDateTime.now());
+            order.setOrderDate(now);
         }
-        return orderRepository.save(order);
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+
+        // The order id makes the reservation idempotent if this request is retried
+        String reservationId = productClient.reserve(order.getId(), items);
+        order.setReservationId(reservationId);
+
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.insert(order);
+        } catch (RuntimeException e) {
+            releaseQuietly(reservationId);
+            throw e;
+        }
+
+        try {
+            productClient.commit(reservationId);
+        } catch (RuntimeException e) {
+            logger.error("Failed to commit stock reservation {} for order {}: {}", reservationId, savedOrder.getId(), e.getMessage());
+            withdraw(savedOrder);
+            throw new OrderPlacementException(HttpStatus.SERVICE_UNAVAILABLE, "Stock could not be confirmed, the order was not placed");
+        }
+        metricsService.recordPlaced(savedOrder);
+        return savedOrder;
     }
 
+    // Line totals are rounded to the currency's minor unit; all items must share one currency
+    private void price(Order order, Map<String, ProductSnapshot> products) {
+        String currency = null;
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : order.getItems()) {
+            ProductSnapshot product = products.get(item.getProductId());
+            if (product == null) {
+                throw new OrderPlacementException(HttpStatus.UNPROCESSABLE_ENTITY, "Product not found with id: " + item.getProductId());
+            }
+            if (!Boolean.TRUE.equals(product.getIsAvailable())) {
+                throw new OrderPlacementException(HttpStatus.UNPROCESSABLE_ENTITY, "Product is not available: " + product.getId());
+            }
+            if (product.getPrice() == null) {
+                throw new OrderPlacementException(HttpStatus.UNPROCESSABLE_ENTITY, "Product has no price: " + product.getId());
+            }
+            String productCurrency = product.getCurrency() != null ? product.getCurrency() : defaultCurrency;
+            if (currency == null) {
+                currency = productCurrency;
+            } else if (!currency.equals(productCurrency)) {
+                throw new OrderPlacementException(HttpStatus.UNPROCESSABLE_ENTITY, "All items of an order must be priced in one currency");
+            }
+
+            BigDecimal lineTotal = product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()))
+                    .setScale(fractionDigits(productCurrency), RoundingMode.HALF_EVEN);
+            item.setProductName(product.getName());
+            item.setUnit(product.getUnit());
+            item.setUnitPrice(product.getPrice());
+            item.setTotalPrice(lineTotal);
+            total = total.add(lineTotal);
+        }
+        order.setCurrency(currency);
+        order.setTotalAmount(total);
+    }
+
+    private static int fractionDigits(String currency) {
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return digits >= 0 ? digits : 2;
+        } catch (IllegalArgumentException e) {
+            return 2;
+        }
+    }
+
+    /**
+     * Undo an order whose commit failed. The commit may have been applied even so (a lost
+     * response), so the stock is returned rather than released, which covers a HELD and a
+     * COMMITTED reservation alike. Only once that has worked is the order deleted; if it
+     * fails, the order is kept as cancelled with its return pending so StockReturnService
+     * retries it, since it is the only record of the reservation.
+     */
+    private void withdraw(Order order) {
+        try {
+            productClient.returnStock(order.getReservationId());
+        } catch (HttpClientErrorException.NotFound e) {
+            logger.warn("Stock reservation {} of order {} no longer exists", order.getReservationId(), order.getId());
+        } catch (RuntimeException e) {
+            logger.error("Failed to return stock of unconfirmed order {}, will retry: {}", order.getId(), e.getMessage());
+            try {
+                mongoTemplate.updateFirst(new Query(Criteria.where("id").is(order.getId())),
+                        new Update().set("status", OrderStatus.CANCELLED.name()).set("stockReturnPending", true)
+                                .set("updatedAt", LocalDateTime.now()).inc("version", 1), Order.class);
+            } catch (RuntimeException markFailure) {
+                logger.error("Failed to mark unconfirmed order {} for a stock return: {}", order.getId(), markFailure.getMessage());
+            }
+            return;
+        }
+        try {
+            orderRepository.deleteById(order.getId());
+        } catch (RuntimeException deleteFailure) {
+            logger.error("Failed to remove unconfirmed order {}: {}", order.getId(), deleteFailure.getMessage());
+        }
+    }
+
+    // Unreleased holds also expire in product-service, so a failure here is not fatal
+    private void releaseQuietly(String reservationId) {
+        try {
+            productClient.release(reservationId);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release stock reservation {}: {}", reservationId, e.getMessage());
+        }
+    }
+
+    /**
+     * Change the editable details of an order. Only the fields provided are written, so
+     * concurrent changes to other fields are kept. If the order carries a version, the
+     * update only applies to that version. Status goes through updateOrderStatus; items
+     * and totals are fixed when the order is placed.
+     */
     public Order updateOrder(Order order) {
-        Optional<Order> existingOrder = orderRepository.findById(order.getId());
-        if (existingOrder.isPresent()) {
-            order.setCreatedAt(existingOrder.get().getCreatedAt());
-            order.setUpdatedAt(LocalDateTime.now());
-            return orderRepository.save(order);
+        Update update = new Update();
+        setIfPresent(update, "customerName", order.getCustomerName());
+        setIfPresent(update, "customerEmail", order.getCustomerEmail());
+        setIfPresent(update, "customerPhone", order.getCustomerPhone());
+        setIfPresent(update, "companyName", order.getCompanyName());
+        setIfPresent(update, "shippingAddress", order.getShippingAddress());
+        setIfPresent(update, "billingAddress", order.getBillingAddress());
+        setIfPresent(update, "notes", order.getNotes());
+        setIfPresent(update, "expectedDeliveryDate", order.getExpectedDeliveryDate());
+        setIfPresent(update, "trackingNumber", order.getTrackingNumber());
+        setIfPresent(update, "invoiceNumber", order.getInvoiceNumber());
+        if (order.getPaymentStatus() != null) {
+            if (!PAYMENT_STATUSES.contains(order.getPaymentStatus())) {
+                throw new IllegalArgumentException("Unknown payment status: " + order.getPaymentStatus());
+            }
+            update.set("paymentStatus", order.getPaymentStatus());
+        }
+        update.set("updatedAt", LocalDateTime.now()).inc("version", 1);
+
+        Criteria criteria = Criteria.where("id").is(order.getId());
+        if (order.getVersion() != null) {
+            criteria.and("version").is(order.getVersion());
+        }
+        Order updated = mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), Order.class);
+        if (updated != null) {
+            return updated;
+        }
+        Order current = getOrderById(order.getId());
+        throw new OrderConflictException("Order " + order.getId() + " was changed concurrently, it is now at version "
+                + current.getVersion());
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
         }
-        throw new RuntimeException("Order not found with id: " + order.getId());
     }
 
     public void deleteOrder(String id) {
-        if (orderRepository.existsById(id)) {
-            orderRepository.deleteById(id);
-        } else {
+        Order removed = mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id)), Order.class);
+        if (removed == null) {
             throw new RuntimeException("Order not found with id: " + id);
         }
+        metricsService.recordRemoved(removed);
     }
 
     public List<Order> getOrdersByCustomer(String customerId) {
@@ -62,15 +286,55 @@ public class OrderService {
         return orderRepository.findByStatus(status);
     }
 
-    public Order updateOrderStatus(String id, String status) {
-        Optional<Order> order = orderRepository.findById(id);
-        if (order.isPresent()) {
-            Order existingOrder = order.get();
-            existingOrder.setStatus(status);
-            existingOrder.setUpdatedAt(LocalDateTime.now());
-            return orderRepository.save(existingOrder);
+    /**
+     * Move an order along its lifecycle with one conditional write: it only applies while
+     * the order is in a status that may move to the target (and at expectedVersion, if
+     * given). Repeating a move the order has already made returns it unchanged. A
+     * cancelled order's stock is returned to product-service.
+     */
+    public Order updateOrderStatus(String id, String status, Long expectedVersion) {
+        OrderStatus target = OrderStatus.from(status);
+        List<String> from = target.previousStatuses().stream().map(Enum::name).toList();
+        Criteria criteria = Criteria.where("id").is(id).and("status").in(from);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
         }
-        throw new RuntimeException("Order not found with id: " + id);
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update().set("status", target.name()).set("updatedAt", now).inc("version", 1);
+        if (target == OrderStatus.DELIVERED) {
+            update.set("actualDeliveryDate", now);
+        }
+        if (target == OrderStatus.CANCELLED) {
+            // Recorded with the cancellation, so the stock is returned even if the call below fails
+            update.set("stockReturnPending", true);
+        }
+        // The previous state tells the metrics which status the order left
+        Order previous = mongoTemplate.findAndModify(new Query(criteria), update, Order.class);
+        if (previous != null) {
+            String previousStatus = previous.getStatus();
+            previous.setStatus(target.name());
+            previous.setUpdatedAt(now);
+            previous.setVersion(previous.getVersion() != null ? previous.getVersion() + 1 : 1);
+            if (target == OrderStatus.DELIVERED) {
+                previous.setActualDeliveryDate(now);
+            }
+            metricsService.recordStatusChange(previous, previousStatus, target.name());
+            if (target == OrderStatus.CANCELLED) {
+                previous.setStockReturnPending(true);
+                stockReturnService.returnStock(previous);
+            }
+            return previous;
+        }
+
+        Order current = getOrderById(id);
+        if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+            throw new OrderConflictException("Order " + id + " was changed concurrently, it is now at version "
+                    + current.getVersion());
+        }
+        if (target.name().equals(current.getStatus())) {
+            return current;
+        }
+        throw new OrderConflictException("Order " + id + " is " + current.getStatus() + " and cannot become " + target);
     }
 
     public List<Order> getOrdersByPaymentStatus(String paymentStatus) {
@@ -0,0 +1,207 @@
+package com.agroconnect.order.service;
+
+import com.agroconnect.order.model.IdempotencyRecord;
+import com.agroconnect.order.model.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Order submission with Idempotency-Key support, so retried requests place one order.
+ *
+ * The first request with a key inserts an IN_PROGRESS record (the key is its _id, so
+ * concurrent duplicates cannot both start), runs the order pipeline and stores the
+ * response. Later requests with the key get that response back without the pipeline
+ * running again: from the local cache when this instance has seen it, otherwise from
+ * Mongo. A duplicate that arrives while the first is still running gets 409; a key
+ * reused for a different request gets 422. Failed submissions drop their record so
+ * the client can retry with the same key; each attempt carries its own token, so one
+ * that was taken over never drops the record of the request that took it over.
+ */
+@Service
+public class OrderSubmissionService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final List<String> SERVER_FIELDS = List.of("id", "orderDate", "createdAt", "updatedAt", "version");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orders.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    // Longer than any order placement can take; a record still IN_PROGRESS after this was abandoned
+    @Value("${orders.idempotency.lock-timeout:60s}")
+    private Duration lockTimeout;
+
+    @Value("${orders.idempotency.cache-size:10000}")
+    private long cacheSize;
+
+    private Cache<String, IdempotencyRecord> completed;
+
+    @PostConstruct
+    public void init() {
+        completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public OrderSubmission submit(String key, Order order) {
+        if (key == null) {
+            return new OrderSubmission(orderService.createOrder(order), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new OrderPlacementException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(order);
+
+        IdempotencyRecord cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = new IdempotencyRecord(key, requestHash, new ObjectId().toHexString(),
+                new ObjectId().toHexString(), now.plus(lockTimeout), now.plus(ttl));
+        try {
+            mongoTemplate.insert(record);
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord existing = mongoTemplate.findById(key, IdempotencyRecord.class);
+            if (existing == null) {
+                // Expired between the insert and the read
+                throw new OrderPlacementException(HttpStatus.CONFLICT, "Please retry the request");
+            }
+            if (IdempotencyRecord.COMPLETED.equals(existing.getStatus())) {
+                completed.put(key, existing);
+                return replay(existing, requestHash);
+            }
+            checkSameRequest(existing, requestHash);
+            record = takeOver(key);
+            // The abandoned attempt may have got as far as saving the order
+            Order placed = mongoTemplate.findById(record.getOrderId(), Order.class);
+            if (placed != null) {
+                return new OrderSubmission(complete(record, placed), false);
+            }
+        }
+
+        Order saved;
+        try {
+            saved = orderService.createOrder(order, record.getOrderId());
+        } catch (RuntimeException e) {
+            // Only while this attempt still holds the record; if another request took it over,
+            // the record is that request's now
+            mongoTemplate.remove(new Query(Criteria.where("key").is(key)
+                    .and("status").is(IdempotencyRecord.IN_PROGRESS)
+                    .and("attempt").is(record.getAttempt())), IdempotencyRecord.class);
+            throw e;
+        }
+        return new OrderSubmission(complete(record, saved), false);
+    }
+
+    // Claim an IN_PROGRESS record whose owner stopped before finishing
+    private IdempotencyRecord takeOver(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = mongoTemplate.findAndModify(
+                new Query(Criteria.where("key").is(key).and("status").is(IdempotencyRecord.IN_PROGRESS)
+                        .and("lockedUntil").lt(now)),
+                new Update().set("lockedUntil", now.plus(lockTimeout)).set("attempt", new ObjectId().toHexString()),
+                FindAndModifyOptions.options().returnNew(true), IdempotencyRecord.class);
+        if (record == null) {
+            throw new OrderPlacementException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed");
+        }
+        return record;
+    }
+
+    private Order complete(IdempotencyRecord record, Order order) {
+        String response;
+        try {
+            response = objectMapper.writeValueAsString(order);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to store order response", e);
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("key").is(record.getKey())),
+                new Update().set("status", IdempotencyRecord.COMPLETED).set("response", response)
+                        .set("orderId", order.getId()).unset("lockedUntil"),
+                IdempotencyRecord.class);
+        record.setStatus(IdempotencyRecord.COMPLETED);
+        record.setResponse(response);
+        record.setOrderId(order.getId());
+        record.setLockedUntil(null);
+        completed.put(record.getKey(), record);
+        return order;
+    }
+
+    private OrderSubmission replay(IdempotencyRecord record, String requestHash) {
+        checkSameRequest(record, requestHash);
+        try {
+            return new OrderSubmission(objectMapper.readValue(record.getResponse(), Order.class), true);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read stored order response", e);
+        }
+    }
+
+    private static void checkSameRequest(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new OrderPlacementException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+    }
+
+    // Fields the server sets are left out; new Order() stamps the dates with the current time
+    private String hash(Order order) {
+        try {
+            ObjectNode request = objectMapper.valueToTree(order);
+            request.remove(SERVER_FIELDS);
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to hash order request", e);
+        }
+    }
+
+    public static class OrderSubmission {
+        private final Order order;
+        private final boolean replayed;
+
+        public OrderSubmission(Order order, boolean replayed) {
+            this.order = order;
+            this.replayed = replayed;
+        }
+
+        public Order getOrder() {
+            return order;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
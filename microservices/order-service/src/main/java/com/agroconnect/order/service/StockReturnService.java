@@ -0,0 +1,73 @@
+package com.agroconnect.order.service;
+
+import com.agroconnect.order.client.ProductClient;
+import com.agroconnect.order.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Returns the stock of cancelled orders to product-service.
+ *
+ * The cancellation itself sets Order.stockReturnPending, so the order document is the
+ * retry queue: the flag is cleared once product-service has taken the stock back, and
+ * a sweep retries every order that still carries it. The return is keyed by the
+ * reservation id, so a retry after a lost response puts the stock back only once.
+ */
+@Service
+public class StockReturnService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReturnService.class);
+
+    private static final int SWEEP_BATCH = 100;
+
+    @Autowired
+    private ProductClient productClient;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Return the order's stock now; on failure the order stays pending for the sweep
+     */
+    public void returnStock(Order order) {
+        if (order.getReservationId() == null) {
+            // Placed before stock was reserved, nothing to return
+            clearPending(order.getId());
+            return;
+        }
+        try {
+            productClient.returnStock(order.getReservationId());
+        } catch (HttpClientErrorException.NotFound e) {
+            logger.warn("Stock reservation {} of order {} no longer exists, its stock cannot be returned",
+                    order.getReservationId(), order.getId());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to return stock of order {}, will retry: {}", order.getId(), e.getMessage());
+            return;
+        }
+        clearPending(order.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stock-return.retry-interval:30000}")
+    public void retryPending() {
+        try {
+            Query pending = new Query(Criteria.where("stockReturnPending").is(true)).limit(SWEEP_BATCH);
+            pending.fields().include("id", "reservationId");
+            mongoTemplate.find(pending, Order.class).forEach(this::returnStock);
+        } catch (Exception e) {
+            logger.error("Failed to retry pending stock returns: {}", e.getMessage(), e);
+        }
+    }
+
+    private void clearPending(String orderId) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(orderId)),
+                new Update().unset("stockReturnPending"), Order.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.agroconnect.order.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatusTest {
+
+    @Test
+    void testForwardTransitions() {
+        assertTrue(OrderStatus.PENDING.canMoveTo(OrderStatus.CONFIRMED));
+        assertTrue(OrderStatus.CONFIRMED.canMoveTo(OrderStatus.PROCESSING));
+        assertTrue(OrderStatus.PROCESSING.canMoveTo(OrderStatus.SHIPPED));
+        assertTrue(OrderStatus.SHIPPED.canMoveTo(OrderStatus.DELIVERED));
+    }
+
+    @Test
+    void testNoSkippingOrGoingBack() {
+        assertFalse(OrderStatus.PENDING.canMoveTo(OrderStatus.SHIPPED));
+        assertFalse(OrderStatus.CONFIRMED.canMoveTo(OrderStatus.DELIVERED));
+        assertFalse(OrderStatus.SHIPPED.canMoveTo(OrderStatus.PROCESSING));
+        assertFalse(OrderStatus.CONFIRMED.canMoveTo(OrderStatus.PENDING));
+        assertFalse(OrderStatus.PENDING.canMoveTo(OrderStatus.PENDING));
+    }
+
+    @Test
+    void testCancellationOnlyBeforeShipping() {
+        assertEquals(EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PROCESSING),
+                OrderStatus.CANCELLED.previousStatuses());
+        assertFalse(OrderStatus.SHIPPED.canMoveTo(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void testFinalStatuses() {
+        assertTrue(OrderStatus.DELIVERED.nextStatuses().isEmpty());
+        assertTrue(OrderStatus.CANCELLED.nextStatuses().isEmpty());
+        assertTrue(OrderStatus.PENDING.previousStatuses().isEmpty());
+    }
+
+    @Test
+    void testPreviousStatusesMirrorNextStatuses() {
+        for (OrderStatus target : OrderStatus.values()) {
+            for (OrderStatus status : OrderStatus.values()) {
+                assertEquals(status.canMoveTo(target), target.previousStatuses().contains(status),
+                        status + " -> " + target);
+            }
+        }
+    }
+
+    @Test
+    void testFrom() {
+        assertEquals(OrderStatus.SHIPPED, OrderStatus.from(" shipped "));
+        assertEquals(OrderStatus.CANCELLED, OrderStatus.from("CANCELLED"));
+        assertThrows(IllegalArgumentException.class, () -> OrderStatus.from("LOST"));
+        assertThrows(IllegalArgumentException.class, () -> OrderStatus.from(null));
+    }
+}
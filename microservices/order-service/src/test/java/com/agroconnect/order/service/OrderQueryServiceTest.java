@@ -0,0 +1,93 @@
+package com.agroconnect.order.service;
+
+import com.agroconnect.order.dto.OrderPage;
+import com.agroconnect.order.model.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class OrderQueryServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private OrderQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        service = new OrderQueryService();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void testCursorResumesAfterLastOrder() {
+        LocalDateTime date = LocalDateTime.of(2024, 3, 1, 12, 30, 15);
+        when(mongoTemplate.find(any(Query.class), eq(Order.class)))
+                .thenReturn(List.of(order("o3", date.plusDays(1)), order("o2", date), order("o1", date)));
+
+        OrderPage<?> page = service.search(null, null, null, null, null, null, 2, false);
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasNext());
+
+        service.search(null, null, null, null, null, page.getNextCursor(), 2, false);
+        service.search("c1", null, null, null, null, page.getNextCursor(), 2, false);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).find(query.capture(), eq(Order.class));
+
+        // {customerId: "c1", $and: [{$or: [{orderDate: {$lt: date}}, {$and: [{orderDate: date}, {id: {$lt: "o2"}}]}]}]}
+        Document filter = query.getValue().getQueryObject();
+        assertEquals("c1", filter.get("customerId"));
+        List<?> or = (List<?>) ((Document) ((List<?>) filter.get("$and")).get(0)).get("$or");
+        assertEquals(date, ((Document) ((Document) or.get(0)).get("orderDate")).get("$lt"));
+        List<?> and = (List<?>) ((Document) or.get(1)).get("$and");
+        assertEquals(date, ((Document) and.get(0)).get("orderDate"));
+        assertEquals("o2", ((Document) ((Document) and.get(1)).get("id")).get("$lt"));
+    }
+
+    @Test
+    void testLastPageHasNoCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(Order.class)))
+                .thenReturn(List.of(order("o1", LocalDateTime.now())));
+
+        OrderPage<?> page = service.search(null, null, null, null, null, null, 2, false);
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasNext());
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.search(null, null, null, null, null, "not a cursor!", 2, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.search(null, null, null, null, null, encode("{\"orderDate\":\"yesterday\",\"id\":\"o1\"}"), 2, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.search(null, null, null, null, null, encode("{\"orderDate\":\"2024-03-01T12:00\",\"id\":7}"), 2, false));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static Order order(String id, LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderDate(orderDate);
+        return order;
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
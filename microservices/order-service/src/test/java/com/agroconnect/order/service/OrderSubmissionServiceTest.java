@@ -0,0 +1,211 @@
+package com.agroconnect.order.service;
+
+import com.agroconnect.order.model.IdempotencyRecord;
+import com.agroconnect.order.model.Order;
+import com.agroconnect.order.model.OrderItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class OrderSubmissionServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private OrderService orderService;
+    private ObjectMapper objectMapper;
+    private OrderSubmissionService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        orderService = mock(OrderService.class);
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        service = new OrderSubmissionService();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "orderService", orderService);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(service, "lockTimeout", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(service, "cacheSize", 100L);
+        service.init();
+
+        when(orderService.createOrder(any(Order.class), anyString())).thenAnswer(call -> placed(call.getArgument(1)));
+    }
+
+    @Test
+    void testWithoutKeyPlacesOrder() {
+        Order order = request("apples");
+        when(orderService.createOrder(order)).thenReturn(placed("o1"));
+
+        OrderSubmissionService.OrderSubmission submission = service.submit(null, order);
+
+        assertFalse(submission.isReplayed());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testRepeatIsReplayedFromCache() {
+        OrderSubmissionService.OrderSubmission first = service.submit("k1", request("apples"));
+        OrderSubmissionService.OrderSubmission second = service.submit("k1", request("apples"));
+
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertEquals(first.getOrder().getId(), second.getOrder().getId());
+        verify(orderService, times(1)).createOrder(any(Order.class), anyString());
+        verify(mongoTemplate, times(1)).insert(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void testRepeatIsReplayedFromStoredResponse() throws Exception {
+        IdempotencyRecord stored = storedRecord("k1", request("apples"));
+        stored.setStatus(IdempotencyRecord.COMPLETED);
+        stored.setResponse(objectMapper.writeValueAsString(placed("o7")));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("k1"));
+        when(mongoTemplate.findById("k1", IdempotencyRecord.class)).thenReturn(stored);
+
+        OrderSubmissionService.OrderSubmission submission = service.submit("k1", request("apples"));
+
+        assertTrue(submission.isReplayed());
+        assertEquals("o7", submission.getOrder().getId());
+        verify(orderService, never()).createOrder(any(Order.class), anyString());
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() {
+        service.submit("k1", request("apples"));
+
+        OrderPlacementException e = assertThrows(OrderPlacementException.class,
+                () -> service.submit("k1", request("pears")));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+    }
+
+    @Test
+    void testKeyReusedWhileInProgressForDifferentRequestIsRejected() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("k1"));
+        when(mongoTemplate.findById("k1", IdempotencyRecord.class)).thenReturn(storedRecord("k1", request("apples")));
+
+        OrderPlacementException e = assertThrows(OrderPlacementException.class,
+                () -> service.submit("k1", request("pears")));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+    }
+
+    @Test
+    void testInProgressWithinLeaseIsConflict() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("k1"));
+        when(mongoTemplate.findById("k1", IdempotencyRecord.class)).thenReturn(storedRecord("k1", request("apples")));
+        // The takeover only matches once lockedUntil has passed
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(IdempotencyRecord.class))).thenReturn(null);
+
+        OrderPlacementException e = assertThrows(OrderPlacementException.class,
+                () -> service.submit("k1", request("apples")));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        verify(orderService, never()).createOrder(any(Order.class), anyString());
+    }
+
+    @Test
+    void testAbandonedAttemptIsTakenOverWithSameOrderId() {
+        IdempotencyRecord abandoned = storedRecord("k1", request("apples"));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("k1"));
+        when(mongoTemplate.findById("k1", IdempotencyRecord.class)).thenReturn(abandoned);
+        IdempotencyRecord claimed = storedRecord("k1", request("apples"));
+        claimed.setAttempt("attempt-2");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(IdempotencyRecord.class))).thenReturn(claimed);
+
+        OrderSubmissionService.OrderSubmission submission = service.submit("k1", request("apples"));
+
+        assertFalse(submission.isReplayed());
+        assertEquals(abandoned.getOrderId(), submission.getOrder().getId());
+        ArgumentCaptor<Query> takeover = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(takeover.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(IdempotencyRecord.class));
+        assertTrue(takeover.getValue().getQueryObject().containsKey("lockedUntil"));
+        assertTrue(update.getValue().getUpdateObject().get("$set", Document.class).containsKey("attempt"));
+    }
+
+    @Test
+    void testTakeoverCompletesOrderAlreadySaved() {
+        IdempotencyRecord abandoned = storedRecord("k1", request("apples"));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("k1"));
+        when(mongoTemplate.findById("k1", IdempotencyRecord.class)).thenReturn(abandoned);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(IdempotencyRecord.class))).thenReturn(abandoned);
+        when(mongoTemplate.findById(abandoned.getOrderId(), Order.class)).thenReturn(placed(abandoned.getOrderId()));
+
+        OrderSubmissionService.OrderSubmission submission = service.submit("k1", request("apples"));
+
+        assertEquals(abandoned.getOrderId(), submission.getOrder().getId());
+        verify(orderService, never()).createOrder(any(Order.class), anyString());
+    }
+
+    @Test
+    void testFailureFreesKeyForThisAttemptOnly() {
+        when(orderService.createOrder(any(Order.class), anyString())).thenThrow(
+                new OrderPlacementException(HttpStatus.CONFLICT, "Insufficient stock"));
+        ArgumentCaptor<IdempotencyRecord> inserted = ArgumentCaptor.forClass(IdempotencyRecord.class);
+
+        assertThrows(OrderPlacementException.class, () -> service.submit("k1", request("apples")));
+
+        verify(mongoTemplate).insert(inserted.capture());
+        ArgumentCaptor<Query> removal = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removal.capture(), eq(IdempotencyRecord.class));
+        Document filter = removal.getValue().getQueryObject();
+        assertEquals("k1", filter.get("key"));
+        assertEquals(IdempotencyRecord.IN_PROGRESS, filter.get("status"));
+        assertNotNull(inserted.getValue().getAttempt());
+        assertEquals(inserted.getValue().getAttempt(), filter.get("attempt"));
+    }
+
+    @Test
+    void testInvalidKeyIsRejected() {
+        OrderPlacementException e = assertThrows(OrderPlacementException.class,
+                () -> service.submit(" ", request("apples")));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+        assertThrows(OrderPlacementException.class, () -> service.submit("k".repeat(256), request("apples")));
+    }
+
+    // What the first submission under the key left behind, hashed like the service does
+    private IdempotencyRecord storedRecord(String key, Order order) {
+        String hash = (String) ReflectionTestUtils.invokeMethod(service, "hash", order);
+        LocalDateTime now = LocalDateTime.now();
+        return new IdempotencyRecord(key, hash, "order-1", "attempt-1", now.minusSeconds(1), now.plusHours(24));
+    }
+
+    private static Order request(String productId) {
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setQuantity(2);
+        item.setUnitPrice(new BigDecimal("1.50"));
+        Order order = new Order();
+        order.setCustomerId("c1");
+        order.setItems(List.of(item));
+        return order;
+    }
+
+    private static Order placed(String id) {
+        Order order = request("apples");
+        order.setId(id);
+        return order;
+    }
+}
@@ -0,0 +1,40 @@
+package com.agroconnect.product.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for a message broker: delivers each invalidation to the
+ * subscribers of this JVM only. Good for a single instance, local runs and tests;
+ * a broker-backed bus replaces it by setting products.cache.invalidation.transport.
+ */
+@Component
+@ConditionalOnProperty(name = "products.cache.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class LocalProductInvalidationBus implements ProductInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalProductInvalidationBus.class);
+
+    private final List<Consumer<ProductInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ProductInvalidation invalidation) {
+        for (Consumer<ProductInvalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (Exception e) {
+                logger.warn("Product invalidation listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ProductInvalidation> listener) {
+        listeners.add(listener);
+    }
+}
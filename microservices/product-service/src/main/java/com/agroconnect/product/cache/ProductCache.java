@@ -0,0 +1,110 @@
+package com.agroconnect.product.cache;
+
+import com.agroconnect.product.event.ProductChangedEvent;
+import com.agroconnect.product.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Per-instance read-through cache of products.
+ *
+ * Local writes evict immediately and are broadcast on the ProductInvalidationBus so
+ * other instances evict too; the expiry only bounds staleness if a broadcast is lost.
+ * Hit ratio, load time and evictions are published to Micrometer as product.cache.*
+ * and the standard cache.* meters.
+ */
+@Component
+public class ProductCache {
+
+    @Autowired
+    private ProductInvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${products.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${products.cache.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private Cache<String, Product> byId;
+    private Counter remoteInvalidations;
+
+    @PostConstruct
+    public void init() {
+        byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "products.byId");
+        Gauge.builder("product.cache.hit.ratio", byId, cache -> cache.stats().hitRate())
+                .tag("cache", "products.byId")
+                .register(meterRegistry);
+        remoteInvalidations = Counter.builder("product.cache.invalidations.remote").register(meterRegistry);
+
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    // Returns null without caching when the loader finds nothing
+    public Product get(String id, Function<String, Product> loader) {
+        return byId.get(id, loader);
+    }
+
+    // Misses are loaded together in one call; ids the loader does not return are left out
+    public Map<String, Product> getAll(Collection<String> ids, Function<Set<String>, Map<String, Product>> loader) {
+        return byId.getAll(ids, missing -> loader.apply(new HashSet<>(missing)));
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.getProductId());
+        invalidationBus.publish(new ProductInvalidation(event.getProductId(), instanceId));
+    }
+
+    /**
+     * Whether the invalidation was broadcast by this instance, whose local listeners
+     * have already seen the change as a ProductChangedEvent
+     */
+    public boolean isLocal(ProductInvalidation invalidation) {
+        return instanceId.equals(invalidation.getOriginInstanceId());
+    }
+
+    private void onInvalidation(ProductInvalidation invalidation) {
+        // Our own broadcasts were already applied when the change was made
+        if (isLocal(invalidation)) {
+            return;
+        }
+        remoteInvalidations.increment();
+        evict(invalidation.getProductId());
+    }
+
+    private void evict(String productId) {
+        if (productId != null) {
+            byId.invalidate(productId);
+        } else {
+            byId.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.agroconnect.product.cache;
+
+/**
+ * Message telling every instance to drop its cached copy of a product. A null
+ * productId drops everything, used when the change cannot be pinned to one product.
+ */
+public class ProductInvalidation {
+
+    private final String productId;
+    private final String originInstanceId;
+
+    public ProductInvalidation(String productId, String originInstanceId) {
+        this.productId = productId;
+        this.originInstanceId = originInstanceId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getOriginInstanceId() {
+        return originInstanceId;
+    }
+}
@@ -0,0 +1,15 @@
+package com.agroconnect.product.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts product invalidations to every product-service instance, including the
+ * sender. Implementations only need at-least-once delivery: an extra eviction costs
+ * one reload, a missed one is bounded by the cache expiry.
+ */
+public interface ProductInvalidationBus {
+
+    void publish(ProductInvalidation invalidation);
+
+    void subscribe(Consumer<ProductInvalidation> listener);
+}
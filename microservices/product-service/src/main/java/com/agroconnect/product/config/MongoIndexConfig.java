@@ -0,0 +1,81 @@
+package com.agroconnect.product.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes for the product-service queries, applied at startup. Each listing sort
+ * has a compound index ending in _id, the tie-breaker of keyset pagination.
+ */
+@Configuration
+public class MongoIndexConfig implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public static Map<String, List<Index>> indexDefinitions() {
+        Map<String, List<Index>> indexes = new LinkedHashMap<>();
+
+        indexes.put("products", List.of(
+                new Index().on("name", Direction.ASC).on("_id", Direction.ASC).named("name_id"),
+                new Index().on("price", Direction.ASC).on("_id", Direction.ASC).named("price_id"),
+                new Index().on("createdAt", Direction.ASC).on("_id", Direction.ASC).named("createdAt_id"),
+                // also serves the latest-update lookup of CatalogVersion
+                new Index().on("updatedAt", Direction.ASC).on("_id", Direction.ASC).named("updatedAt_id"),
+                // findByCategory
+                new Index().on("category", Direction.ASC).named("category"),
+                // AvailabilityScheduler look-ahead and catch-up
+                new Index().on("expiryDate", Direction.ASC).named("expiryDate"),
+                new Index().on("harvestDate", Direction.ASC).named("harvestDate"),
+                // supplier sync key
+                new Index().on("supplier", Direction.ASC).on("sku", Direction.ASC).unique()
+                        .partial(PartialIndexFilter.of(Criteria.where("sku").exists(true)))
+                        .named("supplier_sku")
+        ));
+
+        indexes.put("stock_reservations", List.of(
+                // expiry sweep
+                new Index().on("status", Direction.ASC).on("expiresAt", Direction.ASC).named("status_expiresAt"),
+                // one reservation per order
+                new Index().on("orderId", Direction.ASC).unique()
+                        .partial(PartialIndexFilter.of(Criteria.where("orderId").exists(true)))
+                        .named("orderId"),
+                // closed reservations are purged after a week; HELD and COMMITTED ones have no closedAt
+                new Index().on("closedAt", Direction.ASC).expire(Duration.ofDays(7)).named("closedAt_ttl")
+        ));
+
+        return indexes;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        indexDefinitions().forEach((collection, indexes) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            for (Index index : indexes) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (Exception e) {
+                    // A missing index only costs performance, so keep starting up
+                    logger.error("Failed to create index {} on {}: {}", index.getIndexOptions().get("name"),
+                            collection, e.getMessage(), e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.agroconnect.product.config;
+
+import com.agroconnect.product.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject.Type;
+
+/**
+ * Converts prices stored as strings, from before MongoConfig mapped BigDecimal to
+ * Decimal128, to Decimal128. BSON orders numbers before strings, so left alone they
+ * would be skipped or misordered by price sorts, price range filters and keyset cursors.
+ */
+@Configuration
+public class ProductPriceBackfill implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductPriceBackfill.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            AggregationUpdate toDecimal = AggregationUpdate.update()
+                    .set("price").toValue(ConvertOperators.valueOf("price").convertToDecimal());
+            long updated = mongoTemplate.updateMulti(new Query(Criteria.where("price").type(Type.STRING)),
+                    toDecimal, Product.class).getModifiedCount();
+            if (updated > 0) {
+                logger.info("Converted price to Decimal128 on {} products", updated);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to convert product prices: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.agroconnect.product.config;
+
+import com.agroconnect.product.model.StockReservation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Moves closedAt to committedAt on reservations committed before committed ones were
+ * kept. Left alone, the closedAt TTL would purge them and a later order cancellation
+ * could no longer return their stock.
+ */
+@Configuration
+public class ReservationRetentionBackfill implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationRetentionBackfill.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            Query committed = new Query(Criteria.where("status").is(StockReservation.COMMITTED)
+                    .and("closedAt").exists(true));
+            long updated = mongoTemplate.updateMulti(committed, new Update().rename("closedAt", "committedAt"),
+                    StockReservation.class).getModifiedCount();
+            if (updated > 0) {
+                logger.info("Kept {} committed stock reservations from expiring", updated);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to move committed reservations off the closedAt TTL: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,18 +1,46 @@
 package com.agroconnect.product.controller;
 
+import com.agroconnect.product.dto.ProductPage;
+import com.agroconnect.product.dto.ProductSort;
+import com.agroconnect.product.dto.ProductView;
+import com.agroconnect.product.dto.SupplierSyncRequest;
+import com.agroconnect.product.dto.SupplierSyncResult;
 import com.agroconnect.product.model.Product;
+import com.agroconnect.product.search.ProductFacetIndex;
+import com.agroconnect.product.search.ProductSearchIndex;
+import com.agroconnect.product.service.CatalogVersion;
+import com.agroconnect.product.service.ProductListingService;
 import com.agroconnect.product.service.ProductService;
+import com.agroconnect.product.service.SupplierSyncService;
 import com.agroconnect.product.service.AuditService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/products")
 @CrossOrigin(origins = "*")
 public class ProductController {
+
+    private static final CacheControl CATALOG_CACHE = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic().mustRevalidate();
+    private static final CacheControl QUERY_CACHE = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic().mustRevalidate();
     
     @Autowired
     private ProductService productService;
@@ -20,20 +48,99 @@ public class ProductController {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private ProductListingService listingService;
+
+    @Autowired
+    private SupplierSyncService supplierSyncService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Streamed straight from the database cursor, so memory use does not grow with the catalog
     @GetMapping("/")
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
+    public ResponseEntity<StreamingResponseBody> getAllProducts(ServletWebRequest request) {
+        if (notModified(request, CATALOG_CACHE)) {
+            return null;
+        }
         auditService.log("system", "VIEW_ALL_PRODUCTS", "Retrieved all products");
-        return ResponseEntity.ok(products);
+        StreamingResponseBody body = output -> {
+            try (Stream<Product> products = listingService.streamAll();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                for (Product product : (Iterable<Product>) products::iterator) {
+                    generator.writeObject(product);
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().cacheControl(CATALOG_CACHE).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Browsing is not audited per page
+    @GetMapping("/page")
+    public ResponseEntity<ProductPage<?>> getProductPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "full") String view,
+            ServletWebRequest request) {
+        if (notModified(request, CATALOG_CACHE)) {
+            return null;
+        }
+        try {
+            ProductPage<?> result = listingService.getPage(Math.max(page, 0), Math.min(Math.max(size, 1), 100),
+                    ProductSort.from(sort), Sort.Direction.fromString(direction), ProductView.from(view));
+            return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Keyset pagination: pass back nextCursor with the same sort and direction
+    @GetMapping("/scroll")
+    public ResponseEntity<ProductPage<?>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "full") String view,
+            ServletWebRequest request) {
+        if (notModified(request, CATALOG_CACHE)) {
+            return null;
+        }
+        try {
+            ProductPage<?> result = listingService.scroll(cursor, Math.min(Math.max(size, 1), 100),
+                    ProductSort.from(sort), Sort.Direction.fromString(direction), ProductView.from(view));
+            return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable String id) {
+    public ResponseEntity<Product> getProductById(@PathVariable String id, ServletWebRequest request) {
+        if (notModified(request, CATALOG_CACHE)) {
+            return null;
+        }
         Product product = productService.getProductById(id);
         if (product != null) {
             auditService.logProductViewed("system", product.getName(), product.getId());
         }
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(product);
+    }
+
+    // Lookup of many products in one request, e.g. pricing an order; not audited per call
+    @PostMapping("/batch")
+    public ResponseEntity<List<Product>> getProductsByIds(@RequestBody List<String> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > 500 || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
     }
 
     @PostMapping("/")
@@ -43,6 +150,20 @@ public class ProductController {
         return ResponseEntity.ok(savedProduct);
     }
 
+    // Whole supplier sheet in one call; audited once per sheet rather than per product
+    @PostMapping("/sync")
+    public ResponseEntity<SupplierSyncResult> syncSupplierProducts(@RequestBody SupplierSyncRequest request) {
+        try {
+            SupplierSyncResult result = supplierSyncService.sync(request);
+            auditService.log("system", "SUPPLIER_SYNC", "Synced products for supplier " + result.getSupplier()
+                    + ": " + result.getInserted() + " inserted, " + result.getUpdated() + " updated, "
+                    + result.getUnchanged() + " unchanged, " + result.getRejected() + " rejected");
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(@PathVariable String id, @RequestBody Product product) {
         product.setId(id);
@@ -62,16 +183,103 @@ public class ProductController {
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category, ServletWebRequest request) {
+        if (notModified(request, CATALOG_CACHE)) {
+            return null;
+        }
         List<Product> products = productService.getProductsByCategory(category);
         auditService.log("system", "VIEW_PRODUCTS_BY_CATEGORY", "Retrieved products for category: " + category);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(products);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String query) {
+    public ResponseEntity<List<Product>> searchProducts(@RequestParam String query, ServletWebRequest request) {
+        if (notModified(request, QUERY_CACHE)) {
+            return null;
+        }
         List<Product> products = productService.searchProducts(query);
         auditService.log("system", "SEARCH_PRODUCTS", "Searched products with query: " + query);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().cacheControl(QUERY_CACHE).body(products);
+    }
+
+    @GetMapping("/search/advanced")
+    public ResponseEntity<ProductSearchIndex.SearchResult> advancedSearch(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String supplier,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            ServletWebRequest request) {
+        if (notModified(request, QUERY_CACHE)) {
+            return null;
+        }
+        ProductSearchIndex.SearchFilter filter = new ProductSearchIndex.SearchFilter(tag, origin, supplier);
+        ProductSearchIndex.SearchResult result = productService.searchProducts(
+                query, filter, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        auditService.log("system", "SEARCH_PRODUCTS", "Advanced product search with query: " + query);
+        return ResponseEntity.ok().cacheControl(QUERY_CACHE).body(result);
+    }
+
+    // Values within one attribute are OR-ed, attributes are AND-ed
+    @GetMapping("/filter")
+    public ResponseEntity<ProductFacetIndex.FilterResult> filterProducts(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> origin,
+            @RequestParam(required = false) List<String> qualityGrade,
+            @RequestParam(required = false) List<String> supplier,
+            @RequestParam(required = false) Boolean organic,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) List<String> priceBand,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            ServletWebRequest request) {
+        if (notModified(request, QUERY_CACHE)) {
+            return null;
+        }
+        Map<ProductFacetIndex.Facet, Set<String>> selection = new EnumMap<>(ProductFacetIndex.Facet.class);
+        select(selection, ProductFacetIndex.Facet.CATEGORY, category);
+        select(selection, ProductFacetIndex.Facet.ORIGIN, origin);
+        select(selection, ProductFacetIndex.Facet.QUALITY_GRADE, qualityGrade);
+        select(selection, ProductFacetIndex.Facet.SUPPLIER, supplier);
+        select(selection, ProductFacetIndex.Facet.ORGANIC, organic != null ? List.of(organic.toString()) : null);
+        select(selection, ProductFacetIndex.Facet.AVAILABLE, available != null ? List.of(available.toString()) : null);
+        select(selection, ProductFacetIndex.Facet.PRICE_BAND, priceBand);
+
+        ProductFacetIndex.FilterResult result = productService.filterProducts(
+                selection, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        auditService.log("system", "FILTER_PRODUCTS", "Filtered products by: " + selection);
+        return ResponseEntity.ok().cacheControl(QUERY_CACHE).body(result);
+    }
+
+    // Called on every keystroke, so not audited
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSearchIndex.Suggestion>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            ServletWebRequest request) {
+        if (notModified(request, QUERY_CACHE)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(QUERY_CACHE).body(productService.suggestProducts(prefix, Math.min(Math.max(limit, 1), 50)));
+    }
+
+    // A 304 here skips the query, the audit entry and serialisation; otherwise the ETag is already on the response
+    private boolean notModified(ServletWebRequest request, CacheControl cacheControl) {
+        if (!request.checkNotModified(catalogVersion.getETag())) {
+            return false;
+        }
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return true;
+    }
+
+    private static void select(Map<ProductFacetIndex.Facet, Set<String>> selection,
+                               ProductFacetIndex.Facet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            selection.put(facet, new HashSet<>(values));
+        }
     }
 } 
\ No newline at end of file
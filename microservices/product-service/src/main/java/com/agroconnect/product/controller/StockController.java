@@ -0,0 +1,104 @@
+package com.agroconnect.product.controller;
+
+import com.agroconnect.product.dto.ReservationRequest;
+import com.agroconnect.product.model.Product;
+import com.agroconnect.product.model.StockReservation;
+import com.agroconnect.product.service.AuditService;
+import com.agroconnect.product.service.InsufficientStockException;
+import com.agroconnect.product.service.StockReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/products/stock")
+@CrossOrigin(origins = "*")
+public class StockController {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private AuditService auditService;
+
+    // Reservations are made per checkout and audited by the order flow, not here
+    @PostMapping("/reservations")
+    public ResponseEntity<?> reserve(@RequestBody ReservationRequest request) {
+        try {
+            StockReservation reservation = reservationService.reserve(request.getOrderId(), request.getItems(),
+                    request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : null);
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "productId", e.getProductId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/reservations/{id}")
+    public ResponseEntity<StockReservation> getReservation(@PathVariable String id) {
+        return reservationService.getReservation(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/reservations/{id}/commit")
+    public ResponseEntity<?> commit(@PathVariable String id) {
+        try {
+            return toResponse(reservationService.commit(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/reservations/{id}/release")
+    public ResponseEntity<?> release(@PathVariable String id) {
+        try {
+            return toResponse(reservationService.release(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Keyed by reservation, so a retried return puts the stock back only once
+    @PostMapping("/reservations/{id}/return")
+    public ResponseEntity<?> returnStock(@PathVariable String id) {
+        try {
+            return toResponse(reservationService.returnStock(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Body: {"delta": 25} for a delivery, {"delta": -3} for a write-off
+    @PostMapping("/{productId}/adjust")
+    public ResponseEntity<?> adjustStock(@PathVariable String productId, @RequestBody Map<String, Integer> request) {
+        Integer delta = request.get("delta");
+        if (delta == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "delta is required"));
+        }
+        try {
+            Product product = reservationService.adjustStock(productId, delta);
+            auditService.log("system", "ADJUST_STOCK", "Adjusted stock of product " + productId + " by " + delta
+                    + " to " + product.getStockQuantity());
+            return ResponseEntity.ok(product);
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "productId", e.getProductId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<?> toResponse(Optional<StockReservation> reservation) {
+        return reservation.<ResponseEntity<?>>map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,43 @@
+package com.agroconnect.product.dto;
+
+import com.agroconnect.product.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Minimal product view for listing grids.
+ */
+public class ProductCard {
+
+    private final String id;
+    private final String name;
+    private final BigDecimal price;
+    private final String imageUrl;
+
+    public ProductCard(String id, String name, BigDecimal price, String imageUrl) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.imageUrl = imageUrl;
+    }
+
+    public static ProductCard of(Product product) {
+        return new ProductCard(product.getId(), product.getName(), product.getPrice(), product.getImageUrl());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+}
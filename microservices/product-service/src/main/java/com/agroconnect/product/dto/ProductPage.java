@@ -0,0 +1,61 @@
+package com.agroconnect.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of a product listing. Offset pages carry page and totalElements;
+ * keyset pages carry nextCursor instead, absent on the last page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductPage<T> {
+
+    private final List<T> items;
+    private final int size;
+    private final Integer page;
+    private final Long totalElements;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    private ProductPage(List<T> items, int size, Integer page, Long totalElements, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.size = size;
+        this.page = page;
+        this.totalElements = totalElements;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public static <T> ProductPage<T> offset(List<T> items, int page, int size, long totalElements) {
+        return new ProductPage<>(items, size, page, totalElements, null, (long) (page + 1) * size < totalElements);
+    }
+
+    public static <T> ProductPage<T> keyset(List<T> items, int size, String nextCursor) {
+        return new ProductPage<>(items, size, null, null, nextCursor, nextCursor != null);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+}
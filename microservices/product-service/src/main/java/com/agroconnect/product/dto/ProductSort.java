@@ -0,0 +1,30 @@
+package com.agroconnect.product.dto;
+
+/**
+ * Sort keys offered by the product listing; each is backed by a {field, _id} index.
+ */
+public enum ProductSort {
+    NAME("name"),
+    PRICE("price"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String field;
+
+    ProductSort(String field) {
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public static ProductSort from(String value) {
+        for (ProductSort sort : values()) {
+            if (sort.field.equalsIgnoreCase(value) || sort.name().equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + value);
+    }
+}
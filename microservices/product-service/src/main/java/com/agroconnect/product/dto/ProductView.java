@@ -0,0 +1,19 @@
+package com.agroconnect.product.dto;
+
+/**
+ * Shape of the products in a listing: the full document, or a card with id, name,
+ * price and imageUrl only, which is all that is read from the database.
+ */
+public enum ProductView {
+    FULL,
+    CARD;
+
+    public static ProductView from(String value) {
+        for (ProductView view : values()) {
+            if (view.name().equalsIgnoreCase(value)) {
+                return view;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported view: " + value);
+    }
+}
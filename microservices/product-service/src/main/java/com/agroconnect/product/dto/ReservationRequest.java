@@ -0,0 +1,37 @@
+package com.agroconnect.product.dto;
+
+import com.agroconnect.product.model.StockReservation;
+
+import java.util.List;
+
+public class ReservationRequest {
+
+    private String orderId;
+    private List<StockReservation.Item> items;
+    // Optional hold time; defaults to products.reservations.ttl
+    private Long ttlSeconds;
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public List<StockReservation.Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockReservation.Item> items) {
+        this.items = items;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
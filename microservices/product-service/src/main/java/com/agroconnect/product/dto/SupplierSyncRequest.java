@@ -0,0 +1,31 @@
+package com.agroconnect.product.dto;
+
+import com.agroconnect.product.model.Product;
+
+import java.util.List;
+
+/**
+ * A supplier's price and stock sheet. Products are matched on sku within the supplier;
+ * fields left out of a product keep their current values.
+ */
+public class SupplierSyncRequest {
+
+    private String supplier;
+    private List<Product> products;
+
+    public String getSupplier() {
+        return supplier;
+    }
+
+    public void setSupplier(String supplier) {
+        this.supplier = supplier;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<Product> products) {
+        this.products = products;
+    }
+}
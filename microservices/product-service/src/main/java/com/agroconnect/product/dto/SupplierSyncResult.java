@@ -0,0 +1,94 @@
+package com.agroconnect.product.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a supplier sync: how many sheet rows created, changed or left products
+ * as they were, and the rows that were rejected.
+ */
+public class SupplierSyncResult {
+
+    private final String supplier;
+    private int received;
+    private int inserted;
+    private int updated;
+    private int unchanged;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public SupplierSyncResult(String supplier) {
+        this.supplier = supplier;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public void addInserted(int count) {
+        inserted += count;
+    }
+
+    public void addUpdated(int count) {
+        updated += count;
+    }
+
+    public void addUnchanged(int count) {
+        unchanged += count;
+    }
+
+    public void reject(int row, String sku, String message) {
+        errors.add(new RowError(row, sku, message));
+    }
+
+    public String getSupplier() {
+        return supplier;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getRejected() {
+        return errors.size();
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public static class RowError {
+        private final int row;
+        private final String sku;
+        private final String message;
+
+        public RowError(int row, String sku, String message) {
+            this.row = row;
+            this.sku = sku;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
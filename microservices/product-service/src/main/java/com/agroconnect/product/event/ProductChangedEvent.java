@@ -0,0 +1,47 @@
+package com.agroconnect.product.event;
+
+import com.agroconnect.product.model.Product;
+
+/**
+ * Published by ProductService after a product is created, updated or deleted so
+ * in-memory views of the catalog can update themselves incrementally.
+ */
+public class ProductChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final String productId;
+    private final Product product;
+
+    public ProductChangedEvent(Type type, String productId, Product product) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent updated(Product product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(String productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    // Null for deletions
+    public Product getProduct() {
+        return product;
+    }
+}
@@ -21,6 +21,8 @@ public class Product {
     private String imageUrl;
     private List<String> tags;
     private String supplier;
+    // Supplier's own product code; unique per supplier
+    private String sku;
     private String origin;
     private String qualityGrade;
     private LocalDateTime harvestDate;
@@ -133,6 +135,14 @@ public class Product {
         this.supplier = supplier;
     }
 
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
     public String getOrigin() {
         return origin;
     }
@@ -0,0 +1,140 @@
+package com.agroconnect.product.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stock held for one checkout. The quantities are already taken off
+ * Product.stockQuantity while the reservation is HELD; releasing or expiring
+ * it puts them back, committing makes the sale final. Returning a committed
+ * reservation, e.g. for a cancelled order, puts the stock back after all.
+ */
+@Document(collection = "stock_reservations")
+public class StockReservation {
+
+    public static final String HELD = "HELD";
+    public static final String COMMITTED = "COMMITTED";
+    public static final String RELEASED = "RELEASED";
+    public static final String EXPIRED = "EXPIRED";
+    public static final String RETURNED = "RETURNED";
+
+    @Id
+    private String id;
+    // Caller's reference, e.g. the order id; at most one reservation per reference
+    private String orderId;
+    private List<Item> items;
+    private String status; // HELD, COMMITTED, RELEASED, EXPIRED, RETURNED
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    // Set when the reservation is released, expires or is returned; closed reservations are purged a week later
+    private LocalDateTime closedAt;
+    // Committed reservations are kept so a cancelled order can still return its stock
+    private LocalDateTime committedAt;
+
+    public StockReservation() {
+    }
+
+    public StockReservation(String orderId, List<Item> items, LocalDateTime expiresAt) {
+        this.orderId = orderId;
+        this.items = items;
+        this.status = HELD;
+        this.expiresAt = expiresAt;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+
+    public LocalDateTime getCommittedAt() {
+        return committedAt;
+    }
+
+    public void setCommittedAt(LocalDateTime committedAt) {
+        this.committedAt = committedAt;
+    }
+
+    public static class Item {
+        private String productId;
+        private Integer quantity;
+
+        public Item() {
+        }
+
+        public Item(String productId, Integer quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+
+        public String getProductId() {
+            return productId;
+        }
+
+        public void setProductId(String productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
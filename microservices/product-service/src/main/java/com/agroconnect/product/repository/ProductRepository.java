@@ -11,10 +11,6 @@ public interface ProductRepository extends MongoRepository<Product, String> {
     
     List<Product> findByCategory(String category);
     
-    List<Product> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String name, String description);
-    
-    List<Product> findByIsAvailableTrue();
-    
     List<Product> findByIsOrganicTrue();
     
     List<Product> findBySupplier(String supplier);
@@ -0,0 +1,367 @@
+package com.agroconnect.product.search;
+
+import com.agroconnect.product.cache.ProductCache;
+import com.agroconnect.product.cache.ProductInvalidation;
+import com.agroconnect.product.cache.ProductInvalidationBus;
+import com.agroconnect.product.event.ProductChangedEvent;
+import com.agroconnect.product.model.Product;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Bitmap index for faceted product filtering.
+ *
+ * Every product gets a dense document number, and every attribute value keeps a
+ * Roaring bitmap of the documents that have it. A filter is a handful of bitmap
+ * unions (values within an attribute) and intersections (across attributes), and
+ * facet counts are intersection cardinalities, so no product is visited except
+ * those on the returned page. Kept current from local ProductChangedEvents and, for
+ * writes on other instances, from the ProductInvalidationBus.
+ */
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    public enum Facet {
+        CATEGORY("category"),
+        ORIGIN("origin"),
+        QUALITY_GRADE("qualityGrade"),
+        SUPPLIER("supplier"),
+        ORGANIC("organic"),
+        AVAILABLE("available"),
+        PRICE_BAND("priceBand");
+
+        private final String label;
+
+        Facet(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    // Lower bounds of the price bands; the last band is open-ended
+    private static final BigDecimal[] PRICE_BAND_FLOORS = {
+            BigDecimal.ZERO, BigDecimal.valueOf(10), BigDecimal.valueOf(50),
+            BigDecimal.valueOf(100), BigDecimal.valueOf(500)
+    };
+    private static final String[] PRICE_BAND_LABELS = {"0-10", "10-50", "50-100", "100-500", "500+"};
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProductInvalidationBus invalidationBus;
+
+    @Autowired
+    private ProductCache productCache;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> docByProductId = new HashMap<>();
+    private final List<Product> products = new ArrayList<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+    // facet -> case-folded value -> documents
+    private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+    // facet -> case-folded value -> spelling first seen, used in facet counts
+    private final Map<Facet, Map<String, String>> displayValues = new EnumMap<>(Facet.class);
+
+    public ProductFacetIndex() {
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+            displayValues.put(facet, new HashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Product> loaded = new ArrayList<>();
+        try (Stream<Product> stream = mongoTemplate.stream(new Query(), Product.class)) {
+            stream.forEach(loaded::add);
+        } catch (Exception e) {
+            logger.error("Failed to build product facet index: {}", e.getMessage(), e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            docByProductId.clear();
+            products.clear();
+            live.clear();
+            bitmaps.values().forEach(Map::clear);
+            displayValues.values().forEach(Map::clear);
+            loaded.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product facet index built with {} products", loaded.size());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    // Writes made on other instances only arrive as invalidations; reload the product from the database
+    private void onInvalidation(ProductInvalidation invalidation) {
+        if (productCache.isLocal(invalidation)) {
+            return;
+        }
+        if (invalidation.getProductId() == null) {
+            rebuild();
+            return;
+        }
+        Product product = mongoTemplate.findById(invalidation.getProductId(), Product.class);
+        if (product != null) {
+            index(product);
+        } else {
+            remove(invalidation.getProductId());
+        }
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply the filter and count every facet value in the same pass.
+     *
+     * Counts are multi-select style: the counts for a facet ignore that facet's own
+     * selection, so the UI can show how many products each alternative would add.
+     */
+    public FilterResult filter(Map<Facet, Set<String>> selection, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Facet, RoaringBitmap> selected = new EnumMap<>(Facet.class);
+            for (Map.Entry<Facet, Set<String>> entry : selection.entrySet()) {
+                if (entry.getValue() != null && !entry.getValue().isEmpty()) {
+                    selected.put(entry.getKey(), union(entry.getKey(), entry.getValue()));
+                }
+            }
+
+            RoaringBitmap matches = live.clone();
+            selected.values().forEach(matches::and);
+
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (Facet facet : Facet.values()) {
+                RoaringBitmap base = selected.containsKey(facet) ? allExcept(selected, facet) : matches;
+                Map<String, String> display = displayValues.get(facet);
+                Map<String, Long> counts = new LinkedHashMap<>();
+                bitmaps.get(facet).entrySet().stream()
+                        .map(entry -> Map.entry(display.getOrDefault(entry.getKey(), entry.getKey()),
+                                (long) RoaringBitmap.andCardinality(base, entry.getValue())))
+                        .filter(entry -> entry.getValue() > 0)
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry::getKey))
+                        .forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+                facets.put(facet.getLabel(), counts);
+            }
+
+            List<Product> page = new ArrayList<>(Math.max(Math.min(limit, matches.getCardinality() - offset), 0));
+            IntIterator documents = matches.getIntIterator();
+            int position = 0;
+            while (documents.hasNext() && page.size() < limit) {
+                int doc = documents.next();
+                if (position++ >= offset) {
+                    page.add(products.get(doc));
+                }
+            }
+
+            return new FilterResult(matches.getLongCardinality(), page, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String priceBand(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        for (int i = PRICE_BAND_FLOORS.length - 1; i >= 0; i--) {
+            if (price.compareTo(PRICE_BAND_FLOORS[i]) >= 0) {
+                return PRICE_BAND_LABELS[i];
+            }
+        }
+        return PRICE_BAND_LABELS[0];
+    }
+
+    private void add(Product product) {
+        int doc = products.size();
+        products.add(product);
+        docByProductId.put(product.getId(), doc);
+        live.add(doc);
+        for (Facet facet : Facet.values()) {
+            String value = valueOf(product, facet);
+            if (value != null) {
+                String key = fold(value);
+                bitmaps.get(facet).computeIfAbsent(key, k -> new RoaringBitmap()).add(doc);
+                displayValues.get(facet).putIfAbsent(key, value);
+            }
+        }
+    }
+
+    private void removeUnlocked(String productId) {
+        Integer doc = docByProductId.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        Product product = products.set(doc, null);
+        live.remove(doc);
+        for (Facet facet : Facet.values()) {
+            String value = valueOf(product, facet);
+            if (value == null) {
+                continue;
+            }
+            String key = fold(value);
+            RoaringBitmap bitmap = bitmaps.get(facet).get(key);
+            if (bitmap != null) {
+                bitmap.remove(doc);
+                if (bitmap.isEmpty()) {
+                    bitmaps.get(facet).remove(key);
+                    displayValues.get(facet).remove(key);
+                }
+            }
+        }
+        // Document numbers are not reused; compact once most of the space is dead
+        if (products.size() > 1024 && live.getCardinality() < products.size() / 2) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        List<Product> remaining = new ArrayList<>(live.getCardinality());
+        live.forEach((int doc) -> remaining.add(products.get(doc)));
+        docByProductId.clear();
+        products.clear();
+        live.clear();
+        bitmaps.values().forEach(Map::clear);
+        displayValues.values().forEach(Map::clear);
+        remaining.forEach(this::add);
+    }
+
+    private RoaringBitmap union(Facet facet, Set<String> values) {
+        RoaringBitmap result = new RoaringBitmap();
+        Map<String, RoaringBitmap> byValue = bitmaps.get(facet);
+        for (String value : values) {
+            RoaringBitmap bitmap = value != null ? byValue.get(fold(value)) : null;
+            if (bitmap != null) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private RoaringBitmap allExcept(Map<Facet, RoaringBitmap> selected, Facet excluded) {
+        RoaringBitmap result = live.clone();
+        selected.forEach((facet, bitmap) -> {
+            if (facet != excluded) {
+                result.and(bitmap);
+            }
+        });
+        return result;
+    }
+
+    private static String fold(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String valueOf(Product product, Facet facet) {
+        switch (facet) {
+            case CATEGORY:
+                return blankToNull(product.getCategory());
+            case ORIGIN:
+                return blankToNull(product.getOrigin());
+            case QUALITY_GRADE:
+                return blankToNull(product.getQualityGrade());
+            case SUPPLIER:
+                return blankToNull(product.getSupplier());
+            case ORGANIC:
+                return String.valueOf(Boolean.TRUE.equals(product.getIsOrganic()));
+            case AVAILABLE:
+                return String.valueOf(Boolean.TRUE.equals(product.getIsAvailable()));
+            case PRICE_BAND:
+                return priceBand(product.getPrice());
+            default:
+                return null;
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    public static class FilterResult {
+        private final long total;
+        private final List<Product> products;
+        private final Map<String, Map<String, Long>> facets;
+
+        public FilterResult(long total, List<Product> products, Map<String, Map<String, Long>> facets) {
+            this.total = total;
+            this.products = products;
+            this.facets = facets;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<Product> getProducts() {
+            return products;
+        }
+
+        public Map<String, Map<String, Long>> getFacets() {
+            return facets;
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.agroconnect.product.search;
+
+import com.agroconnect.product.cache.ProductCache;
+import com.agroconnect.product.cache.ProductInvalidation;
+import com.agroconnect.product.cache.ProductInvalidationBus;
+import com.agroconnect.product.event.ProductChangedEvent;
+import com.agroconnect.product.model.Product;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the product catalog with BM25 ranking,
+ * prefix matching for type-ahead and tag/origin/supplier facets.
+ *
+ * Built from Mongo on startup, then kept current from local ProductChangedEvents and,
+ * for writes on other instances, from the ProductInvalidationBus. Stored products are
+ * served directly, so a search never touches the database. A rebuild fills a new
+ * generation off to the side and publishes it in one step; searches read whichever
+ * generation was current when they started.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field weights applied to term frequencies
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float TAG_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float TEXT_WEIGHT = 1.0f;
+
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 128;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_FACET_VALUES = 20;
+
+    public static final String FACET_TAGS = "tags";
+    public static final String FACET_ORIGIN = "origin";
+    public static final String FACET_SUPPLIER = "supplier";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProductInvalidationBus invalidationBus;
+
+    @Autowired
+    private ProductCache productCache;
+
+    // Replaced as a whole when a rebuild completes, so readers always see one consistent generation
+    private volatile Postings current = new Postings();
+
+    // The generation a running rebuild is filling; changes made meanwhile are applied to it as
+    // well and win over the copies read from the database, which may be older
+    private Postings building;
+    private Set<String> changedWhileBuilding;
+
+    private final Object rebuildLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            Postings next = new Postings();
+            synchronized (this) {
+                building = next;
+                changedWhileBuilding = new HashSet<>();
+            }
+            int indexed = 0;
+            try (Stream<Product> products = mongoTemplate.stream(new Query(), Product.class)) {
+                for (Product product : (Iterable<Product>) products::iterator) {
+                    synchronized (this) {
+                        if (!changedWhileBuilding.contains(product.getId())) {
+                            add(next, product);
+                        }
+                    }
+                    indexed++;
+                }
+                synchronized (this) {
+                    current = next;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to build product search index: {}", e.getMessage(), e);
+                return;
+            } finally {
+                synchronized (this) {
+                    building = null;
+                    changedWhileBuilding = null;
+                }
+            }
+            logger.info("Product search index built with {} products in {} ms", indexed, System.currentTimeMillis() - start);
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    // Writes made on other instances only arrive as invalidations; reload the product from the database
+    private void onInvalidation(ProductInvalidation invalidation) {
+        if (productCache.isLocal(invalidation)) {
+            return;
+        }
+        if (invalidation.getProductId() == null) {
+            rebuild();
+            return;
+        }
+        Product product = mongoTemplate.findById(invalidation.getProductId(), Product.class);
+        if (product != null) {
+            index(product);
+        } else {
+            remove(invalidation.getProductId());
+        }
+    }
+
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        add(current, product);
+        if (building != null) {
+            add(building, product);
+            changedWhileBuilding.add(product.getId());
+        }
+    }
+
+    public synchronized void remove(String productId) {
+        remove(current, productId);
+        if (building != null) {
+            remove(building, productId);
+            changedWhileBuilding.add(productId);
+        }
+    }
+
+    public synchronized void clear() {
+        current = new Postings();
+    }
+
+    public int size() {
+        return current.documents.size();
+    }
+
+    private static void add(Postings target, Product product) {
+        remove(target, product.getId());
+
+        Map<String, Float> terms = new HashMap<>();
+        int length = 0;
+        length += addTerms(terms, product.getName(), NAME_WEIGHT);
+        length += addTerms(terms, product.getDescription(), TEXT_WEIGHT);
+        length += addTerms(terms, product.getCategory(), CATEGORY_WEIGHT);
+        length += addTerms(terms, product.getOrigin(), TEXT_WEIGHT);
+        length += addTerms(terms, product.getSupplier(), TEXT_WEIGHT);
+        if (product.getTags() != null) {
+            for (String tag : product.getTags()) {
+                length += addTerms(terms, tag, TAG_WEIGHT);
+            }
+        }
+
+        terms.forEach((term, frequency) ->
+                target.postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(product.getId(), frequency));
+        target.documents.put(product.getId(), new IndexedProduct(product, terms.keySet(), length));
+        target.totalLength += length;
+    }
+
+    private static void remove(Postings target, String productId) {
+        IndexedProduct existing = target.documents.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms) {
+            target.postings.computeIfPresent(term, (t, ids) -> {
+                ids.remove(productId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        target.totalLength -= existing.length;
+    }
+
+    /**
+     * Ranked search; every query term must match exactly or as a prefix. With a blank
+     * query, all products passing the filters are returned in name order.
+     */
+    public SearchResult search(String query, SearchFilter filter, int offset, int limit) {
+        SearchFilter effectiveFilter = filter != null ? filter : SearchFilter.NONE;
+        List<String> queryTerms = tokenize(query).stream().distinct().limit(MAX_QUERY_TERMS).toList();
+
+        Postings snapshot = current;
+        Map<String, IndexedProduct> documents = snapshot.documents;
+        Map<String, Double> scores;
+        if (queryTerms.isEmpty()) {
+            scores = new HashMap<>();
+            for (Map.Entry<String, IndexedProduct> entry : documents.entrySet()) {
+                if (effectiveFilter.matches(entry.getValue())) {
+                    scores.put(entry.getKey(), 0.0);
+                }
+            }
+        } else {
+            scores = null;
+            for (String term : queryTerms) {
+                Map<String, Double> termScores = scoreTerm(snapshot, term);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            scores.keySet().removeIf(id -> {
+                IndexedProduct document = documents.get(id);
+                return document == null || !effectiveFilter.matches(document);
+            });
+        }
+
+        Map<String, Map<String, Long>> facets = facetCounts(documents, scores.keySet());
+
+        Comparator<Map.Entry<String, Double>> ranking = Map.Entry.<String, Double>comparingByValue().reversed()
+                .thenComparing(entry -> sortName(documents, entry.getKey()))
+                .thenComparing(Map.Entry::getKey);
+
+        List<Product> page = scores.entrySet().stream()
+                .sorted(ranking)
+                .skip(Math.max(offset, 0))
+                .limit(Math.max(limit, 0))
+                .map(entry -> documents.get(entry.getKey()))
+                .filter(document -> document != null)
+                .map(document -> document.product)
+                .toList();
+
+        return new SearchResult(scores.size(), page, facets);
+    }
+
+    /**
+     * Type-ahead: best matching products for a partially typed query
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return search(prefix, SearchFilter.NONE, 0, limit).getProducts().stream()
+                .map(product -> new Suggestion(product.getId(), product.getName(), product.getCategory()))
+                .toList();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static String fold(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, Double> scoreTerm(Postings snapshot, String term) {
+        Map<String, Double> scores = new HashMap<>();
+        int documentCount = Math.max(snapshot.documents.size(), 1);
+        double averageLength = Math.max((double) snapshot.totalLength / documentCount, 1.0);
+
+        Map<String, Float> exact = snapshot.postings.get(term);
+        if (exact != null) {
+            accumulate(snapshot, scores, exact, documentCount, averageLength, 1.0);
+        }
+
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (Map.Entry<String, Map<String, Float>> entry : snapshot.prefixRange(term).entrySet()) {
+                if (entry.getKey().equals(term)) {
+                    continue;
+                }
+                accumulate(snapshot, scores, entry.getValue(), documentCount, averageLength, PREFIX_FACTOR);
+                if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void accumulate(Postings snapshot, Map<String, Double> scores, Map<String, Float> matches,
+                                   int documentCount, double averageLength, double factor) {
+        int documentFrequency = matches.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        matches.forEach((id, frequency) -> {
+            IndexedProduct document = snapshot.documents.get(id);
+            int length = document != null ? document.length : 0;
+            double norm = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+            scores.merge(id, idf * norm * factor, Math::max);
+        });
+    }
+
+    private static Map<String, Double> intersect(Map<String, Double> left, Map<String, Double> right) {
+        Map<String, Double> smaller = left.size() <= right.size() ? left : right;
+        Map<String, Double> larger = smaller == left ? right : left;
+        Map<String, Double> merged = new HashMap<>();
+        smaller.forEach((id, score) -> {
+            Double other = larger.get(id);
+            if (other != null) {
+                merged.put(id, score + other);
+            }
+        });
+        return merged;
+    }
+
+    private static Map<String, Map<String, Long>> facetCounts(Map<String, IndexedProduct> documents, Set<String> ids) {
+        Map<String, Long> tags = new HashMap<>();
+        Map<String, Long> origins = new HashMap<>();
+        Map<String, Long> suppliers = new HashMap<>();
+        for (String id : ids) {
+            IndexedProduct document = documents.get(id);
+            if (document == null) {
+                continue;
+            }
+            Product product = document.product;
+            if (product.getTags() != null) {
+                product.getTags().stream().filter(tag -> tag != null && !tag.isBlank()).distinct()
+                        .forEach(tag -> tags.merge(tag, 1L, Long::sum));
+            }
+            if (product.getOrigin() != null) {
+                origins.merge(product.getOrigin(), 1L, Long::sum);
+            }
+            if (product.getSupplier() != null) {
+                suppliers.merge(product.getSupplier(), 1L, Long::sum);
+            }
+        }
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put(FACET_TAGS, topValues(tags));
+        facets.put(FACET_ORIGIN, topValues(origins));
+        facets.put(FACET_SUPPLIER, topValues(suppliers));
+        return facets;
+    }
+
+    private static Map<String, Long> topValues(Map<String, Long> counts) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry::getKey))
+                .limit(MAX_FACET_VALUES)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private static String sortName(Map<String, IndexedProduct> documents, String id) {
+        IndexedProduct document = documents.get(id);
+        return document != null ? document.sortName : "";
+    }
+
+    private static int addTerms(Map<String, Float> terms, String value, float weight) {
+        List<String> tokens = tokenize(value);
+        for (String token : tokens) {
+            terms.merge(token, weight, Float::sum);
+        }
+        return tokens.size();
+    }
+
+    /**
+     * One generation of the index
+     */
+    private static class Postings {
+        // term -> (product ID -> weighted term frequency)
+        private final ConcurrentSkipListMap<String, Map<String, Float>> postings = new ConcurrentSkipListMap<>();
+
+        private final ConcurrentHashMap<String, IndexedProduct> documents = new ConcurrentHashMap<>();
+
+        private volatile long totalLength;
+
+        private NavigableMap<String, Map<String, Float>> prefixRange(String prefix) {
+            return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+    }
+
+    static class IndexedProduct {
+        final Product product;
+        final Set<String> terms;
+        final int length;
+        final String sortName;
+        final Set<String> tagKeys = new HashSet<>();
+        final String originKey;
+        final String supplierKey;
+
+        IndexedProduct(Product product, Set<String> terms, int length) {
+            this.product = product;
+            this.terms = new HashSet<>(terms);
+            this.length = length;
+            this.sortName = product.getName() != null ? product.getName().toLowerCase(Locale.ROOT) : "";
+            if (product.getTags() != null) {
+                product.getTags().stream().filter(tag -> tag != null).map(ProductSearchIndex::fold).forEach(tagKeys::add);
+            }
+            this.originKey = fold(product.getOrigin());
+            this.supplierKey = fold(product.getSupplier());
+        }
+    }
+
+    /**
+     * Exact, case-insensitive attribute filters; all set values must match
+     */
+    public static class SearchFilter {
+        static final SearchFilter NONE = new SearchFilter(null, null, null);
+
+        private final Set<String> tags;
+        private final String origin;
+        private final String supplier;
+
+        public SearchFilter(List<String> tags, String origin, String supplier) {
+            this.tags = new HashSet<>();
+            if (tags != null) {
+                tags.stream().filter(tag -> tag != null && !tag.isBlank()).map(ProductSearchIndex::fold).forEach(this.tags::add);
+            }
+            this.origin = origin == null || origin.isBlank() ? null : fold(origin);
+            this.supplier = supplier == null || supplier.isBlank() ? null : fold(supplier);
+        }
+
+        boolean matches(IndexedProduct document) {
+            return (origin == null || origin.equals(document.originKey))
+                    && (supplier == null || supplier.equals(document.supplierKey))
+                    && document.tagKeys.containsAll(tags);
+        }
+    }
+
+    public static class SearchResult {
+        private final long total;
+        private final List<Product> products;
+        private final Map<String, Map<String, Long>> facets;
+
+        public SearchResult(long total, List<Product> products, Map<String, Map<String, Long>> facets) {
+            this.total = total;
+            this.products = products;
+            this.facets = facets;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<Product> getProducts() {
+            return products;
+        }
+
+        public Map<String, Map<String, Long>> getFacets() {
+            return facets;
+        }
+    }
+
+    public static class Suggestion {
+        private final String id;
+        private final String name;
+        private final String category;
+
+        public Suggestion(String id, String name, String category) {
+            this.id = id;
+            this.name = name;
+            this.category = category;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.agroconnect.product.service;
+
+import com.agroconnect.product.event.ProductChangedEvent;
+import com.agroconnect.product.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps Product.isAvailable in line with harvest and expiry dates.
+ *
+ * Upcoming transitions within the look-ahead horizon sit in a DelayQueue, loaded from
+ * the harvestDate/expiryDate indexes and from product change events. A single thread
+ * sleeps until the earliest one is due, then applies everything due at that moment as
+ * one guarded updateMulti per direction, so the collection is never scanned. The guard
+ * re-checks the stored dates, so entries made stale by later edits do nothing.
+ *
+ * A product becomes unavailable when it expires, and available when its harvest date
+ * arrives (unless it has already expired). Expired products are never left available;
+ * an earlier manual "unavailable" is only overridden by a harvest date reached while
+ * the scheduler is watching.
+ */
+@Component
+public class AvailabilityScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityScheduler.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Must be longer than the refresh interval so no transition falls between two loads
+    @Value("${products.availability.horizon:2h}")
+    private Duration horizon;
+
+    private final DelayQueue<Transition> queue = new DelayQueue<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        catchUp();
+        loadUpcoming();
+        worker = new Thread(this::run, "availability-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Queue the transitions that fall in the next horizon
+     */
+    @Scheduled(fixedDelayString = "${products.availability.refresh-interval:3600000}",
+               initialDelayString = "${products.availability.refresh-interval:3600000}")
+    public void loadUpcoming() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime until = now.plus(horizon);
+            Query expiring = new Query(Criteria.where("expiryDate").gt(now).lte(until));
+            expiring.fields().include("expiryDate");
+            mongoTemplate.find(expiring, Product.class)
+                    .forEach(product -> enqueue(product.getId(), product.getExpiryDate(), false));
+
+            Query harvesting = new Query(Criteria.where("harvestDate").gt(now).lte(until));
+            harvesting.fields().include("harvestDate");
+            mongoTemplate.find(harvesting, Product.class)
+                    .forEach(product -> enqueue(product.getId(), product.getHarvestDate(), true));
+            logger.debug("{} availability transitions queued", queue.size());
+        } catch (Exception e) {
+            logger.error("Failed to load availability transitions: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (product == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(horizon);
+        // A product saved as available after its expiry is corrected right away
+        if (product.getExpiryDate() != null && !product.getExpiryDate().isAfter(until)
+                && !Boolean.FALSE.equals(product.getIsAvailable())) {
+            enqueue(product.getId(), product.getExpiryDate(), false);
+        }
+        if (product.getHarvestDate() != null && product.getHarvestDate().isAfter(now)
+                && !product.getHarvestDate().isAfter(until)) {
+            enqueue(product.getId(), product.getHarvestDate(), true);
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Transition> due = new ArrayList<>();
+                due.add(queue.take());
+                queue.drainTo(due);
+                due.forEach(transition -> queued.remove(transition.key()));
+                apply(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Failed to apply availability transitions: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void apply(List<Transition> due) {
+        List<String> expiring = new ArrayList<>();
+        List<String> harvested = new ArrayList<>();
+        for (Transition transition : due) {
+            (transition.available ? harvested : expiring).add(transition.productId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int changed = 0;
+        for (int from = 0; from < expiring.size(); from += BATCH_SIZE) {
+            changed += flip(Criteria.where("id").in(expiring.subList(from, Math.min(from + BATCH_SIZE, expiring.size()))),
+                    expired(now), false, now);
+        }
+        for (int from = 0; from < harvested.size(); from += BATCH_SIZE) {
+            changed += flip(Criteria.where("id").in(harvested.subList(from, Math.min(from + BATCH_SIZE, harvested.size()))),
+                    harvestedAndFresh(now), true, now);
+        }
+        if (changed > 0) {
+            logger.info("Availability updated for {} products", changed);
+        }
+    }
+
+    // Transitions missed while no instance was running
+    private void catchUp() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int changed = 0;
+            int batch;
+            do {
+                batch = flip(new Criteria(), expired(now), false, now);
+                changed += batch;
+            } while (batch == BATCH_SIZE);
+            do {
+                batch = flip(Criteria.where("harvestDate").gt(now.minus(horizon)), harvestedAndFresh(now), true, now);
+                changed += batch;
+            } while (batch == BATCH_SIZE);
+            if (changed > 0) {
+                logger.info("Availability caught up for {} products", changed);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to catch up product availability: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Set isAvailable on up to BATCH_SIZE products matching the selector and the date guard
+     * and tell the caches; returns how many changed
+     */
+    private int flip(Criteria selector, Criteria guard, boolean available, LocalDateTime now) {
+        Query candidates = new Query(new Criteria().andOperator(selector, guard,
+                Criteria.where("isAvailable").ne(available))).limit(BATCH_SIZE);
+        List<Product> products = mongoTemplate.find(candidates, Product.class);
+        if (products.isEmpty()) {
+            return 0;
+        }
+        List<String> ids = products.stream().map(Product::getId).toList();
+        mongoTemplate.updateMulti(new Query(new Criteria().andOperator(Criteria.where("id").in(ids), guard)),
+                new Update().set("isAvailable", available).set("updatedAt", now), Product.class);
+        for (Product product : products) {
+            product.setIsAvailable(available);
+            product.setUpdatedAt(now);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(product));
+        }
+        return products.size();
+    }
+
+    private static Criteria expired(LocalDateTime now) {
+        return Criteria.where("expiryDate").lte(now);
+    }
+
+    private static Criteria harvestedAndFresh(LocalDateTime now) {
+        return new Criteria().andOperator(
+                Criteria.where("harvestDate").lte(now),
+                new Criteria().orOperator(Criteria.where("expiryDate").is(null), Criteria.where("expiryDate").gt(now)));
+    }
+
+    private void enqueue(String productId, LocalDateTime at, boolean available) {
+        Transition transition = new Transition(productId, at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                available);
+        if (queued.add(transition.key())) {
+            queue.put(transition);
+        }
+    }
+
+    private static final class Transition implements Delayed {
+        private final String productId;
+        private final long dueAt;
+        private final boolean available;
+
+        private Transition(String productId, long dueAt, boolean available) {
+            this.productId = productId;
+            this.dueAt = dueAt;
+            this.available = available;
+        }
+
+        private String key() {
+            return productId + '|' + dueAt + '|' + available;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((Transition) other).dueAt);
+        }
+    }
+}
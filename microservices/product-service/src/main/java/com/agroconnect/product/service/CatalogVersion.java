@@ -0,0 +1,114 @@
+package com.agroconnect.product.service;
+
+import com.agroconnect.product.event.ProductChangedEvent;
+import com.agroconnect.product.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Version of the product catalog, served as the ETag of catalog responses.
+ *
+ * Derived from the product count and the latest updatedAt, so every instance computes the
+ * same tag for the same data. Changes made here move it at once through ProductChangedEvents;
+ * changes made by other instances are picked up by re-reading it from the database at most
+ * once per refresh interval, so conditional requests in between touch no database at all.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersion.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${products.etag.refresh-interval:5000}")
+    private long refreshInterval;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Version current = new Version(0, 0, 0);
+
+    public String getETag() {
+        Version version = current;
+        if (System.currentTimeMillis() - version.syncedAt >= refreshInterval && refreshing.compareAndSet(false, true)) {
+            // One request re-reads the version; concurrent ones keep using the current tag
+            try {
+                version = load();
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return version.etag;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        load();
+    }
+
+    @EventListener
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        Version version = current;
+        long count = version.count;
+        if (event.getType() == ProductChangedEvent.Type.CREATED) {
+            count++;
+        } else if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            count = Math.max(count - 1, 0);
+        }
+        long lastUpdate = version.lastUpdate;
+        if (event.getProduct() != null && event.getProduct().getUpdatedAt() != null) {
+            lastUpdate = Math.max(lastUpdate, toMillis(event.getProduct().getUpdatedAt()));
+        }
+        current = new Version(count, lastUpdate, version.syncedAt);
+    }
+
+    private Version load() {
+        try {
+            long count = mongoTemplate.estimatedCount(Product.class);
+            Query latest = new Query().with(Sort.by(Sort.Direction.DESC, "updatedAt")).limit(1);
+            latest.fields().include("updatedAt");
+            Product product = mongoTemplate.findOne(latest, Product.class);
+            long lastUpdate = product != null && product.getUpdatedAt() != null ? toMillis(product.getUpdatedAt()) : 0;
+            synchronized (this) {
+                current = new Version(count, lastUpdate, System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            // Keep serving the last known tag; the next request past the interval retries
+            logger.warn("Failed to read catalog version: {}", e.getMessage());
+            synchronized (this) {
+                Version version = current;
+                current = new Version(version.count, version.lastUpdate, System.currentTimeMillis());
+            }
+        }
+        return current;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static final class Version {
+        private final long count;
+        private final long lastUpdate;
+        private final long syncedAt;
+        private final String etag;
+
+        private Version(long count, long lastUpdate, long syncedAt) {
+            this.count = count;
+            this.lastUpdate = lastUpdate;
+            this.syncedAt = syncedAt;
+            this.etag = "\"products-" + Long.toString(count, 36) + "-" + Long.toString(lastUpdate, 36) + "\"";
+        }
+    }
+}
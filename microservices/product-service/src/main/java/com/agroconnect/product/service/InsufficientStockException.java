@@ -0,0 +1,18 @@
+package com.agroconnect.product.service;
+
+/**
+ * Thrown when a reservation or stock adjustment would take a product below zero.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private final String productId;
+
+    public InsufficientStockException(String productId) {
+        super("Insufficient stock for product with id: " + productId);
+        this.productId = productId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+}
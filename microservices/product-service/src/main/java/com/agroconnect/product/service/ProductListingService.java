@@ -0,0 +1,179 @@
+package com.agroconnect.product.service;
+
+import com.agroconnect.product.dto.ProductCard;
+import com.agroconnect.product.dto.ProductPage;
+import com.agroconnect.product.dto.ProductSort;
+import com.agroconnect.product.dto.ProductView;
+import com.agroconnect.product.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Paged, keyset-paged and streamed product listings.
+ *
+ * Every listing is ordered by the sort field and then _id, so positions are stable and
+ * a keyset cursor (the last item's sort value and id) resumes exactly where the previous
+ * page ended, at the same cost for page 1 and page 10,000. Card views read only the
+ * fields they return.
+ */
+@Service
+public class ProductListingService {
+
+    // Deeper offset pages scan every skipped document; callers should scroll instead
+    private static final long MAX_OFFSET = 10_000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ProductPage<?> getPage(int page, int size, ProductSort sort, Sort.Direction direction, ProductView view) {
+        if ((long) page * size > MAX_OFFSET) {
+            throw new IllegalArgumentException("Offset paging is limited to " + MAX_OFFSET + " products, use the cursor listing");
+        }
+        Query query = new Query().with(order(sort, direction)).skip((long) page * size).limit(size);
+        project(query, sort, view);
+        List<Product> products = mongoTemplate.find(query, Product.class);
+        return ProductPage.offset(shape(products, view), page, size, mongoTemplate.estimatedCount(Product.class));
+    }
+
+    public ProductPage<?> scroll(String cursor, int size, ProductSort sort, Sort.Direction direction, ProductView view) {
+        Query query = new Query().with(order(sort, direction)).limit(size + 1);
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(after(decode(cursor, sort, direction), sort, direction));
+        }
+        project(query, sort, view);
+        List<Product> products = mongoTemplate.find(query, Product.class);
+
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            nextCursor = encode(products.get(size - 1), sort, direction);
+        }
+        return ProductPage.keyset(shape(products, view), size, nextCursor);
+    }
+
+    // The caller must close the stream, which holds a database cursor
+    public Stream<Product> streamAll() {
+        return mongoTemplate.stream(new Query().with(Sort.by("id")), Product.class);
+    }
+
+    private static Sort order(ProductSort sort, Sort.Direction direction) {
+        return Sort.by(direction, sort.getField()).and(Sort.by(direction, "id"));
+    }
+
+    private static void project(Query query, ProductSort sort, ProductView view) {
+        if (view == ProductView.CARD) {
+            // the sort field is needed for the next cursor
+            query.fields().include("name", "price", "imageUrl", sort.getField());
+        }
+    }
+
+    private static List<?> shape(List<Product> products, ProductView view) {
+        if (view == ProductView.CARD) {
+            return products.stream().map(ProductCard::of).toList();
+        }
+        return products;
+    }
+
+    // Products strictly after the cursor in {field, _id} order; nulls sort first ascending and last descending
+    private static Criteria after(Map<String, Object> position, ProductSort sort, Sort.Direction direction) {
+        String field = sort.getField();
+        Object value = position.get("value");
+        String id = (String) position.get("id");
+        boolean ascending = direction.isAscending();
+        Criteria sameValueLaterId = new Criteria().andOperator(
+                value == null ? Criteria.where(field).is(null) : Criteria.where(field).is(value),
+                ascending ? Criteria.where("id").gt(id) : Criteria.where("id").lt(id));
+
+        if (value == null) {
+            return ascending ? new Criteria().orOperator(sameValueLaterId, Criteria.where(field).ne(null)) : sameValueLaterId;
+        }
+        if (ascending) {
+            return new Criteria().orOperator(Criteria.where(field).gt(value), sameValueLaterId);
+        }
+        return new Criteria().orOperator(Criteria.where(field).lt(value), sameValueLaterId, Criteria.where(field).is(null));
+    }
+
+    private String encode(Product last, ProductSort sort, Sort.Direction direction) {
+        Object value = sortValue(last, sort);
+        Map<String, Object> cursor = new LinkedHashMap<>();
+        cursor.put("sort", sort.name());
+        cursor.put("direction", direction.name());
+        cursor.put("value", value instanceof BigDecimal ? ((BigDecimal) value).toPlainString()
+                : value != null ? value.toString() : null);
+        cursor.put("id", last.getId());
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encode product cursor", e);
+        }
+    }
+
+    private Map<String, Object> decode(String cursor, ProductSort sort, Sort.Direction direction) {
+        Map<?, ?> raw;
+        try {
+            raw = objectMapper.readValue(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), Map.class);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!sort.name().equals(raw.get("sort")) || !direction.name().equals(raw.get("direction"))
+                || !(raw.get("id") instanceof String)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        Map<String, Object> position = new LinkedHashMap<>();
+        position.put("id", raw.get("id"));
+        Object value = raw.get("value");
+        try {
+            position.put("value", value == null ? null : parseValue(value.toString(), sort));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return position;
+    }
+
+    private static Object sortValue(Product product, ProductSort sort) {
+        switch (sort) {
+            case NAME:
+                return product.getName();
+            case PRICE:
+                return product.getPrice();
+            case CREATED_AT:
+                return product.getCreatedAt();
+            case UPDATED_AT:
+                return product.getUpdatedAt();
+            default:
+                throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+    }
+
+    private static Object parseValue(String value, ProductSort sort) {
+        switch (sort) {
+            case NAME:
+                return value;
+            case PRICE:
+                return new BigDecimal(value);
+            case CREATED_AT:
+            case UPDATED_AT:
+                return LocalDateTime.parse(value);
+            default:
+                throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+    }
+}
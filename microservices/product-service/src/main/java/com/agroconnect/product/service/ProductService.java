@@ -1,51 +1,116 @@
 package com.agroconnect.product.service;
 
+import com.agroconnect.product.cache.ProductCache;
+import com.agroconnect.product.event.ProductChangedEvent;
 import com.agroconnect.product.model.Product;
 import com.agroconnect.product.repository.ProductRepository;
+import com.agroconnect.product.search.ProductFacetIndex;
+import com.agroconnect.product.search.ProductSearchIndex;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class ProductService {
     
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
     @Autowired
     private ProductRepository productRepository;
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
-    }
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductFacetIndex facetIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public Product getProductById(String id) {
-        Optional<Product> product = productRepository.findById(id);
-        if (product.isPresent()) {
-            return product.get();
+        Product product = productCache.get(id, key -> productRepository.findById(key).orElse(null));
+        if (product != null) {
+            return product;
         }
         throw new RuntimeException("Product not found with id: " + id);
     }
 
+    // One database round trip for every id not already cached; unknown ids are skipped
+    public List<Product> getProductsByIds(List<String> ids) {
+        Map<String, Product> found = productCache.getAll(ids, missing -> {
+            Map<String, Product> loaded = new HashMap<>();
+            productRepository.findAllById(missing).forEach(product -> loaded.put(product.getId(), product));
+            return loaded;
+        });
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).toList();
+    }
+
     public Product saveProduct(Product product) {
         product.setCreatedAt(LocalDateTime.now());
         product.setUpdatedAt(LocalDateTime.now());
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct));
+        return savedProduct;
     }
 
+    // Replaces every field except createdAt and stockQuantity in one round trip; fields missing from the
+    // request are cleared. Stock only changes through StockReservationService.
     public Product updateProduct(Product product) {
-        Optional<Product> existingProduct = productRepository.findById(product.getId());
-        if (existingProduct.isPresent()) {
-            product.setCreatedAt(existingProduct.get().getCreatedAt());
-            product.setUpdatedAt(LocalDateTime.now());
-            return productRepository.save(product);
+        product.setUpdatedAt(LocalDateTime.now());
+        Update update = new Update();
+        Document fields = new Document();
+        mongoTemplate.getConverter().write(product, fields);
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Product.class);
+        entity.doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+            String field = property.getFieldName();
+            if (property.isIdProperty() || "createdAt".equals(property.getName())
+                    || "stockQuantity".equals(property.getName())) {
+                return;
+            }
+            if (fields.containsKey(field)) {
+                update.set(field, fields.get(field));
+            } else {
+                update.unset(field);
+            }
+        });
+
+        Product updatedProduct = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(product.getId())), update,
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        if (updatedProduct == null) {
+            throw new RuntimeException("Product not found with id: " + product.getId());
         }
-        throw new RuntimeException("Product not found with id: " + product.getId());
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updatedProduct));
+        return updatedProduct;
     }
 
     public void deleteProduct(String id) {
         if (productRepository.existsById(id)) {
             productRepository.deleteById(id);
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
         } else {
             throw new RuntimeException("Product not found with id: " + id);
         }
@@ -56,11 +121,28 @@ public class ProductService {
     }
 
     public List<Product> searchProducts(String query) {
-        return productRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query);
+        return searchIndex.search(query, null, 0, MAX_SEARCH_RESULTS).getProducts();
+    }
+
+    public ProductSearchIndex.SearchResult searchProducts(String query, ProductSearchIndex.SearchFilter filter,
+                                                          int page, int size) {
+        return searchIndex.search(query, filter, page * size, size);
+    }
+
+    public List<ProductSearchIndex.Suggestion> suggestProducts(String prefix, int limit) {
+        return searchIndex.suggest(prefix, limit);
+    }
+
+    public ProductFacetIndex.FilterResult filterProducts(Map<ProductFacetIndex.Facet, Set<String>> selection,
+                                                         int page, int size) {
+        return facetIndex.filter(selection, page * size, size);
     }
 
+    // The flag is maintained by AvailabilityScheduler; the expiry check covers the moments before it runs
     public List<Product> getAvailableProducts() {
-        return productRepository.findByIsAvailableTrue();
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.find(new Query(Criteria.where("isAvailable").is(true)
+                .orOperator(Criteria.where("expiryDate").is(null), Criteria.where("expiryDate").gt(now))), Product.class);
     }
 
     public List<Product> getOrganicProducts() {
@@ -0,0 +1,290 @@
+package com.agroconnect.product.service;
+
+import com.agroconnect.product.event.ProductChangedEvent;
+import com.agroconnect.product.model.Product;
+import com.agroconnect.product.model.StockReservation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Stock reservations without locks.
+ *
+ * Every stock change is a single-document $inc: a decrement only matches while
+ * stockQuantity is at least the quantity taken, so concurrent orders can never take a
+ * product below zero. A multi-item reservation takes its items one by one and puts back
+ * what it already took if a later item is short. Reservation state changes are
+ * conditional on the current status, so commit, release and expiry each happen once
+ * even when callers retry or several instances sweep.
+ *
+ * If the process dies between taking stock and recording it, the stock stays taken
+ * (undersell) rather than being handed out twice.
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private static final int MAX_ITEMS = 100;
+    private static final int SWEEP_BATCH = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${products.reservations.ttl:15m}")
+    private Duration defaultTtl;
+
+    @Value("${products.reservations.max-ttl:1h}")
+    private Duration maxTtl;
+
+    /**
+     * Take every item or none. A repeated orderId returns the existing reservation while it
+     * is HELD or COMMITTED; a released or expired one takes the stock again and is reopened.
+     */
+    public StockReservation reserve(String orderId, List<StockReservation.Item> items, Duration ttl) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("items must not be empty");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("A reservation may contain at most " + MAX_ITEMS + " items");
+        }
+        // Merge repeated products; sorted so concurrent reservations take shared products in the same order
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (StockReservation.Item item : items) {
+            if (item.getProductId() == null || item.getProductId().isBlank()) {
+                throw new IllegalArgumentException("productId is required");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("quantity must be positive");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        StockReservation closed = null;
+        if (orderId != null) {
+            StockReservation existing = findByOrderId(orderId);
+            if (existing != null && isOpen(existing)) {
+                return existing;
+            }
+            if (existing != null && StockReservation.RETURNED.equals(existing.getStatus())) {
+                throw new IllegalStateException("The reservation for order " + orderId + " was returned");
+            }
+            closed = existing;
+        }
+
+        List<StockReservation.Item> taken = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                if (!changeStock(entry.getKey(), -entry.getValue())) {
+                    throw new InsufficientStockException(entry.getKey());
+                }
+                taken.add(new StockReservation.Item(entry.getKey(), entry.getValue()));
+            }
+            LocalDateTime expiresAt = LocalDateTime.now().plus(effectiveTtl(ttl));
+            if (closed != null) {
+                StockReservation reopened = reopen(closed.getId(), taken, expiresAt);
+                if (reopened != null) {
+                    return reopened;
+                }
+                // Reopened by a concurrent retry, or purged; keep whatever holds the order now
+                StockReservation current = findByOrderId(orderId);
+                if (current != null) {
+                    putBack(taken);
+                    return current;
+                }
+            }
+            return mongoTemplate.insert(new StockReservation(orderId, taken, expiresAt));
+        } catch (DuplicateKeyException e) {
+            // A concurrent request for the same order won; keep its reservation, not ours
+            putBack(taken);
+            return findByOrderId(orderId);
+        } catch (RuntimeException e) {
+            putBack(taken);
+            throw e;
+        }
+    }
+
+    public Optional<StockReservation> getReservation(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, StockReservation.class));
+    }
+
+    /**
+     * Make the sale final; the stock stays taken. Committing twice is a no-op.
+     */
+    public Optional<StockReservation> commit(String id) {
+        StockReservation committed = close(id, StockReservation.COMMITTED, null);
+        if (committed != null) {
+            return Optional.of(committed);
+        }
+        return getReservation(id).map(current -> {
+            if (!StockReservation.COMMITTED.equals(current.getStatus())) {
+                throw new IllegalStateException("Reservation " + id + " is " + current.getStatus());
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Put the stock back. Releasing a released or expired reservation is a no-op.
+     */
+    public Optional<StockReservation> release(String id) {
+        StockReservation released = close(id, StockReservation.RELEASED, null);
+        if (released != null) {
+            putBack(released.getItems());
+            return Optional.of(released);
+        }
+        return getReservation(id).map(current -> {
+            if (StockReservation.COMMITTED.equals(current.getStatus())) {
+                throw new IllegalStateException("Reservation " + id + " is " + current.getStatus());
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Put the stock of a committed reservation back, e.g. when its order is cancelled.
+     * Returning twice is a no-op, and a reservation that is still HELD is released.
+     */
+    public Optional<StockReservation> returnStock(String id) {
+        StockReservation returned = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(id).and("status").is(StockReservation.COMMITTED)),
+                new Update().set("status", StockReservation.RETURNED).set("closedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true), StockReservation.class);
+        if (returned != null) {
+            putBack(returned.getItems());
+            return Optional.of(returned);
+        }
+        return getReservation(id).flatMap(current -> StockReservation.HELD.equals(current.getStatus())
+                ? release(id) : Optional.of(current));
+    }
+
+    /**
+     * Add or remove stock outside of reservations, e.g. deliveries and stock counts
+     */
+    public Product adjustStock(String productId, int delta) {
+        if (delta == 0) {
+            throw new IllegalArgumentException("delta must not be zero");
+        }
+        Product product = updateStock(productId, delta);
+        if (product != null) {
+            return product;
+        }
+        if (mongoTemplate.exists(new Query(Criteria.where("id").is(productId)), Product.class)) {
+            throw new InsufficientStockException(productId);
+        }
+        throw new RuntimeException("Product not found with id: " + productId);
+    }
+
+    /**
+     * Return the stock of abandoned checkouts
+     */
+    @Scheduled(fixedDelayString = "${products.reservations.sweep-interval:10000}")
+    public void expireReservations() {
+        try {
+            Query due = new Query(Criteria.where("status").is(StockReservation.HELD)
+                    .and("expiresAt").lte(LocalDateTime.now())).limit(SWEEP_BATCH);
+            due.fields().include("id");
+            int expired = 0;
+            for (StockReservation reservation : mongoTemplate.find(due, StockReservation.class)) {
+                StockReservation closed = close(reservation.getId(), StockReservation.EXPIRED, LocalDateTime.now());
+                if (closed != null) {
+                    putBack(closed.getItems());
+                    expired++;
+                }
+            }
+            if (expired > 0) {
+                logger.info("Expired {} stock reservations", expired);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to expire stock reservations: {}", e.getMessage(), e);
+        }
+    }
+
+    // HELD -> status, once; returns null if the reservation was not HELD (or not yet due, for expiry)
+    private StockReservation close(String id, String status, LocalDateTime dueBy) {
+        Criteria criteria = Criteria.where("id").is(id).and("status").is(StockReservation.HELD);
+        if (dueBy != null) {
+            criteria.and("expiresAt").lte(dueBy);
+        }
+        // A committed reservation is not closed yet, it may still be returned
+        String timestamp = StockReservation.COMMITTED.equals(status) ? "committedAt" : "closedAt";
+        return mongoTemplate.findAndModify(new Query(criteria),
+                new Update().set("status", status).set(timestamp, LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true), StockReservation.class);
+    }
+
+    // RELEASED or EXPIRED -> HELD with freshly taken items, once; returns null if it was not closed
+    private StockReservation reopen(String id, List<StockReservation.Item> items, LocalDateTime expiresAt) {
+        Criteria criteria = Criteria.where("id").is(id)
+                .and("status").in(StockReservation.RELEASED, StockReservation.EXPIRED);
+        return mongoTemplate.findAndModify(new Query(criteria),
+                new Update().set("status", StockReservation.HELD).set("items", items)
+                        .set("expiresAt", expiresAt).unset("closedAt"),
+                FindAndModifyOptions.options().returnNew(true), StockReservation.class);
+    }
+
+    private static boolean isOpen(StockReservation reservation) {
+        return StockReservation.HELD.equals(reservation.getStatus())
+                || StockReservation.COMMITTED.equals(reservation.getStatus());
+    }
+
+    private void putBack(List<StockReservation.Item> items) {
+        for (StockReservation.Item item : items) {
+            if (!changeStock(item.getProductId(), item.getQuantity())) {
+                logger.warn("Could not return {} units to product {}, it no longer exists",
+                        item.getQuantity(), item.getProductId());
+            }
+        }
+    }
+
+    private boolean changeStock(String productId, int delta) {
+        return updateStock(productId, delta) != null;
+    }
+
+    // Atomic $inc; a decrement only applies while enough stock is left
+    private Product updateStock(String productId, int delta) {
+        Criteria criteria = Criteria.where("id").is(productId);
+        if (delta < 0) {
+            criteria.and("stockQuantity").gte(-delta);
+        }
+        Product product = mongoTemplate.findAndModify(new Query(criteria),
+                new Update().inc("stockQuantity", delta).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        if (product != null) {
+            eventPublisher.publishEvent(ProductChangedEvent.updated(product));
+        }
+        return product;
+    }
+
+    private StockReservation findByOrderId(String orderId) {
+        return mongoTemplate.findOne(new Query(Criteria.where("orderId").is(orderId)), StockReservation.class);
+    }
+
+    private Duration effectiveTtl(Duration requested) {
+        if (requested == null || requested.isNegative() || requested.isZero()) {
+            return defaultTtl;
+        }
+        return requested.compareTo(maxTtl) > 0 ? maxTtl : requested;
+    }
+}
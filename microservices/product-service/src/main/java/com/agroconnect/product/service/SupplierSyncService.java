@@ -0,0 +1,286 @@
+package com.agroconnect.product.service;
+
+import com.agroconnect.product.dto.SupplierSyncRequest;
+import com.agroconnect.product.dto.SupplierSyncResult;
+import com.agroconnect.product.event.ProductChangedEvent;
+import com.agroconnect.product.model.Product;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Applies a supplier's price and stock sheet to the catalog.
+ *
+ * Rows are matched to products on (supplier, sku) with one query per chunk, compared
+ * field by field, and only new products and changed fields are written, in one unordered
+ * bulk write per chunk. Rows that match their product exactly cost no write at all.
+ */
+@Service
+public class SupplierSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupplierSyncService.class);
+
+    private static final int MAX_PRODUCTS = 10_000;
+    private static final int CHUNK_SIZE = 1000;
+
+    // Fields a sheet may change on existing products; createdAt, updatedAt, supplier and sku are managed here.
+    // stockQuantity is not set directly, it is applied as a guarded adjustment so held reservations stay valid.
+    private static final List<SyncedField<?>> FIELDS = List.of(
+            new SyncedField<>("name", Product::getName, Product::setName),
+            new SyncedField<>("description", Product::getDescription, Product::setDescription),
+            new SyncedField<>("category", Product::getCategory, Product::setCategory),
+            new SyncedField<>("price", Product::getPrice, Product::setPrice),
+            new SyncedField<>("currency", Product::getCurrency, Product::setCurrency),
+            new SyncedField<>("unit", Product::getUnit, Product::setUnit),
+            new SyncedField<>("imageUrl", Product::getImageUrl, Product::setImageUrl),
+            new SyncedField<>("tags", Product::getTags, Product::setTags),
+            new SyncedField<>("origin", Product::getOrigin, Product::setOrigin),
+            new SyncedField<>("qualityGrade", Product::getQualityGrade, Product::setQualityGrade),
+            new SyncedField<>("harvestDate", Product::getHarvestDate, Product::setHarvestDate),
+            new SyncedField<>("expiryDate", Product::getExpiryDate, Product::setExpiryDate),
+            new SyncedField<>("isOrganic", Product::getIsOrganic, Product::setIsOrganic),
+            new SyncedField<>("isAvailable", Product::getIsAvailable, Product::setIsAvailable)
+    );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    public SupplierSyncResult sync(SupplierSyncRequest request) {
+        String supplier = request.getSupplier() != null ? request.getSupplier().trim() : "";
+        if (supplier.isEmpty()) {
+            throw new IllegalArgumentException("supplier is required");
+        }
+        List<Product> rows = request.getProducts();
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("products must not be empty");
+        }
+        if (rows.size() > MAX_PRODUCTS) {
+            throw new IllegalArgumentException("A sheet may contain at most " + MAX_PRODUCTS + " products");
+        }
+
+        SupplierSyncResult result = new SupplierSyncResult(supplier);
+        result.setReceived(rows.size());
+
+        List<Row> accepted = new ArrayList<>(rows.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Product product = rows.get(i);
+            String sku = product != null && product.getSku() != null ? product.getSku().trim() : "";
+            if (sku.isEmpty()) {
+                result.reject(i, null, "sku is required");
+            } else if (!seen.add(sku)) {
+                result.reject(i, sku, "Duplicate sku in sheet");
+            } else if (product.getPrice() != null && product.getPrice().signum() < 0) {
+                result.reject(i, sku, "price must not be negative");
+            } else if (product.getStockQuantity() != null && product.getStockQuantity() < 0) {
+                result.reject(i, sku, "stockQuantity must not be negative");
+            } else {
+                accepted.add(new Row(i, sku, product));
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += CHUNK_SIZE) {
+            syncChunk(supplier, accepted.subList(from, Math.min(from + CHUNK_SIZE, accepted.size())), result);
+        }
+
+        logger.info("Supplier {} sync: {} received, {} inserted, {} updated, {} unchanged, {} rejected",
+                supplier, result.getReceived(), result.getInserted(), result.getUpdated(),
+                result.getUnchanged(), result.getRejected());
+        return result;
+    }
+
+    private void syncChunk(String supplier, List<Row> chunk, SupplierSyncResult result) {
+        List<String> skus = chunk.stream().map(row -> row.sku).toList();
+        Map<String, Product> current = new HashMap<>();
+        mongoTemplate.find(new Query(Criteria.where("supplier").is(supplier).and("sku").in(skus)), Product.class)
+                .forEach(product -> current.put(product.getSku(), product));
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        // Bulk operation index -> row and resulting product state
+        List<Row> writtenRows = new ArrayList<>();
+        List<ProductChangedEvent> events = new ArrayList<>();
+        int unchanged = 0;
+
+        for (Row row : chunk) {
+            Product existing = current.get(row.sku);
+            if (existing == null) {
+                Product product = row.product;
+                product.setId(new ObjectId().toHexString());
+                product.setSupplier(supplier);
+                product.setSku(row.sku);
+                truncateDates(product);
+                product.setCreatedAt(now);
+                product.setUpdatedAt(now);
+                bulk.insert(product);
+                writtenRows.add(row);
+                events.add(ProductChangedEvent.created(product));
+                continue;
+            }
+
+            boolean stockChanged;
+            try {
+                stockChanged = applyStock(row.product, existing);
+            } catch (InsufficientStockException e) {
+                result.reject(row.index, row.sku, "stockQuantity is below the stock held by reservations");
+                continue;
+            }
+
+            Update update = new Update();
+            boolean changed = false;
+            for (SyncedField<?> field : FIELDS) {
+                changed |= field.apply(row.product, existing, update);
+            }
+            if (!changed) {
+                if (stockChanged) {
+                    // The adjustment already wrote the product and published its change
+                    result.addUpdated(1);
+                } else {
+                    unchanged++;
+                }
+                continue;
+            }
+            update.set("updatedAt", now);
+            existing.setUpdatedAt(now);
+            bulk.updateOne(new Query(Criteria.where("id").is(existing.getId())), update);
+            writtenRows.add(row);
+            events.add(ProductChangedEvent.updated(existing));
+        }
+        result.addUnchanged(unchanged);
+        if (writtenRows.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Unordered, so every other operation was still applied
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+                Row row = writtenRows.get(error.getIndex());
+                result.reject(row.index, row.sku, error.getCode() == 11000
+                        ? "Product was created concurrently, retry the sheet" : error.getMessage());
+            }
+        }
+
+        for (int i = 0; i < events.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            ProductChangedEvent event = events.get(i);
+            if (event.getType() == ProductChangedEvent.Type.CREATED) {
+                result.addInserted(1);
+            } else {
+                result.addUpdated(1);
+            }
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    /**
+     * Apply a changed sheet quantity as a stock adjustment of the difference. The decrement is
+     * guarded like any other adjustment, so it fails rather than take stock reservations hold.
+     */
+    private boolean applyStock(Product incoming, Product current) {
+        Integer quantity = incoming.getStockQuantity();
+        int stock = current.getStockQuantity() != null ? current.getStockQuantity() : 0;
+        int delta = quantity != null ? quantity - stock : 0;
+        if (delta == 0) {
+            return false;
+        }
+        Product adjusted = stockReservationService.adjustStock(current.getId(), delta);
+        current.setStockQuantity(adjusted.getStockQuantity());
+        current.setUpdatedAt(adjusted.getUpdatedAt());
+        return true;
+    }
+
+    // Mongo stores milliseconds, so compare and write dates at that precision
+    private static void truncateDates(Product product) {
+        if (product.getHarvestDate() != null) {
+            product.setHarvestDate(product.getHarvestDate().truncatedTo(ChronoUnit.MILLIS));
+        }
+        if (product.getExpiryDate() != null) {
+            product.setExpiryDate(product.getExpiryDate().truncatedTo(ChronoUnit.MILLIS));
+        }
+    }
+
+    private static class Row {
+        private final int index;
+        private final String sku;
+        private final Product product;
+
+        private Row(int index, String sku, Product product) {
+            this.index = index;
+            this.sku = sku;
+            this.product = product;
+        }
+    }
+
+    private static class SyncedField<T> {
+        private final String name;
+        private final Function<Product, T> getter;
+        private final BiConsumer<Product, T> setter;
+
+        private SyncedField(String name, Function<Product, T> getter, BiConsumer<Product, T> setter) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        // Copies a provided value that differs from the current one into the update and the current product
+        private boolean apply(Product incoming, Product current, Update update) {
+            T value = getter.apply(incoming);
+            if (value == null) {
+                return false;
+            }
+            if (value instanceof LocalDateTime) {
+                @SuppressWarnings("unchecked")
+                T truncated = (T) ((LocalDateTime) value).truncatedTo(ChronoUnit.MILLIS);
+                value = truncated;
+            }
+            if (same(value, getter.apply(current))) {
+                return false;
+            }
+            update.set(name, value);
+            setter.accept(current, value);
+            return true;
+        }
+
+        private static boolean same(Object value, Object current) {
+            if (value instanceof BigDecimal && current instanceof BigDecimal) {
+                return ((BigDecimal) value).compareTo((BigDecimal) current) == 0;
+            }
+            return Objects.equals(value, current);
+        }
+    }
+}
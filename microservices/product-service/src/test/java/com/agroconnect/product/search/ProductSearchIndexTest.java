@@ -0,0 +1,172 @@
+package com.agroconnect.product.search;
+
+import com.agroconnect.product.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+    }
+
+    @Test
+    void testNameMatchOutranksDescriptionMatch() {
+        index.index(product("p1", "Fresh basil", "Goes well with tomato sauce", List.of()));
+        index.index(product("p2", "Tomato", "Ripe and red", List.of()));
+
+        assertEquals(List.of("p2", "p1"), ids(index.search("tomato", null, 0, 10)));
+    }
+
+    @Test
+    void testShorterDocumentRanksHigherForSameTerm() {
+        index.index(product("p1", "Apple", "Crisp green apple from the orchard on the hill", List.of()));
+        index.index(product("p2", "Apple", "Crisp", List.of()));
+        index.index(product("p3", "Pear", "Soft", List.of()));
+
+        assertEquals(List.of("p2", "p1"), ids(index.search("apple", null, 0, 10)));
+    }
+
+    @Test
+    void testEveryTermMustMatch() {
+        index.index(product("p1", "Red apple", null, List.of()));
+        index.index(product("p2", "Green apple", null, List.of()));
+
+        assertEquals(List.of("p1"), ids(index.search("apple red", null, 0, 10)));
+        assertTrue(ids(index.search("apple blue", null, 0, 10)).isEmpty());
+    }
+
+    @Test
+    void testPrefixMatchesRankBelowExactMatches() {
+        index.index(product("p1", "Tomatoes", null, List.of()));
+        index.index(product("p2", "Tom", null, List.of()));
+        index.index(product("p3", "Potato", null, List.of()));
+
+        assertEquals(List.of("p2", "p1"), ids(index.search("tom", null, 0, 10)));
+        // One letter is too short to expand
+        assertTrue(ids(index.search("t", null, 0, 10)).isEmpty());
+    }
+
+    @Test
+    void testDiacriticsAndCaseAreFolded() {
+        index.index(product("p1", "Jalapeño Peppers", null, List.of()));
+
+        assertEquals(List.of("p1"), ids(index.search("JALAPENO", null, 0, 10)));
+    }
+
+    @Test
+    void testFiltersAndFacets() {
+        Product kenyan = product("p1", "Arabica coffee", null, List.of("Organic", "Fairtrade"));
+        kenyan.setOrigin("Kenya");
+        kenyan.setSupplier("Highland Co");
+        Product brazilian = product("p2", "Robusta coffee", null, List.of("organic"));
+        brazilian.setOrigin("Brazil");
+        brazilian.setSupplier("Highland Co");
+        index.index(kenyan);
+        index.index(brazilian);
+
+        ProductSearchIndex.SearchFilter organic = new ProductSearchIndex.SearchFilter(List.of("ORGANIC"), null, null);
+        assertEquals(Set.of("p1", "p2"), Set.copyOf(ids(index.search("coffee", organic, 0, 10))));
+
+        ProductSearchIndex.SearchFilter kenya = new ProductSearchIndex.SearchFilter(List.of("organic", "fairtrade"), "kenya", "highland co");
+        assertEquals(List.of("p1"), ids(index.search("coffee", kenya, 0, 10)));
+
+        ProductSearchIndex.SearchFilter nowhere = new ProductSearchIndex.SearchFilter(null, "Peru", null);
+        assertTrue(ids(index.search("coffee", nowhere, 0, 10)).isEmpty());
+
+        // A blank query lists everything that passes the filter, in name order
+        ProductSearchIndex.SearchResult all = index.search(" ", organic, 0, 10);
+        assertEquals(List.of("p1", "p2"), ids(all));
+        Map<String, Long> origins = all.getFacets().get(ProductSearchIndex.FACET_ORIGIN);
+        assertEquals(Map.of("Kenya", 1L, "Brazil", 1L), origins);
+        assertEquals(2L, all.getFacets().get(ProductSearchIndex.FACET_SUPPLIER).get("Highland Co"));
+    }
+
+    @Test
+    void testPagingReportsTotal() {
+        for (int i = 0; i < 5; i++) {
+            index.index(product("p" + i, "Carrot " + i, null, List.of()));
+        }
+        ProductSearchIndex.SearchResult page = index.search("carrot", null, 2, 2);
+        assertEquals(5, page.getTotal());
+        assertEquals(2, page.getProducts().size());
+    }
+
+    @Test
+    void testReindexAndRemove() {
+        index.index(product("p1", "Onion", null, List.of()));
+        index.index(product("p1", "Garlic", null, List.of()));
+        assertTrue(ids(index.search("onion", null, 0, 10)).isEmpty());
+        assertEquals(List.of("p1"), ids(index.search("garlic", null, 0, 10)));
+
+        index.remove("p1");
+        assertEquals(0, index.size());
+        assertTrue(ids(index.search("garlic", null, 0, 10)).isEmpty());
+    }
+
+    @Test
+    void testRebuildReplacesContentsAndKeepsConcurrentChanges() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        ReflectionTestUtils.setField(index, "mongoTemplate", mongoTemplate);
+        index.index(product("gone", "Leek", null, List.of()));
+
+        Product stale = product("p1", "Old name", null, List.of());
+        Product updated = product("p1", "New name", null, List.of());
+        // The product is changed while the rebuild is reading it, so the copy read is stale
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenReturn(
+                Stream.of(stale, product("p2", "Kale", null, List.of())).peek(read -> {
+                    if (read == stale) {
+                        index.index(updated);
+                    }
+                }));
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        assertTrue(ids(index.search("leek", null, 0, 10)).isEmpty());
+        assertEquals(List.of("p1"), ids(index.search("new", null, 0, 10)));
+        assertTrue(ids(index.search("old", null, 0, 10)).isEmpty());
+        assertEquals(List.of("p2"), ids(index.search("kale", null, 0, 10)));
+    }
+
+    @Test
+    void testFailedRebuildKeepsServingOldContents() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        ReflectionTestUtils.setField(index, "mongoTemplate", mongoTemplate);
+        index.index(product("p1", "Leek", null, List.of()));
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenThrow(new RuntimeException("down"));
+
+        index.rebuild();
+
+        assertEquals(List.of("p1"), ids(index.search("leek", null, 0, 10)));
+    }
+
+    private static List<String> ids(ProductSearchIndex.SearchResult result) {
+        return result.getProducts().stream().map(Product::getId).toList();
+    }
+
+    private static Product product(String id, String name, String description, List<String> tags) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setTags(tags);
+        return product;
+    }
+}
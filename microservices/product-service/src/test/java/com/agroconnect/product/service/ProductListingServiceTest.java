@@ -0,0 +1,115 @@
+package com.agroconnect.product.service;
+
+import com.agroconnect.product.dto.ProductPage;
+import com.agroconnect.product.dto.ProductSort;
+import com.agroconnect.product.dto.ProductView;
+import com.agroconnect.product.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ProductListingServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private ProductListingService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        service = new ProductListingService();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void testPriceCursorKeepsDecimalValue() {
+        Document filter = resume(ProductSort.PRICE, Sort.Direction.ASC,
+                product("p2", new BigDecimal("12.50"), null), product("p3", new BigDecimal("13"), null));
+
+        // {$or: [{price: {$gt: 12.50}}, {$and: [{price: 12.50}, {id: {$gt: "p2"}}]}]}
+        List<?> or = (List<?>) filter.get("$or");
+        assertEquals(new BigDecimal("12.50"), ((Document) ((Document) or.get(0)).get("price")).get("$gt"));
+        List<?> and = (List<?>) ((Document) or.get(1)).get("$and");
+        assertEquals(new BigDecimal("12.50"), ((Document) and.get(0)).get("price"));
+        assertEquals("p2", ((Document) ((Document) and.get(1)).get("id")).get("$gt"));
+    }
+
+    @Test
+    void testDateCursorDescending() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 8, 15, 30, 123_000_000);
+        Document filter = resume(ProductSort.CREATED_AT, Sort.Direction.DESC,
+                product("p2", null, createdAt), product("p1", null, createdAt));
+
+        // Descending, products without the field come last
+        List<?> or = (List<?>) filter.get("$or");
+        assertEquals(3, or.size());
+        assertEquals(createdAt, ((Document) ((Document) or.get(0)).get("createdAt")).get("$lt"));
+        List<?> and = (List<?>) ((Document) or.get(1)).get("$and");
+        assertEquals("p2", ((Document) ((Document) and.get(1)).get("id")).get("$lt"));
+        assertTrue(((Document) or.get(2)).containsKey("createdAt"));
+        assertNull(((Document) or.get(2)).get("createdAt"));
+    }
+
+    @Test
+    void testNullValueCursorAscending() {
+        Document filter = resume(ProductSort.PRICE, Sort.Direction.ASC,
+                product("p2", null, null), product("p3", BigDecimal.ONE, null));
+
+        // Nulls sort first: later ids without a price, then everything with one
+        List<?> or = (List<?>) filter.get("$or");
+        List<?> and = (List<?>) ((Document) or.get(0)).get("$and");
+        assertNull(((Document) and.get(0)).get("price"));
+        assertEquals("p2", ((Document) ((Document) and.get(1)).get("id")).get("$gt"));
+        assertTrue(((Document) ((Document) or.get(1)).get("price")).containsKey("$ne"));
+    }
+
+    @Test
+    void testCursorForAnotherSortIsRejected() {
+        when(mongoTemplate.find(any(Query.class), eq(Product.class)))
+                .thenReturn(List.of(product("p1", BigDecimal.ONE, null), product("p2", BigDecimal.TEN, null)));
+        String cursor = service.scroll(null, 1, ProductSort.PRICE, Sort.Direction.ASC, ProductView.FULL).getNextCursor();
+        assertNotNull(cursor);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.scroll(cursor, 1, ProductSort.NAME, Sort.Direction.ASC, ProductView.FULL));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.scroll(cursor, 1, ProductSort.PRICE, Sort.Direction.DESC, ProductView.FULL));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.scroll("not a cursor!", 1, ProductSort.PRICE, Sort.Direction.ASC, ProductView.FULL));
+    }
+
+    // Read a page of one ending at first, then the next page from its cursor; the second query's filter
+    private Document resume(ProductSort sort, Sort.Direction direction, Product first, Product next) {
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of(first, next));
+        ProductPage<?> page = service.scroll(null, 1, sort, direction, ProductView.FULL);
+        assertTrue(page.isHasNext());
+
+        service.scroll(page.getNextCursor(), 1, sort, direction, ProductView.FULL);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(query.capture(), eq(Product.class));
+        return query.getValue().getQueryObject();
+    }
+
+    private static Product product(String id, BigDecimal price, LocalDateTime createdAt) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(price);
+        product.setCreatedAt(createdAt);
+        return product;
+    }
+}
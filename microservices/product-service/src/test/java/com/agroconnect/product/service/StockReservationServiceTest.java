@@ -0,0 +1,247 @@
+package com.agroconnect.product.service;
+
+import com.agroconnect.product.model.Product;
+import com.agroconnect.product.model.StockReservation;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class StockReservationServiceTest {
+
+    // In-memory stand-ins for the products and stock_reservations collections
+    private final Map<String, Product> products = new HashMap<>();
+    private final Map<String, StockReservation> reservations = new HashMap<>();
+
+    private StockReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Product.class)))
+                .thenAnswer(call -> modify(products.values(), call.getArgument(0), call.getArgument(1)));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(StockReservation.class)))
+                .thenAnswer(call -> modify(reservations.values(), call.getArgument(0), call.getArgument(1)));
+        when(mongoTemplate.exists(any(Query.class), eq(Product.class)))
+                .thenAnswer(call -> products.values().stream()
+                        .anyMatch(product -> matches(product, ((Query) call.getArgument(0)).getQueryObject())));
+        when(mongoTemplate.findOne(any(Query.class), eq(StockReservation.class)))
+                .thenAnswer(call -> reservations.values().stream()
+                        .filter(reservation -> matches(reservation, ((Query) call.getArgument(0)).getQueryObject()))
+                        .findFirst().orElse(null));
+        when(mongoTemplate.find(any(Query.class), eq(StockReservation.class)))
+                .thenAnswer(call -> reservations.values().stream()
+                        .filter(reservation -> matches(reservation, ((Query) call.getArgument(0)).getQueryObject()))
+                        .toList());
+        when(mongoTemplate.findById(anyString(), eq(StockReservation.class)))
+                .thenAnswer(call -> reservations.get((String) call.getArgument(0)));
+        when(mongoTemplate.insert(any(StockReservation.class))).thenAnswer(call -> {
+            StockReservation reservation = call.getArgument(0);
+            reservation.setId(UUID.randomUUID().toString());
+            reservations.put(reservation.getId(), reservation);
+            return reservation;
+        });
+
+        service = new StockReservationService();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "defaultTtl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(service, "maxTtl", Duration.ofHours(1));
+
+        product("apples", 10);
+        product("pears", 1);
+    }
+
+    @Test
+    void testReserveTakesEveryItem() {
+        StockReservation reservation = service.reserve("o1", List.of(item("apples", 3), item("pears", 1)), null);
+
+        assertEquals(StockReservation.HELD, reservation.getStatus());
+        assertEquals(7, stock("apples"));
+        assertEquals(0, stock("pears"));
+    }
+
+    @Test
+    void testShortItemPutsBackWhatWasTaken() {
+        // apples are taken first, then pears are short
+        assertThrows(InsufficientStockException.class,
+                () -> service.reserve("o1", List.of(item("pears", 2), item("apples", 3)), null));
+
+        assertEquals(10, stock("apples"));
+        assertEquals(1, stock("pears"));
+        assertTrue(reservations.isEmpty());
+    }
+
+    @Test
+    void testRepeatedOrderReturnsOpenReservation() {
+        StockReservation first = service.reserve("o1", List.of(item("apples", 3)), null);
+        StockReservation again = service.reserve("o1", List.of(item("apples", 3)), null);
+
+        assertEquals(first.getId(), again.getId());
+        assertEquals(7, stock("apples"));
+    }
+
+    @Test
+    void testReleaseIsAppliedOnce() {
+        StockReservation reservation = service.reserve("o1", List.of(item("apples", 4)), null);
+
+        assertEquals(StockReservation.RELEASED, service.release(reservation.getId()).orElseThrow().getStatus());
+        assertEquals(StockReservation.RELEASED, service.release(reservation.getId()).orElseThrow().getStatus());
+        assertEquals(10, stock("apples"));
+    }
+
+    @Test
+    void testReleaseOfCommittedIsRejected() {
+        StockReservation reservation = service.reserve("o1", List.of(item("apples", 4)), null);
+        service.commit(reservation.getId());
+        service.commit(reservation.getId());
+
+        assertThrows(IllegalStateException.class, () -> service.release(reservation.getId()));
+        assertEquals(StockReservation.COMMITTED, reservations.get(reservation.getId()).getStatus());
+        assertEquals(6, stock("apples"));
+    }
+
+    @Test
+    void testCommitOfReleasedIsRejected() {
+        StockReservation reservation = service.reserve("o1", List.of(item("apples", 4)), null);
+        service.release(reservation.getId());
+
+        assertThrows(IllegalStateException.class, () -> service.commit(reservation.getId()));
+    }
+
+    @Test
+    void testReturnIsAppliedOnce() {
+        StockReservation reservation = service.reserve("o1", List.of(item("apples", 4)), null);
+        service.commit(reservation.getId());
+
+        assertEquals(StockReservation.RETURNED, service.returnStock(reservation.getId()).orElseThrow().getStatus());
+        assertEquals(StockReservation.RETURNED, service.returnStock(reservation.getId()).orElseThrow().getStatus());
+        assertEquals(10, stock("apples"));
+        // The order cannot take the stock again under the same id
+        assertThrows(IllegalStateException.class, () -> service.reserve("o1", List.of(item("apples", 4)), null));
+    }
+
+    @Test
+    void testReturnOfHeldReleasesIt() {
+        StockReservation reservation = service.reserve("o1", List.of(item("apples", 4)), null);
+
+        assertEquals(StockReservation.RELEASED, service.returnStock(reservation.getId()).orElseThrow().getStatus());
+        assertEquals(10, stock("apples"));
+    }
+
+    @Test
+    void testReleasedReservationIsReopened() {
+        StockReservation reservation = service.reserve("o1", List.of(item("apples", 4)), null);
+        service.release(reservation.getId());
+
+        StockReservation reopened = service.reserve("o1", List.of(item("apples", 5)), null);
+        assertEquals(reservation.getId(), reopened.getId());
+        assertEquals(StockReservation.HELD, reopened.getStatus());
+        assertNull(reopened.getClosedAt());
+        assertEquals(5, stock("apples"));
+    }
+
+    @Test
+    void testExpirySweepPutsStockBackOnce() {
+        StockReservation due = service.reserve("o1", List.of(item("apples", 4)), null);
+        StockReservation notDue = service.reserve("o2", List.of(item("apples", 1)), null);
+        due.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+
+        service.expireReservations();
+        service.expireReservations();
+
+        assertEquals(StockReservation.EXPIRED, reservations.get(due.getId()).getStatus());
+        assertEquals(StockReservation.HELD, reservations.get(notDue.getId()).getStatus());
+        assertEquals(9, stock("apples"));
+    }
+
+    @Test
+    void testAdjustStockNeverGoesNegative() {
+        assertThrows(InsufficientStockException.class, () -> service.adjustStock("pears", -2));
+        assertEquals(1, stock("pears"));
+        assertEquals(3, service.adjustStock("pears", 2).getStockQuantity());
+    }
+
+    private void product(String id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setStockQuantity(stock);
+        products.put(id, product);
+    }
+
+    private int stock(String id) {
+        return products.get(id).getStockQuantity();
+    }
+
+    private static StockReservation.Item item(String productId, int quantity) {
+        return new StockReservation.Item(productId, quantity);
+    }
+
+    // Applies $set, $unset and $inc to the first document matching the query, like findAndModify with returnNew
+    private static <T> T modify(Collection<T> documents, Query query, Update update) {
+        T document = documents.stream().filter(candidate -> matches(candidate, query.getQueryObject()))
+                .findFirst().orElse(null);
+        if (document == null) {
+            return null;
+        }
+        Document changes = update.getUpdateObject();
+        Document set = changes.get("$set", Document.class);
+        if (set != null) {
+            set.forEach((field, value) -> ReflectionTestUtils.setField(document, field, value));
+        }
+        Document unset = changes.get("$unset", Document.class);
+        if (unset != null) {
+            unset.keySet().forEach(field -> ReflectionTestUtils.setField(document, field, null));
+        }
+        Document inc = changes.get("$inc", Document.class);
+        if (inc != null) {
+            inc.forEach((field, delta) -> ReflectionTestUtils.setField(document, field,
+                    (Integer) ReflectionTestUtils.getField(document, field) + ((Number) delta).intValue()));
+        }
+        return document;
+    }
+
+    // Equality, $in, $gte and $lte, which is all the service queries with
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean matches(Object document, Document query) {
+        for (Map.Entry<String, Object> condition : query.entrySet()) {
+            Object actual = ReflectionTestUtils.getField(document, condition.getKey());
+            if (condition.getValue() instanceof Document operators) {
+                for (Map.Entry<String, Object> operator : operators.entrySet()) {
+                    Object expected = operator.getValue();
+                    boolean ok = switch (operator.getKey()) {
+                        case "$in" -> ((Collection<?>) expected).contains(actual);
+                        case "$gte" -> actual != null && ((Comparable) actual).compareTo(expected) >= 0;
+                        case "$lte" -> actual != null && ((Comparable) actual).compareTo(expected) <= 0;
+                        default -> throw new IllegalArgumentException("Unsupported operator " + operator.getKey());
+                    };
+                    if (!ok) {
+                        return false;
+                    }
+                }
+            } else if (!condition.getValue().equals(actual)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,194 @@
+package com.agroconnect.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarative index definitions for the repository queries, applied at startup.
+ *
+ * Every derived or {@code @Query} method on ContactRepository and PageVisitRepository,
+ * and every outbox dispatcher query, should be served by one of these indexes;
+ * RepositoryQueryPlanTest checks that with explain(). Keys use the stored field names,
+ * so Contact and OutboxEvent fields are snake_case.
+ *
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Configuration
+public class MongoIndexConfig implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    /**
+     * Case-insensitive collation shared by the company and email_ci indexes and the queries they serve
+     */
+    public static final Collation CASE_INSENSITIVE = Collation.of("en").strength(Collation.ComparisonLevel.secondary());
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public MongoIndexConfig(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Indexes to create, keyed by collection
+     */
+    public static Map<String, List<Index>> indexDefinitions() {
+        Map<String, List<Index>> indexes = new LinkedHashMap<>();
+
+        indexes.put("contacts", List.of(
+            // findByStatus (paged, sorted by createdAt), countByStatus, deleteByStatus
+            new Index().on("status", Direction.ASC).on("created_at", Direction.DESC)
+                .named("status_created_at"),
+            // findByEmail, findByEmailAndStatus, findFirstByEmailOrderByCreatedAtDesc, existsByEmail, deleteByEmail
+            new Index().on("email", Direction.ASC).on("created_at", Direction.DESC)
+                .named("email_created_at"),
+            // findByCreatedAtBetween, findTodayContacts, default admin listing
+            new Index().on("created_at", Direction.DESC)
+                .named("created_at"),
+            // incremental contact search index refresh
+            new Index().on("updated_at", Direction.ASC)
+                .named("updated_at"),
+            new Index().on("newsletter_subscription", Direction.ASC)
+                .named("newsletter_subscription"),
+            new Index().on("preferred_contact_method", Direction.ASC)
+                .named("preferred_contact_method"),
+            new Index().on("farm_type", Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("farm_type").exists(true)))
+                .named("farm_type"),
+            new Index().on("location", Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("location").exists(true)))
+                .named("location"),
+            new Index().on("company", Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("company").exists(true)))
+                .collation(CASE_INSENSITIVE)
+                .named("company_ci"),
+            // bulk import duplicate check against every existing contact
+            new Index().on("email", Direction.ASC)
+                .collation(CASE_INSENSITIVE)
+                .named("email_ci"),
+            // concurrent imports cannot both insert the same address; form submissions may repeat an email
+            new Index().on("email", Direction.ASC).unique()
+                .partial(PartialIndexFilter.of(Criteria.where("import_job_id").exists(true)))
+                .collation(CASE_INSENSITIVE)
+                .named("imported_email_unique")
+        ));
+
+        // visitTimestamp keeps its @Indexed annotation on PageVisit
+        indexes.put("page_visits", List.of(
+            new Index().on("pageCategory", Direction.ASC).on("visitTimestamp", Direction.DESC)
+                .named("pageCategory_visitTimestamp"),
+            new Index().on("pageUrl", Direction.ASC).on("visitTimestamp", Direction.DESC)
+                .named("pageUrl_visitTimestamp"),
+            new Index().on("sessionId", Direction.ASC).on("visitTimestamp", Direction.DESC)
+                .named("sessionId_visitTimestamp"),
+            // also serves the {userId: {$ne: null}} distinct-users query, so not partial
+            new Index().on("userId", Direction.ASC).on("visitTimestamp", Direction.DESC)
+                .named("userId_visitTimestamp"),
+            new Index().on("deviceType", Direction.ASC).on("visitTimestamp", Direction.DESC)
+                .named("deviceType_visitTimestamp"),
+            new Index().on("browser", Direction.ASC).on("visitTimestamp", Direction.DESC)
+                .named("browser_visitTimestamp"),
+            new Index().on("country", Direction.ASC).on("visitTimestamp", Direction.DESC)
+                .named("country_visitTimestamp"),
+            new Index().on("utmSource", Direction.ASC).on("visitTimestamp", Direction.DESC)
+                .named("utmSource_visitTimestamp"),
+            new Index().on("utmCampaign", Direction.ASC).on("visitTimestamp", Direction.DESC)
+                .partial(PartialIndexFilter.of(Criteria.where("utmCampaign").exists(true)))
+                .named("utmCampaign_visitTimestamp"),
+            new Index().on("operatingSystem", Direction.ASC)
+                .named("operatingSystem"),
+            new Index().on("city", Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("city").exists(true)))
+                .named("city"),
+            new Index().on("referrer", Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("referrer").exists(true)))
+                .named("referrer"),
+            new Index().on("timeOnPage", Direction.ASC)
+                .named("timeOnPage")
+        ));
+
+        indexes.put("outbox_events", List.of(
+            // one event per contact and type
+            new Index().on("idempotency_key", Direction.ASC).unique()
+                .named("idempotency_key"),
+            // dispatcher: pending events in due order, and expired claims
+            new Index().on("status", Direction.ASC).on("next_attempt_at", Direction.ASC)
+                .named("status_next_attempt_at"),
+            new Index().on("status", Direction.ASC).on("locked_until", Direction.ASC)
+                .named("status_locked_until"),
+            new Index().on("claim_token", Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("claim_token").exists(true)))
+                .named("claim_token"),
+            new Index().on("contact_id", Direction.ASC)
+                .named("contact_id"),
+            // delivered events are purged after a week; FAILED ones stay for inspection
+            new Index().on("processed_at", Direction.ASC)
+                .expire(Duration.ofDays(7))
+                .partial(PartialIndexFilter.of(Criteria.where("status").is("DONE")))
+                .named("processed_at_ttl")
+        ));
+
+        indexes.put("products", List.of(
+            // catalog change detection (latest updated product)
+            new Index().on("updated_at", Direction.DESC)
+                .named("updated_at")
+        ));
+
+        return indexes;
+    }
+
+    /**
+     * Single-field indexes superseded by the compound ones above
+     */
+    static Map<String, List<String>> retiredIndexes() {
+        return Map.of("page_visits", List.of("pageUrl", "pageCategory", "sessionId"));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        retiredIndexes().forEach((collection, names) -> {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(collection);
+                List<String> existing = indexOps.getIndexInfo().stream().map(IndexInfo::getName).toList();
+                names.stream().filter(existing::contains).forEach(name -> {
+                    logger.info("Dropping superseded index {}.{}", collection, name);
+                    indexOps.dropIndex(name);
+                });
+            } catch (Exception e) {
+                logger.error("Failed to drop superseded indexes on {}: {}", collection, e.getMessage(), e);
+            }
+        });
+
+        indexDefinitions().forEach((collection, indexes) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            for (Index index : indexes) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (Exception e) {
+                    // A missing index only costs performance, so keep starting up
+                    logger.error("Failed to create index {} on {}: {}", index.getIndexOptions().get("name"),
+                            collection, e.getMessage(), e);
+                }
+            }
+            logger.info("Ensured {} indexes on {}", indexes.size(), collection);
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.agroconnect.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Enables MongoDB transactions so a contact and its outbox events are committed atomically.
+ *
+ * Off by default: transactions need a replica set or sharded cluster, and the bundled
+ * setups run a standalone mongod. Without it the outbox events are written right after
+ * the contact and @Transactional has no effect. Set notification.outbox.transactional=true
+ * on a replica set.
+ *
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.outbox.transactional", havingValue = "true")
+public class MongoTransactionConfig {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
@@ -0,0 +1,589 @@
+package com.agroconnect.contact;
+
+import com.agroconnect.config.MongoIndexConfig;
+import com.agroconnect.dto.ContactRequest;
+import com.agroconnect.model.Contact;
+import com.agroconnect.model.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Background bulk import of contact leads from CSV or NDJSON files.
+ *
+ * The uploaded file is spooled to disk and read incrementally in chunks. Each chunk
+ * is validated in parallel against the ContactRequest constraints, deduplicated by
+ * case-insensitive email (within the file and against existing contacts) and written
+ * with one unordered bulk insert, so a bad row never blocks the rest of the chunk.
+ *
+ * Job progress is kept in memory on the instance that accepted the upload.
+ *
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Service
+public class ContactImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactImportService.class);
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    // Normalised CSV header -> ContactRequest setter; headers match case-, space- and underscore-insensitively
+    private static final Map<String, BiConsumer<ContactRequest, String>> CSV_COLUMNS = Map.ofEntries(
+            Map.entry("firstname", ContactRequest::setFirstName),
+            Map.entry("lastname", ContactRequest::setLastName),
+            Map.entry("email", ContactRequest::setEmail),
+            Map.entry("phone", ContactRequest::setPhone),
+            Map.entry("subject", ContactRequest::setSubject),
+            Map.entry("message", ContactRequest::setMessage),
+            Map.entry("company", ContactRequest::setCompany),
+            Map.entry("farmtype", ContactRequest::setFarmType),
+            Map.entry("farmsize", ContactRequest::setFarmSize),
+            Map.entry("location", ContactRequest::setLocation),
+            Map.entry("preferredcontactmethod", ContactRequest::setPreferredContactMethod),
+            Map.entry("newslettersubscription", (request, value) -> request.setNewsletterSubscription(
+                    Set.of("true", "yes", "y", "1").contains(value.toLowerCase(Locale.ROOT))))
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final ContactSearchIndex searchIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService jobExecutor;
+    private ExecutorService validationExecutor;
+
+    @Value("${contact.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${contact.import.validation-threads:4}")
+    private int validationThreads;
+
+    @Value("${contact.import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Autowired
+    public ContactImportService(MongoTemplate mongoTemplate, ContactSearchIndex searchIndex,
+                                Validator validator, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.searchIndex = searchIndex;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void startExecutors() {
+        jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs, namedThreads("contact-import-"));
+        validationExecutor = Executors.newFixedThreadPool(validationThreads, namedThreads("contact-import-validate-"));
+    }
+
+    @PreDestroy
+    void stopExecutors() {
+        jobExecutor.shutdownNow();
+        validationExecutor.shutdownNow();
+    }
+
+    /**
+     * Spool the upload to disk and queue it for import
+     */
+    public ImportJob startImport(MultipartFile file, String format, boolean notify) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Uploaded file is empty");
+        }
+        String resolvedFormat = resolveFormat(format, file.getOriginalFilename());
+
+        Path spool = Files.createTempFile("contact-import-", "." + resolvedFormat);
+        try {
+            file.transferTo(spool);
+        } catch (IOException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        purgeFinishedJobs();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(),
+                resolvedFormat, Files.size(spool));
+        jobs.put(job.getJobId(), job);
+        try {
+            jobExecutor.execute(() -> runImport(job, spool, notify));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        logger.info("Queued contact import {} for file {} ({}, {} bytes)",
+                job.getJobId(), job.getFileName(), resolvedFormat, job.getTotalBytes());
+        return job;
+    }
+
+    /**
+     * Progress of an import job started on this instance
+     */
+    public Optional<ImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void runImport(ImportJob job, Path spool, boolean notify) {
+        job.markRunning();
+        Set<String> seenEmails = new HashSet<>();
+
+        try (InputStream input = new CountingInputStream(Files.newInputStream(spool), job.bytesRead);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+
+            RecordSource source = FORMAT_CSV.equals(job.getFormat()) ? csvSource(reader) : ndjsonSource(reader);
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            ImportRecord record;
+            while ((record = source.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() >= chunkSize) {
+                    processChunk(job, chunk, seenEmails, notify);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(job, chunk, seenEmails, notify);
+            }
+
+            job.markFinished(ImportJob.COMPLETED, null);
+            logger.info("Contact import {} completed: {} read, {} inserted, {} invalid, {} duplicates, {} failed",
+                    job.getJobId(), job.getRecordsRead(), job.getInserted(), job.getInvalid(),
+                    job.getDuplicates(), job.getFailed());
+
+        } catch (Exception e) {
+            job.markFinished(ImportJob.FAILED, e.getMessage());
+            logger.error("Contact import {} failed after {} records: {}",
+                    job.getJobId(), job.getRecordsRead(), e.getMessage(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                logger.warn("Could not delete import spool file {}", spool, e);
+            }
+        }
+    }
+
+    private void processChunk(ImportJob job, List<ImportRecord> chunk, Set<String> seenEmails, boolean notify) {
+        job.recordsRead.addAndGet(chunk.size());
+        validate(chunk);
+
+        // In-file duplicates: first occurrence wins
+        List<ImportRecord> candidates = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            if (record.error != null) {
+                job.invalid.incrementAndGet();
+                job.addError(record.line, record.error);
+            } else if (!seenEmails.add(normalizeEmail(record.request.getEmail()))) {
+                job.duplicates.incrementAndGet();
+            } else {
+                candidates.add(record);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Existing contacts: one case-insensitive $in lookup per chunk, served by the email_ci index
+        Set<String> emails = new HashSet<>();
+        for (ImportRecord record : candidates) {
+            emails.add(record.request.getEmail().trim());
+        }
+        Query existingQuery = new Query(Criteria.where("email").in(emails))
+                .collation(MongoIndexConfig.CASE_INSENSITIVE);
+        existingQuery.fields().include("email");
+        Set<String> existing = mongoTemplate.find(existingQuery, Contact.class).stream()
+                .map(contact -> normalizeEmail(contact.getEmail()))
+                .collect(Collectors.toSet());
+
+        List<Contact> contacts = new ArrayList<>(candidates.size());
+        List<Long> lines = new ArrayList<>(candidates.size());
+        for (ImportRecord record : candidates) {
+            if (existing.contains(normalizeEmail(record.request.getEmail()))) {
+                job.duplicates.incrementAndGet();
+                continue;
+            }
+            Contact contact = ContactService.toContact(record.request);
+            contact.setId(new ObjectId().toHexString());
+            contact.setImportJobId(job.getJobId());
+            contacts.add(contact);
+            lines.add(record.line);
+        }
+        if (contacts.isEmpty()) {
+            return;
+        }
+
+        List<Contact> inserted = insertUnordered(job, contacts, lines);
+        job.inserted.addAndGet(inserted.size());
+        inserted.forEach(searchIndex::index);
+
+        if (notify && !inserted.isEmpty()) {
+            List<OutboxEvent> events = inserted.stream()
+                    .flatMap(contact -> ContactService.notificationEvents(contact).stream())
+                    .toList();
+            BulkOperations outbox = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEvent.class);
+            outbox.insert(events);
+            try {
+                outbox.execute();
+            } catch (BulkOperationException e) {
+                logger.warn("Contact import {}: {} notification events not enqueued",
+                        job.getJobId(), e.getErrors().size());
+            }
+        }
+    }
+
+    /**
+     * Insert with one unordered bulk write and return the contacts that were written
+     */
+    private List<Contact> insertUnordered(ImportJob job, List<Contact> contacts, List<Long> lines) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Contact.class);
+        bulk.insert(contacts);
+        try {
+            bulk.execute();
+            return contacts;
+        } catch (BulkOperationException e) {
+            Set<Integer> failedIndexes = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                failedIndexes.add(error.getIndex());
+                if (error.getCode() == DUPLICATE_KEY) {
+                    // Inserted by a concurrent import since the lookup above
+                    job.duplicates.incrementAndGet();
+                } else {
+                    job.failed.incrementAndGet();
+                    job.addError(lines.get(error.getIndex()), error.getMessage());
+                }
+            }
+            List<Contact> inserted = new ArrayList<>(contacts.size() - failedIndexes.size());
+            for (int i = 0; i < contacts.size(); i++) {
+                if (!failedIndexes.contains(i)) {
+                    inserted.add(contacts.get(i));
+                }
+            }
+            return inserted;
+        }
+    }
+
+    /**
+     * Validate a chunk on the validation pool, one slice per thread
+     */
+    private void validate(List<ImportRecord> chunk) {
+        int sliceSize = Math.max(1, (chunk.size() + validationThreads - 1) / validationThreads);
+        List<CompletableFuture<Void>> slices = new ArrayList<>();
+        for (int start = 0; start < chunk.size(); start += sliceSize) {
+            List<ImportRecord> slice = chunk.subList(start, Math.min(start + sliceSize, chunk.size()));
+            slices.add(CompletableFuture.runAsync(() -> slice.forEach(this::validate), validationExecutor));
+        }
+        CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void validate(ImportRecord record) {
+        if (record.error != null) {
+            return;
+        }
+        Set<ConstraintViolation<ContactRequest>> violations = validator.validate(record.request);
+        if (!violations.isEmpty()) {
+            record.error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+    }
+
+    private RecordSource csvSource(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return () -> null;
+        }
+
+        List<BiConsumer<ContactRequest, String>> setters = new ArrayList<>(header.size());
+        for (String column : header) {
+            String key = column.replace("\uFEFF", "").toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            setters.add(CSV_COLUMNS.get(key));
+        }
+        if (!setters.contains(CSV_COLUMNS.get("email"))) {
+            throw new IllegalArgumentException("CSV header must include an email column");
+        }
+
+        return () -> {
+            List<String> fields = csv.readRecord();
+            if (fields == null) {
+                return null;
+            }
+            ContactRequest request = new ContactRequest();
+            for (int i = 0; i < fields.size() && i < setters.size(); i++) {
+                String value = fields.get(i).trim();
+                if (setters.get(i) != null && !value.isEmpty()) {
+                    setters.get(i).accept(request, value);
+                }
+            }
+            return new ImportRecord(csv.getRecordLineNumber(), request, null);
+        };
+    }
+
+    private RecordSource ndjsonSource(BufferedReader reader) {
+        AtomicLong lineNumber = new AtomicLong();
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                long current = lineNumber.incrementAndGet();
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ContactRequest request = objectMapper.readValue(line, ContactRequest.class);
+                    return request != null
+                            ? new ImportRecord(current, request, null)
+                            : new ImportRecord(current, null, "Expected a JSON object");
+                } catch (JsonProcessingException e) {
+                    return new ImportRecord(current, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private static String resolveFormat(String format, String fileName) {
+        if (format != null && !format.isBlank()) {
+            String requested = format.trim().toLowerCase(Locale.ROOT);
+            if (requested.equals("jsonl")) {
+                return FORMAT_NDJSON;
+            }
+            if (requested.equals(FORMAT_CSV) || requested.equals(FORMAT_NDJSON)) {
+                return requested;
+            }
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return FORMAT_NDJSON;
+        }
+        if (name.endsWith(".csv")) {
+            return FORMAT_CSV;
+        }
+        throw new IllegalArgumentException("Cannot tell the import format from the file name; pass format=csv or format=ndjson");
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Pull-based record stream over the uploaded file
+     */
+    @FunctionalInterface
+    private interface RecordSource {
+        ImportRecord next() throws IOException;
+    }
+
+    /**
+     * One parsed row; error is set when parsing or validation failed
+     */
+    private static class ImportRecord {
+        private final long line;
+        private final ContactRequest request;
+        private volatile String error;
+
+        ImportRecord(long line, ContactRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Counts bytes consumed so progress can be reported against the file size
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Progress report for one import
+     */
+    public static class ImportJob {
+        public static final String QUEUED = "QUEUED";
+        public static final String RUNNING = "RUNNING";
+        public static final String COMPLETED = "COMPLETED";
+        public static final String FAILED = "FAILED";
+
+        private final String jobId;
+        private final String fileName;
+        private final String format;
+        private final long totalBytes;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile String status = QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String message;
+
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong recordsRead = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong invalid = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportError> errors = new ArrayList<>();
+
+        ImportJob(String jobId, String fileName, String format, long totalBytes) {
+            this.jobId = jobId;
+            this.fileName = fileName;
+            this.format = format;
+            this.totalBytes = totalBytes;
+        }
+
+        void markRunning() {
+            startedAt = LocalDateTime.now();
+            status = RUNNING;
+        }
+
+        void markFinished(String finalStatus, String finalMessage) {
+            message = finalMessage;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        void addError(long line, String error) {
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ImportError(line, error));
+                }
+            }
+        }
+
+        // Getters
+        public String getJobId() { return jobId; }
+        public String getFileName() { return fileName; }
+        public String getFormat() { return format; }
+        public String getStatus() { return status; }
+        public String getMessage() { return message; }
+        public LocalDateTime getSubmittedAt() { return submittedAt; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public long getTotalBytes() { return totalBytes; }
+        public long getBytesRead() { return Math.min(bytesRead.get(), totalBytes); }
+        public long getRecordsRead() { return recordsRead.get(); }
+        public long getInserted() { return inserted.get(); }
+        public long getInvalid() { return invalid.get(); }
+        public long getDuplicates() { return duplicates.get(); }
+        public long getFailed() { return failed.get(); }
+
+        public double getProgress() {
+            if (COMPLETED.equals(status)) {
+                return 1.0;
+            }
+            return totalBytes > 0 ? (double) getBytesRead() / totalBytes : 0.0;
+        }
+
+        public List<ImportError> getErrors() {
+            synchronized (errors) {
+                return new ArrayList<>(errors);
+            }
+        }
+    }
+
+    /**
+     * A rejected row, reported with its line in the uploaded file
+     */
+    public static class ImportError {
+        private final long line;
+        private final String message;
+
+        public ImportError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        // Getters
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+    }
+}
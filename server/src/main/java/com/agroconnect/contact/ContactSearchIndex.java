@@ -0,0 +1,302 @@
+package com.agroconnect.contact;
+
+import com.agroconnect.model.Contact;
+import com.agroconnect.search.Tokens;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over contact first name, last name, email and subject.
+ *
+ * Terms are kept in a sorted dictionary so prefix lookups are a range scan, and
+ * short typos are matched with a bounded edit distance. Every query term must
+ * match (AND semantics); hits are ranked by field weight and match quality, then
+ * by creation date.
+ *
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Component
+public class ContactSearchIndex {
+
+    static final int FIRST_NAME = 1;
+    static final int LAST_NAME = 1 << 1;
+    static final int EMAIL = 1 << 2;
+    static final int SUBJECT = 1 << 3;
+
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_FUZZY_EXPANSIONS = 32;
+
+    private static final double EXACT_FACTOR = 1.0;
+    private static final double PREFIX_FACTOR = 0.6;
+    private static final double FUZZY_FACTOR = 0.3;
+
+    // Replaced as a whole by swap(), so readers always see one consistent generation
+    private volatile Postings current = new Postings();
+
+    /**
+     * Add or replace a contact in the index
+     */
+    public synchronized void index(Contact contact) {
+        if (contact == null || contact.getId() == null) {
+            return;
+        }
+        remove(contact.getId());
+
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, contact.getFirstName(), FIRST_NAME);
+        addTerms(terms, contact.getLastName(), LAST_NAME);
+        addTerms(terms, contact.getEmail(), EMAIL);
+        addTerms(terms, contact.getSubject(), SUBJECT);
+
+        Postings target = current;
+        terms.forEach((term, fields) ->
+                target.postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(contact.getId(), fields));
+
+        long createdAt = contact.getCreatedAt() != null
+                ? contact.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+        target.documents.put(contact.getId(), new IndexedContact(terms.keySet(), createdAt));
+    }
+
+    /**
+     * Remove a contact from the index
+     */
+    public synchronized void remove(String contactId) {
+        Postings target = current;
+        IndexedContact existing = target.documents.remove(contactId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms) {
+            target.postings.computeIfPresent(term, (t, ids) -> {
+                ids.remove(contactId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Remove several contacts from the index
+     */
+    public synchronized void removeAll(Collection<String> contactIds) {
+        contactIds.forEach(this::remove);
+    }
+
+    /**
+     * Drop every indexed contact
+     */
+    public synchronized void clear() {
+        current = new Postings();
+    }
+
+    /**
+     * Replace the contents of this index with an index built off to the side, so searches
+     * keep being served from the old contents until the new ones are complete
+     */
+    public synchronized void swap(ContactSearchIndex rebuilt) {
+        current = rebuilt.current;
+    }
+
+    /**
+     * Number of indexed contacts
+     */
+    public int size() {
+        return current.documents.size();
+    }
+
+    /**
+     * Search the index and return one page of ranked contact IDs
+     */
+    public SearchResult search(String query, long offset, int limit) {
+        List<String> queryTerms = Tokens.tokenize(query).stream().distinct().limit(MAX_QUERY_TERMS).toList();
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        Postings snapshot = current;
+        Map<String, Double> scores = null;
+        for (String term : queryTerms) {
+            Map<String, Double> termScores = scoreTerm(snapshot, term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<String, Double> smaller = scores.size() <= termScores.size() ? scores : termScores;
+                Map<String, Double> larger = smaller == scores ? termScores : scores;
+                Map<String, Double> merged = new HashMap<>();
+                smaller.forEach((id, score) -> {
+                    Double other = larger.get(id);
+                    if (other != null) {
+                        merged.put(id, score + other);
+                    }
+                });
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                return new SearchResult(List.of(), 0);
+            }
+        }
+
+        Comparator<Map.Entry<String, Double>> ranking = Map.Entry.<String, Double>comparingByValue().reversed()
+                .thenComparing(entry -> snapshot.createdAtOf(entry.getKey()), Comparator.reverseOrder())
+                .thenComparing(Map.Entry::getKey);
+
+        List<String> page = scores.entrySet().stream()
+                .sorted(ranking)
+                .skip(offset)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        return new SearchResult(page, scores.size());
+    }
+
+    private static Map<String, Double> scoreTerm(Postings snapshot, String term) {
+        Map<String, Double> scores = new HashMap<>();
+
+        Map<String, Integer> exact = snapshot.postings.get(term);
+        if (exact != null) {
+            accumulate(scores, exact, EXACT_FACTOR);
+        }
+
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (Map.Entry<String, Map<String, Integer>> entry : snapshot.prefixRange(term).entrySet()) {
+                if (entry.getKey().equals(term)) {
+                    continue;
+                }
+                accumulate(scores, entry.getValue(), PREFIX_FACTOR);
+                if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+            }
+        }
+
+        if (scores.isEmpty() && term.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = term.length() >= 8 ? 2 : 1;
+            int expansions = 0;
+            // Typos in the first character are not matched; this keeps the scan to one slice of the dictionary
+            for (Map.Entry<String, Map<String, Integer>> entry : snapshot.prefixRange(term.substring(0, 1)).entrySet()) {
+                String candidate = entry.getKey();
+                if (Math.abs(candidate.length() - term.length()) <= maxEdits
+                        && withinEditDistance(term, candidate, maxEdits)) {
+                    accumulate(scores, entry.getValue(), FUZZY_FACTOR);
+                    if (++expansions >= MAX_FUZZY_EXPANSIONS) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        return scores;
+    }
+
+    private static void accumulate(Map<String, Double> scores, Map<String, Integer> matches, double factor) {
+        matches.forEach((id, fields) -> scores.merge(id, fieldWeight(fields) * factor, Math::max));
+    }
+
+    private static double fieldWeight(int fields) {
+        double weight = 0;
+        if ((fields & FIRST_NAME) != 0) weight += 3.0;
+        if ((fields & LAST_NAME) != 0) weight += 3.0;
+        if ((fields & EMAIL) != 0) weight += 2.0;
+        if ((fields & SUBJECT) != 0) weight += 1.0;
+        return weight;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String value, int field) {
+        for (String token : Tokens.tokenize(value)) {
+            terms.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * Bounded Levenshtein check that gives up as soon as a row exceeds the limit
+     */
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    /**
+     * One generation of the index: the term dictionary and the per-contact documents
+     */
+    private static class Postings {
+        // term -> (contact ID -> bitmask of fields containing the term)
+        private final ConcurrentSkipListMap<String, Map<String, Integer>> postings = new ConcurrentSkipListMap<>();
+
+        // contact ID -> indexed terms, used to unindex on update/delete
+        private final ConcurrentHashMap<String, IndexedContact> documents = new ConcurrentHashMap<>();
+
+        NavigableMap<String, Map<String, Integer>> prefixRange(String prefix) {
+            return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+
+        long createdAtOf(String contactId) {
+            IndexedContact document = documents.get(contactId);
+            return document != null ? document.createdAt : 0L;
+        }
+    }
+
+    /**
+     * Terms and sort key kept per indexed contact
+     */
+    private static class IndexedContact {
+        private final Set<String> terms;
+        private final long createdAt;
+
+        IndexedContact(Set<String> terms, long createdAt) {
+            this.terms = new HashSet<>(terms);
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * One page of ranked contact IDs plus the total number of hits
+     */
+    public static class SearchResult {
+        private final List<String> contactIds;
+        private final long totalHits;
+
+        public SearchResult(List<String> contactIds, long totalHits) {
+            this.contactIds = contactIds;
+            this.totalHits = totalHits;
+        }
+
+        // Getters
+        public List<String> getContactIds() { return contactIds; }
+        public long getTotalHits() { return totalHits; }
+    }
+}
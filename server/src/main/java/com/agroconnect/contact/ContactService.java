@@ -1,19 +1,44 @@
 package com.agroconnect.contact;
 
+import com.agroconnect.dto.BulkOperationResult;
+import com.agroconnect.dto.ContactFilter;
 import com.agroconnect.dto.ContactRequest;
 import com.agroconnect.model.Contact;
+import com.agroconnect.model.OutboxEvent;
 import com.agroconnect.repository.ContactRepository;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service layer for contact form operations
@@ -27,11 +52,21 @@ public class ContactService {
 
     private static final Logger logger = LoggerFactory.getLogger(ContactService.class);
 
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int BULK_DELETE_CHUNK_SIZE = 1000;
+
     private final ContactRepository contactRepository;
+    private final ContactSearchIndex searchIndex;
+    private final MongoTemplate mongoTemplate;
+
+    private volatile LocalDateTime lastIndexSync;
 
     @Autowired
-    public ContactService(ContactRepository contactRepository) {
+    public ContactService(ContactRepository contactRepository, ContactSearchIndex searchIndex,
+                          MongoTemplate mongoTemplate) {
         this.contactRepository = contactRepository;
+        this.searchIndex = searchIndex;
+        this.mongoTemplate = mongoTemplate;
     }
 
     /**
@@ -41,6 +76,23 @@ public class ContactService {
         logger.info("Saving new contact form submission for email: {}", contactRequest.getEmail());
 
         // Create new contact entity
+        Contact contact = toContact(contactRequest);
+        contact.setIpAddress(ipAddress);
+        contact.setUserAgent(userAgent);
+
+        // Save to database; follow-up notifications go to the outbox in the same transaction
+        Contact savedContact = contactRepository.save(contact);
+        enqueueNotifications(savedContact);
+        afterCommit(() -> searchIndex.index(savedContact));
+        logger.info("Contact form saved successfully with ID: {}", savedContact.getId());
+
+        return savedContact;
+    }
+
+    /**
+     * Map a contact form request to a new contact entity
+     */
+    static Contact toContact(ContactRequest contactRequest) {
         Contact contact = new Contact();
         contact.setFirstName(contactRequest.getFirstName());
         contact.setLastName(contactRequest.getLastName());
@@ -54,17 +106,10 @@ public class ContactService {
         contact.setLocation(contactRequest.getLocation());
         contact.setPreferredContactMethod(contactRequest.getPreferredContactMethod());
         contact.setNewsletterSubscription(contactRequest.isNewsletterSubscription());
-        contact.setIpAddress(ipAddress);
-        contact.setUserAgent(userAgent);
         contact.setStatus("NEW");
         contact.setCreatedAt(LocalDateTime.now());
         contact.setUpdatedAt(LocalDateTime.now());
-
-        // Save to database
-        Contact savedContact = contactRepository.save(contact);
-        logger.info("Contact form saved successfully with ID: {}", savedContact.getId());
-
-        return savedContact;
+        return contact;
     }
 
     /**
@@ -104,21 +149,26 @@ public class ContactService {
     }
 
     /**
-     * Search contacts by term
+     * Search contacts by term, best matches first
      */
     @Transactional(readOnly = true)
     public List<Contact> searchContacts(String searchTerm) {
         logger.debug("Searching contacts with term: {}", searchTerm);
-        return contactRepository.findBySearchTerm(searchTerm);
+        return loadRanked(searchIndex.search(searchTerm, 0, MAX_SEARCH_RESULTS).getContactIds());
     }
 
     /**
-     * Search contacts by term with pagination
+     * Search contacts by term with pagination, best matches first
      */
     @Transactional(readOnly = true)
     public Page<Contact> searchContacts(String searchTerm, Pageable pageable) {
         logger.debug("Searching contacts with term: {} and pagination: {}", searchTerm, pageable);
-        return contactRepository.findBySearchTerm(searchTerm, pageable);
+        ContactSearchIndex.SearchResult result =
+                searchIndex.search(searchTerm, pageable.getOffset(), pageable.getPageSize());
+        List<Contact> contacts = loadRanked(result.getContactIds());
+        // Contacts deleted on other instances are dropped from the page, so drop them from the total too
+        long dropped = result.getContactIds().size() - contacts.size();
+        return new PageImpl<>(contacts, pageable, result.getTotalHits() - dropped);
     }
 
     /**
@@ -145,6 +195,120 @@ public class ContactService {
     public void deleteById(String id) {
         logger.info("Deleting contact with ID: {}", id);
         contactRepository.deleteById(id);
+        afterCommit(() -> searchIndex.remove(id));
+    }
+
+    /**
+     * Update the status of the given contacts with a single updateMany
+     */
+    public BulkOperationResult bulkUpdateStatus(List<String> ids, String status) {
+        List<String> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        logger.info("Bulk updating status of {} contacts to: {}", requested.size(), status);
+
+        Query lookup = new Query(Criteria.where("id").in(requested));
+        lookup.fields().include("status");
+        Map<String, String> currentStatus = new HashMap<>();
+        mongoTemplate.find(lookup, Contact.class)
+                .forEach(contact -> currentStatus.put(contact.getId(), contact.getStatus()));
+
+        List<String> toUpdate = new ArrayList<>();
+        List<BulkOperationResult.ItemResult> items = new ArrayList<>(requested.size());
+        for (String id : requested) {
+            String result;
+            if (!currentStatus.containsKey(id)) {
+                result = BulkOperationResult.NOT_FOUND;
+            } else if (status.equals(currentStatus.get(id))) {
+                result = BulkOperationResult.UNCHANGED;
+            } else {
+                result = BulkOperationResult.UPDATED;
+                toUpdate.add(id);
+            }
+            items.add(new BulkOperationResult.ItemResult(id, result));
+        }
+
+        long modified = 0;
+        if (!toUpdate.isEmpty()) {
+            // The status guard keeps the count honest if another request changed a contact in between
+            Query update = new Query(Criteria.where("id").in(toUpdate).and("status").ne(status));
+            modified = mongoTemplate.updateMulti(update, statusUpdate(status), Contact.class).getModifiedCount();
+        }
+
+        return new BulkOperationResult(currentStatus.size(), modified, items);
+    }
+
+    /**
+     * Update the status of every contact matching the filter with a single updateMany
+     */
+    public BulkOperationResult bulkUpdateStatus(ContactFilter filter, String status) {
+        logger.info("Bulk updating status of contacts matching {} to: {}", filter, status);
+
+        long matched = mongoTemplate.count(new Query(toCriteria(filter)), Contact.class);
+        Criteria pending = toCriteria(filter);
+        if (filter.getStatus() == null) {
+            pending.and("status").ne(status);
+        }
+        long modified = mongoTemplate.updateMulti(new Query(pending), statusUpdate(status), Contact.class)
+                .getModifiedCount();
+
+        return new BulkOperationResult(matched, modified, null);
+    }
+
+    /**
+     * Delete the given contacts with a single deleteMany
+     */
+    public BulkOperationResult bulkDelete(List<String> ids) {
+        List<String> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        logger.info("Bulk deleting {} contacts", requested.size());
+
+        Query lookup = new Query(Criteria.where("id").in(requested));
+        lookup.fields().include("id");
+        Set<String> existing = mongoTemplate.find(lookup, Contact.class).stream()
+                .map(Contact::getId)
+                .collect(Collectors.toSet());
+
+        long deleted = 0;
+        if (!existing.isEmpty()) {
+            deleted = mongoTemplate.remove(new Query(Criteria.where("id").in(existing)), Contact.class)
+                    .getDeletedCount();
+            afterCommit(() -> searchIndex.removeAll(existing));
+        }
+
+        List<BulkOperationResult.ItemResult> items = requested.stream()
+                .map(id -> new BulkOperationResult.ItemResult(id,
+                        existing.contains(id) ? BulkOperationResult.DELETED : BulkOperationResult.NOT_FOUND))
+                .toList();
+
+        return new BulkOperationResult(existing.size(), deleted, items);
+    }
+
+    /**
+     * Delete every contact matching the filter, in chunks so the search index stays in step
+     */
+    public BulkOperationResult bulkDelete(ContactFilter filter) {
+        logger.info("Bulk deleting contacts matching {}", filter);
+
+        Criteria criteria = toCriteria(filter);
+        long matched = 0;
+        long deleted = 0;
+        while (true) {
+            Query chunkQuery = new Query(criteria).limit(BULK_DELETE_CHUNK_SIZE);
+            chunkQuery.fields().include("id");
+            List<String> chunk = mongoTemplate.find(chunkQuery, Contact.class).stream()
+                    .map(Contact::getId)
+                    .toList();
+            if (chunk.isEmpty()) {
+                break;
+            }
+            matched += chunk.size();
+            deleted += mongoTemplate.remove(new Query(Criteria.where("id").in(chunk)), Contact.class)
+                    .getDeletedCount();
+            afterCommit(() -> searchIndex.removeAll(chunk));
+            if (chunk.size() < BULK_DELETE_CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        return new BulkOperationResult(matched, deleted, null);
     }
 
     /**
@@ -208,6 +372,174 @@ public class ContactService {
         return contactRepository.findByPreferredContactMethod(method);
     }
 
+    /**
+     * Rebuild the contact search index from the database once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        // Build off to the side so searches keep hitting the old index until the new one is complete;
+        // contacts saved meanwhile are picked up by the next refresh, which starts from syncStart
+        ContactSearchIndex rebuilt = new ContactSearchIndex();
+        int indexed = indexContacts(new Query(), rebuilt);
+        searchIndex.swap(rebuilt);
+        lastIndexSync = syncStart;
+        logger.info("Contact search index built with {} contacts", indexed);
+    }
+
+    /**
+     * Pick up contacts written by other instances since the last sync
+     */
+    @Scheduled(fixedDelayString = "${contact.search.refresh-interval:60000}",
+               initialDelayString = "${contact.search.refresh-interval:60000}")
+    public void refreshSearchIndex() {
+        LocalDateTime since = lastIndexSync;
+        if (since == null) {
+            return;
+        }
+        LocalDateTime syncStart = LocalDateTime.now();
+        // Overlap the window slightly so writes racing the previous sync are not missed
+        int indexed = indexContacts(new Query(Criteria.where("updatedAt").gte(since.minusSeconds(5))), searchIndex);
+        lastIndexSync = syncStart;
+        logger.debug("Contact search index refreshed with {} updated contacts", indexed);
+    }
+
+    /**
+     * Write the outbox events for a new contact; the OutboxDispatcher delivers them later
+     * so the form POST never waits on email, CRM or newsletter providers.
+     *
+     * Each event is upserted on its idempotency key with $setOnInsert, so an event that was
+     * enqueued before is left alone instead of raising a duplicate key error, which would
+     * abort the surrounding transaction.
+     */
+    private void enqueueNotifications(Contact contact) {
+        List<OutboxEvent> events = notificationEvents(contact);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEvent.class);
+        for (OutboxEvent event : events) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(event, document);
+            Update insertOnly = new Update();
+            document.forEach(insertOnly::setOnInsert);
+            bulk.upsert(new Query(Criteria.where("idempotency_key").is(event.getIdempotencyKey())), insertOnly);
+        }
+        int enqueued = bulk.execute().getUpserts().size();
+        if (enqueued < events.size()) {
+            logger.debug("Notifications already enqueued for contact ID: {}", contact.getId());
+        }
+    }
+
+    /**
+     * Outbox events describing the follow-up work for a saved contact
+     */
+    static List<OutboxEvent> notificationEvents(Contact contact) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("contactId", contact.getId());
+        payload.put("firstName", contact.getFirstName());
+        payload.put("lastName", contact.getLastName());
+        payload.put("email", contact.getEmail());
+        payload.put("phone", contact.getPhone());
+        payload.put("subject", contact.getSubject());
+        payload.put("company", contact.getCompany());
+        payload.put("farmType", contact.getFarmType());
+        payload.put("location", contact.getLocation());
+        payload.put("preferredContactMethod", contact.getPreferredContactMethod());
+        payload.values().removeIf(Objects::isNull);
+
+        List<OutboxEvent> events = new ArrayList<>();
+        events.add(new OutboxEvent(contact.getId(), OutboxEvent.ACKNOWLEDGEMENT_EMAIL, payload));
+        events.add(new OutboxEvent(contact.getId(), OutboxEvent.CRM_PUSH, payload));
+        if (contact.isNewsletterSubscription()) {
+            events.add(new OutboxEvent(contact.getId(), OutboxEvent.NEWSLETTER_SUBSCRIPTION, payload));
+        }
+        return events;
+    }
+
+    private Update statusUpdate(String status) {
+        return new Update().set("status", status).set("updatedAt", LocalDateTime.now());
+    }
+
+    /**
+     * Translate a bulk filter into query criteria; an empty filter is rejected so a
+     * forgotten field cannot touch every contact
+     */
+    private Criteria toCriteria(ContactFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            throw new IllegalArgumentException("Filter must set at least one criterion");
+        }
+        Criteria criteria = new Criteria();
+        if (filter.getStatus() != null) {
+            criteria.and("status").is(filter.getStatus());
+        }
+        if (filter.getFarmType() != null) {
+            criteria.and("farmType").is(filter.getFarmType());
+        }
+        if (filter.getLocation() != null) {
+            criteria.and("location").is(filter.getLocation());
+        }
+        if (filter.getCreatedAfter() != null || filter.getCreatedBefore() != null) {
+            Criteria createdAt = criteria.and("createdAt");
+            if (filter.getCreatedAfter() != null) {
+                createdAt.gte(filter.getCreatedAfter());
+            }
+            if (filter.getCreatedBefore() != null) {
+                createdAt.lt(filter.getCreatedBefore());
+            }
+        }
+        return criteria;
+    }
+
+    private int indexContacts(Query query, ContactSearchIndex target) {
+        query.fields().include("firstName", "lastName", "email", "subject", "createdAt");
+        int indexed = 0;
+        try (Stream<Contact> contacts = mongoTemplate.stream(query, Contact.class)) {
+            for (Contact contact : (Iterable<Contact>) contacts::iterator) {
+                target.index(contact);
+                indexed++;
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * Apply a search index change once the surrounding transaction has committed, so a
+     * rollback cannot leave the index pointing at contacts that were never saved or
+     * missing ones that were never deleted. Without a transaction (the default, see
+     * notification.outbox.transactional) the write is already durable and it runs now.
+     */
+    private void afterCommit(Runnable indexChange) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexChange.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexChange.run();
+            }
+        });
+    }
+
+    /**
+     * Load contacts by ID keeping the given order; IDs deleted elsewhere are dropped from the index
+     */
+    private List<Contact> loadRanked(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Contact> byId = contactRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Contact::getId, Function.identity()));
+        List<Contact> ranked = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Contact contact = byId.get(id);
+            if (contact != null) {
+                ranked.add(contact);
+            } else {
+                searchIndex.remove(id);
+            }
+        }
+        return ranked;
+    }
+
     /**
      * Inner class for contact statistics
      */
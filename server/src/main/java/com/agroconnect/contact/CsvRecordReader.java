@@ -0,0 +1,146 @@
+package com.agroconnect.contact;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming CSV reader (RFC 4180): comma separated, fields optionally quoted,
+ * doubled quotes inside quoted fields, CRLF or LF line endings and line breaks inside
+ * quoted fields. Reads one record at a time so large files are never held in memory.
+ *
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+public class CsvRecordReader {
+
+    private static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next record, or null at end of input. Blank lines are skipped.
+     */
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            int first = peek();
+            if (first == -1) {
+                return null;
+            }
+            if (first == '\r' || first == '\n') {
+                consumeLineBreak();
+                continue;
+            }
+            break;
+        }
+
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLineNumber);
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    append(field, (char) c);
+                }
+                continue;
+            }
+
+            if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append(field, (char) c);
+                fieldStart = false;
+            }
+        }
+    }
+
+    /**
+     * Line on which the record last returned by {@link #readRecord()} started
+     */
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    private void append(StringBuilder field, char c) throws IOException {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IOException("Field longer than " + MAX_FIELD_LENGTH + " characters on line " + recordLineNumber);
+        }
+        field.append(c);
+    }
+
+    private void consumeLineBreak() throws IOException {
+        int c = read();
+        if (c == '\r' && peek() == '\n') {
+            read();
+        }
+        lineNumber++;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+}
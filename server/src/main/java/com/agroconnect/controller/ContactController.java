@@ -1,7 +1,10 @@
 package com.agroconnect.controller;
 
+import com.agroconnect.contact.ContactImportService;
 import com.agroconnect.contact.ContactService;
 import com.agroconnect.dto.ApiResponse;
+import com.agroconnect.dto.BulkContactRequest;
+import com.agroconnect.dto.BulkOperationResult;
 import com.agroconnect.dto.ContactRequest;
 import com.agroconnect.model.Contact;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,8 +17,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Optional;
@@ -34,10 +39,12 @@ public class ContactController {
     private static final Logger logger = LoggerFactory.getLogger(ContactController.class);
 
     private final ContactService contactService;
+    private final ContactImportService contactImportService;
 
     @Autowired
-    public ContactController(ContactService contactService) {
+    public ContactController(ContactService contactService, ContactImportService contactImportService) {
         this.contactService = contactService;
+        this.contactImportService = contactImportService;
     }
 
     /**
@@ -159,6 +166,27 @@ public class ContactController {
         }
     }
 
+    /**
+     * GET /api/contact/search/paged - Search contacts with pagination, best matches first
+     */
+    @GetMapping("/search/paged")
+    public ResponseEntity<ApiResponse<Page<Contact>>> searchContactsPaged(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        logger.debug("Searching contacts with query: {}, page={}, size={}", q, page, size);
+
+        try {
+            Page<Contact> contacts = contactService.searchContacts(q, PageRequest.of(page, size));
+            return ResponseEntity.ok(ApiResponse.success("Search completed successfully", contacts));
+
+        } catch (Exception e) {
+            logger.error("Error searching contacts with query: {}", q, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to search contacts"));
+        }
+    }
+
     /**
      * PUT /api/contact/{id}/status - Update contact status
      */
@@ -202,6 +230,106 @@ public class ContactController {
         }
     }
 
+    /**
+     * PUT /api/contact/bulk/status - Update the status of many contacts at once
+     */
+    @PutMapping("/bulk/status")
+    public ResponseEntity<ApiResponse<BulkOperationResult>> bulkUpdateStatus(
+            @Valid @RequestBody BulkContactRequest request) {
+
+        logger.info("Bulk status update request: {}", request);
+
+        try {
+            validateSelection(request);
+            if (request.getStatus() == null || request.getStatus().isBlank()) {
+                throw new IllegalArgumentException("Status is required");
+            }
+            BulkOperationResult result = request.getIds() != null
+                    ? contactService.bulkUpdateStatus(request.getIds(), request.getStatus())
+                    : contactService.bulkUpdateStatus(request.getFilter(), request.getStatus());
+            return ResponseEntity.ok(ApiResponse.success("Contact statuses updated successfully", result));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected bulk status update: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error bulk updating contact status", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to update contact statuses"));
+        }
+    }
+
+    /**
+     * POST /api/contact/bulk/delete - Delete many contacts at once
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<ApiResponse<BulkOperationResult>> bulkDelete(
+            @Valid @RequestBody BulkContactRequest request) {
+
+        logger.info("Bulk delete request: {}", request);
+
+        try {
+            validateSelection(request);
+            BulkOperationResult result = request.getIds() != null
+                    ? contactService.bulkDelete(request.getIds())
+                    : contactService.bulkDelete(request.getFilter());
+            return ResponseEntity.ok(ApiResponse.success("Contacts deleted successfully", result));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected bulk delete: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error bulk deleting contacts", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to delete contacts"));
+        }
+    }
+
+    /**
+     * POST /api/contact/import - Start a background import of a CSV or NDJSON lead file
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ContactImportService.ImportJob>> importContacts(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean notify) {
+
+        logger.info("Received contact import file: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+
+        try {
+            ContactImportService.ImportJob job = contactImportService.startImport(file, format, notify);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Contact import started", job));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected contact import: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error starting contact import", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to start contact import"));
+        }
+    }
+
+    /**
+     * GET /api/contact/import/{jobId} - Get the progress of a contact import
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ApiResponse<ContactImportService.ImportJob>> getImportJob(@PathVariable String jobId) {
+        logger.debug("Getting contact import job: {}", jobId);
+
+        Optional<ContactImportService.ImportJob> job = contactImportService.getJob(jobId);
+        if (job.isPresent()) {
+            return ResponseEntity.ok(ApiResponse.success("Import job retrieved successfully", job.get()));
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Import job not found with ID: " + jobId));
+        }
+    }
+
     /**
      * GET /api/contact/statistics - Get contact statistics
      */
@@ -308,4 +436,18 @@ public class ContactController {
         
         return request.getRemoteAddr();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Bulk requests must select contacts either by ID or by filter, not both
+     */
+    private void validateSelection(BulkContactRequest request) {
+        boolean hasIds = request.getIds() != null;
+        boolean hasFilter = request.getFilter() != null;
+        if (hasIds == hasFilter) {
+            throw new IllegalArgumentException("Provide either ids or filter");
+        }
+        if (hasIds && request.getIds().isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+    }
+}
@@ -2,17 +2,25 @@ package com.agroconnect.controller;
 
 import com.agroconnect.dto.ApiResponse;
 import com.agroconnect.products.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * REST controller for product management operations
+ *
+ * Every response carries the ETag of the catalog snapshot it was built from. Conditional
+ * GETs are answered with 304 before the catalog is queried or anything is serialised.
  * 
  * @author AgroConnect Team
  * @version 1.0.0
@@ -24,6 +32,13 @@ public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    // Browsing lists and single products; clients revalidate once stale, usually getting a 304
+    private static final CacheControl CATALOG_CACHE = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic().mustRevalidate();
+    // Search and price filters vary per query, so cache them for a shorter time
+    private static final CacheControl QUERY_CACHE = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic().mustRevalidate();
+    // Aggregates that only move when products are added or removed
+    private static final CacheControl SUMMARY_CACHE = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic().mustRevalidate();
+
     private final ProductService productService;
 
     @Autowired
@@ -35,12 +50,17 @@ public class ProductController {
      * GET /api/products - Get all products
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ProductService.Product>>> getAllProducts() {
+    public ResponseEntity<ApiResponse<List<ProductService.Product>>> getAllProducts(ServletWebRequest request) {
         logger.debug("Getting all products");
 
+        String etag = productService.getCatalog().getETag();
+        if (notModified(request, etag, CATALOG_CACHE)) {
+            return null;
+        }
+
         try {
             List<ProductService.Product> products = productService.getAllProducts();
-            return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+            return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(ApiResponse.success("Products retrieved successfully", products));
         } catch (Exception e) {
             logger.error("Error retrieving products: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -52,14 +72,19 @@ public class ProductController {
      * GET /api/products/{id} - Get product by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ProductService.Product>> getProductById(@PathVariable String id) {
+    public ResponseEntity<ApiResponse<ProductService.Product>> getProductById(@PathVariable String id, ServletWebRequest request) {
         logger.debug("Getting product by ID: {}", id);
 
+        String etag = productService.getCatalog().getETag();
+        if (notModified(request, etag, CATALOG_CACHE)) {
+            return null;
+        }
+
         try {
             Optional<ProductService.Product> product = productService.getProductById(id);
             
             if (product.isPresent()) {
-                return ResponseEntity.ok(ApiResponse.success("Product retrieved successfully", product.get()));
+                return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(ApiResponse.success("Product retrieved successfully", product.get()));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -74,12 +99,17 @@ public class ProductController {
      * GET /api/products/category/{category} - Get products by category
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<ApiResponse<List<ProductService.Product>>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<ApiResponse<List<ProductService.Product>>> getProductsByCategory(@PathVariable String category, ServletWebRequest request) {
         logger.debug("Getting products by category: {}", category);
 
+        String etag = productService.getCatalog().getETag();
+        if (notModified(request, etag, CATALOG_CACHE)) {
+            return null;
+        }
+
         try {
             List<ProductService.Product> products = productService.getProductsByCategory(category);
-            return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+            return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(ApiResponse.success("Products retrieved successfully", products));
         } catch (Exception e) {
             logger.error("Error retrieving products by category: {}", category, e);
             return ResponseEntity.internalServerError()
@@ -91,12 +121,17 @@ public class ProductController {
      * GET /api/products/availability/{availability} - Get products by availability
      */
     @GetMapping("/availability/{availability}")
-    public ResponseEntity<ApiResponse<List<ProductService.Product>>> getProductsByAvailability(@PathVariable String availability) {
+    public ResponseEntity<ApiResponse<List<ProductService.Product>>> getProductsByAvailability(@PathVariable String availability, ServletWebRequest request) {
         logger.debug("Getting products by availability: {}", availability);
 
+        String etag = productService.getCatalog().getETag();
+        if (notModified(request, etag, CATALOG_CACHE)) {
+            return null;
+        }
+
         try {
             List<ProductService.Product> products = productService.getProductsByAvailability(availability);
-            return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+            return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(ApiResponse.success("Products retrieved successfully", products));
         } catch (Exception e) {
             logger.error("Error retrieving products by availability: {}", availability, e);
             return ResponseEntity.internalServerError()
@@ -108,12 +143,17 @@ public class ProductController {
      * GET /api/products/search - Search products
      */
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<ProductService.Product>>> searchProducts(@RequestParam String q) {
+    public ResponseEntity<ApiResponse<List<ProductService.Product>>> searchProducts(@RequestParam String q, ServletWebRequest request) {
         logger.debug("Searching products with query: {}", q);
 
+        String etag = productService.getCatalog().getETag();
+        if (notModified(request, etag, QUERY_CACHE)) {
+            return null;
+        }
+
         try {
             List<ProductService.Product> products = productService.searchProducts(q);
-            return ResponseEntity.ok(ApiResponse.success("Products search completed successfully", products));
+            return ResponseEntity.ok().cacheControl(QUERY_CACHE).body(ApiResponse.success("Products search completed successfully", products));
         } catch (Exception e) {
             logger.error("Error searching products with query: {}", q, e);
             return ResponseEntity.internalServerError()
@@ -125,12 +165,17 @@ public class ProductController {
      * GET /api/products/categories - Get all product categories
      */
     @GetMapping("/categories")
-    public ResponseEntity<ApiResponse<List<String>>> getProductCategories() {
+    public ResponseEntity<ApiResponse<List<String>>> getProductCategories(ServletWebRequest request) {
         logger.debug("Getting product categories");
 
+        String etag = productService.getCatalog().getETag();
+        if (notModified(request, etag, SUMMARY_CACHE)) {
+            return null;
+        }
+
         try {
             List<String> categories = productService.getProductCategories();
-            return ResponseEntity.ok(ApiResponse.success("Product categories retrieved successfully", categories));
+            return ResponseEntity.ok().cacheControl(SUMMARY_CACHE).body(ApiResponse.success("Product categories retrieved successfully", categories));
         } catch (Exception e) {
             logger.error("Error retrieving product categories: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -142,12 +187,17 @@ public class ProductController {
      * GET /api/products/featured - Get featured products
      */
     @GetMapping("/featured")
-    public ResponseEntity<ApiResponse<List<ProductService.Product>>> getFeaturedProducts() {
+    public ResponseEntity<ApiResponse<List<ProductService.Product>>> getFeaturedProducts(ServletWebRequest request) {
         logger.debug("Getting featured products");
 
+        String etag = productService.getCatalog().getETag();
+        if (notModified(request, etag, CATALOG_CACHE)) {
+            return null;
+        }
+
         try {
             List<ProductService.Product> products = productService.getFeaturedProducts();
-            return ResponseEntity.ok(ApiResponse.success("Featured products retrieved successfully", products));
+            return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(ApiResponse.success("Featured products retrieved successfully", products));
         } catch (Exception e) {
             logger.error("Error retrieving featured products: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -161,12 +211,18 @@ public class ProductController {
     @GetMapping("/price-range")
     public ResponseEntity<ApiResponse<List<ProductService.Product>>> getProductsByPriceRange(
             @RequestParam double minPrice,
-            @RequestParam double maxPrice) {
+            @RequestParam double maxPrice,
+            ServletWebRequest request) {
         logger.debug("Getting products by price range: {} - {}", minPrice, maxPrice);
 
+        String etag = productService.getCatalog().getETag();
+        if (notModified(request, etag, QUERY_CACHE)) {
+            return null;
+        }
+
         try {
             List<ProductService.Product> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-            return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+            return ResponseEntity.ok().cacheControl(QUERY_CACHE).body(ApiResponse.success("Products retrieved successfully", products));
         } catch (Exception e) {
             logger.error("Error retrieving products by price range: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -178,16 +234,37 @@ public class ProductController {
      * GET /api/products/statistics - Get product statistics
      */
     @GetMapping("/statistics")
-    public ResponseEntity<ApiResponse<ProductService.ProductStatistics>> getProductStatistics() {
+    public ResponseEntity<ApiResponse<ProductService.ProductStatistics>> getProductStatistics(ServletWebRequest request) {
         logger.debug("Getting product statistics");
 
+        String etag = productService.getCatalog().getETag();
+        if (notModified(request, etag, SUMMARY_CACHE)) {
+            return null;
+        }
+
         try {
             ProductService.ProductStatistics statistics = productService.getProductStatistics();
-            return ResponseEntity.ok(ApiResponse.success("Product statistics retrieved successfully", statistics));
+            return ResponseEntity.ok().cacheControl(SUMMARY_CACHE).body(ApiResponse.success("Product statistics retrieved successfully", statistics));
         } catch (Exception e) {
             logger.error("Error retrieving product statistics: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
                     .body(ApiResponse.error("Failed to retrieve product statistics"));
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Answer a conditional GET from the catalog ETag alone. When the client's copy is current
+     * the 304 and its ETag are already written and the handler returns without a body; otherwise
+     * the ETag is set on the response and the handler carries on.
+     */
+    private boolean notModified(ServletWebRequest request, String etag, CacheControl cacheControl) {
+        if (!request.checkNotModified(etag)) {
+            return false;
+        }
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.agroconnect.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for bulk contact operations, selecting contacts either by ID or by filter
+ * 
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+public class BulkContactRequest {
+
+    @Size(max = 1000, message = "At most 1000 contact IDs can be sent per request")
+    private List<String> ids;
+
+    private ContactFilter filter;
+
+    // Target status, only used by bulk status updates
+    @Size(max = 50, message = "Status must not exceed 50 characters")
+    private String status;
+
+    // Default constructor
+    public BulkContactRequest() {}
+
+    // Getters and Setters
+    public List<String> getIds() { return ids; }
+    public void setIds(List<String> ids) { this.ids = ids; }
+
+    public ContactFilter getFilter() { return filter; }
+    public void setFilter(ContactFilter filter) { this.filter = filter; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    @Override
+    public String toString() {
+        return "BulkContactRequest{" +
+                "ids=" + (ids != null ? ids.size() + " IDs" : "null") +
+                ", filter=" + filter +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
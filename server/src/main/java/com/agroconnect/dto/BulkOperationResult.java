@@ -0,0 +1,53 @@
+package com.agroconnect.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk contact operation. Per-item results are only reported when
+ * contacts were selected by ID; filter-based operations report counts only.
+ * 
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOperationResult {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String UNCHANGED = "UNCHANGED";
+    public static final String DELETED = "DELETED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private final long matched;
+    private final long modified;
+    private final List<ItemResult> items;
+
+    public BulkOperationResult(long matched, long modified, List<ItemResult> items) {
+        this.matched = matched;
+        this.modified = modified;
+        this.items = items;
+    }
+
+    // Getters
+    public long getMatched() { return matched; }
+    public long getModified() { return modified; }
+    public List<ItemResult> getItems() { return items; }
+
+    /**
+     * Result for a single requested contact ID
+     */
+    public static class ItemResult {
+        private final String id;
+        private final String result;
+
+        public ItemResult(String id, String result) {
+            this.id = id;
+            this.result = result;
+        }
+
+        // Getters
+        public String getId() { return id; }
+        public String getResult() { return result; }
+    }
+}
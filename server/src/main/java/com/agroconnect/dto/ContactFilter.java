@@ -0,0 +1,60 @@
+package com.agroconnect.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criteria selecting contacts for bulk operations; all set fields must match
+ * 
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+public class ContactFilter {
+
+    private String status;
+
+    private String farmType;
+
+    private String location;
+
+    private LocalDateTime createdBefore;
+
+    private LocalDateTime createdAfter;
+
+    // Default constructor
+    public ContactFilter() {}
+
+    /**
+     * True when no criterion is set, i.e. the filter would match every contact
+     */
+    public boolean isEmpty() {
+        return status == null && farmType == null && location == null
+                && createdBefore == null && createdAfter == null;
+    }
+
+    // Getters and Setters
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getFarmType() { return farmType; }
+    public void setFarmType(String farmType) { this.farmType = farmType; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public LocalDateTime getCreatedBefore() { return createdBefore; }
+    public void setCreatedBefore(LocalDateTime createdBefore) { this.createdBefore = createdBefore; }
+
+    public LocalDateTime getCreatedAfter() { return createdAfter; }
+    public void setCreatedAfter(LocalDateTime createdAfter) { this.createdAfter = createdAfter; }
+
+    @Override
+    public String toString() {
+        return "ContactFilter{" +
+                "status='" + status + '\'' +
+                ", farmType='" + farmType + '\'' +
+                ", location='" + location + '\'' +
+                ", createdBefore=" + createdBefore +
+                ", createdAfter=" + createdAfter +
+                '}';
+    }
+}
@@ -89,6 +89,10 @@ public class Contact {
     @Field("user_agent")
     private String userAgent;
 
+    // Set on contacts created by a bulk import; imported emails are unique case-insensitively
+    @Field("import_job_id")
+    private String importJobId;
+
     @CreatedDate
     @Field("created_at")
     private LocalDateTime createdAt;
@@ -247,6 +251,14 @@ public class Contact {
         this.createdAt = createdAt;
     }
 
+    public String getImportJobId() {
+        return importJobId;
+    }
+
+    public void setImportJobId(String importJobId) {
+        this.importJobId = importJobId;
+    }
+
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
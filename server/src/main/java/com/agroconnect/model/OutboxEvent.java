@@ -0,0 +1,136 @@
+package com.agroconnect.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Follow-up work for a contact submission, written in the same transaction as the
+ * contact and delivered later by the OutboxDispatcher
+ * 
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Document(collection = "outbox_events")
+public class OutboxEvent {
+
+    // Event types
+    public static final String ACKNOWLEDGEMENT_EMAIL = "ACKNOWLEDGEMENT_EMAIL";
+    public static final String CRM_PUSH = "CRM_PUSH";
+    public static final String NEWSLETTER_SUBSCRIPTION = "NEWSLETTER_SUBSCRIPTION";
+
+    // Statuses
+    public static final String PENDING = "PENDING";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    private String id;
+
+    // Unique per contact and event type, also passed to sinks so downstream systems can dedupe
+    @Field("idempotency_key")
+    private String idempotencyKey;
+
+    @Field("contact_id")
+    private String contactId;
+
+    @Field("type")
+    private String type;
+
+    @Field("payload")
+    private Map<String, Object> payload;
+
+    @Field("status")
+    private String status;
+
+    @Field("attempts")
+    private int attempts;
+
+    @Field("next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // Claim lease; a PROCESSING event whose lease has expired is picked up again
+    @Field("locked_until")
+    private LocalDateTime lockedUntil;
+
+    // Set when claimed so a worker only acknowledges events it still owns
+    @Field("claim_token")
+    private String claimToken;
+
+    @Field("last_error")
+    private String lastError;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @Field("processed_at")
+    private LocalDateTime processedAt;
+
+    // Default constructor
+    public OutboxEvent() {}
+
+    public OutboxEvent(String contactId, String type, Map<String, Object> payload) {
+        this.contactId = contactId;
+        this.type = type;
+        this.payload = payload;
+        this.idempotencyKey = contactId + ":" + type;
+        this.status = PENDING;
+        this.attempts = 0;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public String getContactId() { return contactId; }
+    public void setContactId(String contactId) { this.contactId = contactId; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Map<String, Object> getPayload() { return payload; }
+    public void setPayload(Map<String, Object> payload) { this.payload = payload; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil = lockedUntil; }
+
+    public String getClaimToken() { return claimToken; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id='" + id + '\'' +
+                ", idempotencyKey='" + idempotencyKey + '\'' +
+                ", status='" + status + '\'' +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
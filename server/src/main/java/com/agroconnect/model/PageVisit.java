@@ -21,20 +21,17 @@ public class PageVisit {
     private String id;
 
     @NotBlank(message = "Page URL is required")
-    @Indexed
     private String pageUrl;
 
     @NotBlank(message = "Page title is required")
     private String pageTitle;
 
     @NotBlank(message = "Page category is required")
-    @Indexed
     private String pageCategory;
 
     private String userId; // Optional - for logged-in users
 
     @NotBlank(message = "Session ID is required")
-    @Indexed
     private String sessionId;
 
     @NotBlank(message = "IP address is required")
@@ -0,0 +1,31 @@
+package com.agroconnect.notification;
+
+import com.agroconnect.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs acknowledgement emails instead of sending them. Set
+ * notification.sinks.acknowledgement-email to another value to swap in a real mail sink.
+ * 
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sinks.acknowledgement-email", havingValue = "log", matchIfMissing = true)
+public class LoggingAcknowledgementEmailSink implements NotificationSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingAcknowledgementEmailSink.class);
+
+    @Override
+    public String getEventType() {
+        return OutboxEvent.ACKNOWLEDGEMENT_EMAIL;
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        logger.info("Acknowledgement email [{}]: {}", event.getIdempotencyKey(), event.getPayload().get("email"));
+    }
+}
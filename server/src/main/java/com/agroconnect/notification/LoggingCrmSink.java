@@ -0,0 +1,30 @@
+package com.agroconnect.notification;
+
+import com.agroconnect.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in CRM integration that only logs the lead
+ * 
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sinks.crm", havingValue = "log", matchIfMissing = true)
+public class LoggingCrmSink implements NotificationSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingCrmSink.class);
+
+    @Override
+    public String getEventType() {
+        return OutboxEvent.CRM_PUSH;
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        logger.info("CRM push [{}]: {}", event.getIdempotencyKey(), event.getPayload().get("email"));
+    }
+}
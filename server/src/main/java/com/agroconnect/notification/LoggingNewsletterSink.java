@@ -0,0 +1,30 @@
+package com.agroconnect.notification;
+
+import com.agroconnect.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs newsletter sign-ups until a mailing list provider is wired in
+ * 
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sinks.newsletter", havingValue = "log", matchIfMissing = true)
+public class LoggingNewsletterSink implements NotificationSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingNewsletterSink.class);
+
+    @Override
+    public String getEventType() {
+        return OutboxEvent.NEWSLETTER_SUBSCRIPTION;
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        logger.info("Newsletter subscription [{}]: {}", event.getIdempotencyKey(), event.getPayload().get("email"));
+    }
+}
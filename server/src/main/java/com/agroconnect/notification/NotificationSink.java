@@ -0,0 +1,26 @@
+package com.agroconnect.notification;
+
+import com.agroconnect.model.OutboxEvent;
+
+/**
+ * Destination for one type of contact follow-up (acknowledgement email, CRM push, ...).
+ *
+ * Delivery is at-least-once: an event may be handed over again after a timeout or a
+ * crash, so implementations should pass {@link OutboxEvent#getIdempotencyKey()} on to
+ * the downstream system or otherwise tolerate repeats. Throwing schedules a retry.
+ *
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+public interface NotificationSink {
+
+    /**
+     * Outbox event type handled by this sink
+     */
+    String getEventType();
+
+    /**
+     * Deliver one event to the downstream system
+     */
+    void deliver(OutboxEvent event) throws Exception;
+}
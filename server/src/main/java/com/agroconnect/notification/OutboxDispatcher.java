@@ -0,0 +1,201 @@
+package com.agroconnect.notification;
+
+import com.agroconnect.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Background delivery of contact outbox events to their notification sinks.
+ *
+ * Each poll claims a batch of due events with a lease and a claim token, delivers
+ * them, then acknowledges the successes with one update. Failed events are retried
+ * with exponential backoff and jitter until they run out of attempts. Events whose
+ * lease expires (e.g. the instance died mid-batch) are claimed again, so delivery
+ * is at-least-once.
+ *
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, NotificationSink> sinks = new HashMap<>();
+
+    @Value("${notification.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.initial-backoff:2000}")
+    private long initialBackoffMillis;
+
+    @Value("${notification.outbox.max-backoff:600000}")
+    private long maxBackoffMillis;
+
+    @Value("${notification.outbox.lease:60000}")
+    private long leaseMillis;
+
+    @Autowired
+    public OutboxDispatcher(MongoTemplate mongoTemplate, List<NotificationSink> sinks) {
+        this.mongoTemplate = mongoTemplate;
+        for (NotificationSink sink : sinks) {
+            NotificationSink previous = this.sinks.put(sink.getEventType(), sink);
+            if (previous != null) {
+                throw new IllegalStateException("Multiple notification sinks for event type " + sink.getEventType()
+                        + ": " + previous.getClass().getName() + ", " + sink.getClass().getName());
+            }
+        }
+        logger.info("Outbox dispatcher registered sinks for {}", this.sinks.keySet());
+    }
+
+    /**
+     * Deliver the next batch of due events
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval:1000}")
+    public void dispatch() {
+        String claimToken = UUID.randomUUID().toString();
+        List<OutboxEvent> batch;
+        try {
+            batch = claimBatch(claimToken);
+        } catch (Exception e) {
+            logger.error("Failed to claim outbox events: {}", e.getMessage(), e);
+            return;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<String> delivered = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            NotificationSink sink = sinks.get(event.getType());
+            try {
+                if (sink == null) {
+                    throw new IllegalStateException("No notification sink for event type " + event.getType());
+                }
+                sink.deliver(event);
+                delivered.add(event.getId());
+            } catch (Exception e) {
+                scheduleRetry(event, claimToken, e);
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            Query owned = new Query(Criteria.where("id").in(delivered).and("claimToken").is(claimToken));
+            Update done = new Update()
+                    .set("status", OutboxEvent.DONE)
+                    .set("processedAt", LocalDateTime.now())
+                    .unset("lockedUntil")
+                    .unset("claimToken")
+                    .unset("lastError");
+            mongoTemplate.updateMulti(owned, done, OutboxEvent.class);
+        }
+        logger.debug("Outbox batch of {} events: {} delivered, {} to retry",
+                batch.size(), delivered.size(), batch.size() - delivered.size());
+    }
+
+    /**
+     * Claim up to one batch of events: first those whose lease expired, then pending events that are due
+     */
+    private List<OutboxEvent> claimBatch(String claimToken) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Query expired = new Query(Criteria.where("status").is(OutboxEvent.PROCESSING).and("lockedUntil").lt(now))
+                .limit(batchSize);
+        expired.fields().include("id");
+        List<String> candidates = new ArrayList<>();
+        mongoTemplate.find(expired, OutboxEvent.class).forEach(event -> candidates.add(event.getId()));
+
+        if (candidates.size() < batchSize) {
+            Query due = new Query(Criteria.where("status").is(OutboxEvent.PENDING).and("nextAttemptAt").lte(now))
+                    .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"))
+                    .limit(batchSize - candidates.size());
+            due.fields().include("id");
+            mongoTemplate.find(due, OutboxEvent.class).forEach(event -> candidates.add(event.getId()));
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // Re-check claimability in the update so concurrent dispatchers never claim the same event twice
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(OutboxEvent.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(OutboxEvent.PROCESSING).and("lockedUntil").lt(now));
+        Update claim = new Update()
+                .set("status", OutboxEvent.PROCESSING)
+                .set("lockedUntil", now.plusNanos(leaseMillis * 1_000_000))
+                .set("claimToken", claimToken)
+                .inc("attempts", 1);
+        mongoTemplate.updateMulti(new Query(new Criteria().andOperator(Criteria.where("id").in(candidates), claimable)),
+                claim, OutboxEvent.class);
+
+        return mongoTemplate.find(new Query(Criteria.where("claimToken").is(claimToken)), OutboxEvent.class);
+    }
+
+    private void scheduleRetry(OutboxEvent event, String claimToken, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        Update update = new Update()
+                .set("lastError", message)
+                .unset("lockedUntil")
+                .unset("claimToken");
+        if (event.getAttempts() >= maxAttempts) {
+            logger.error("Giving up on outbox event {} after {} attempts: {}",
+                    event.getIdempotencyKey(), event.getAttempts(), message);
+            update.set("status", OutboxEvent.FAILED);
+        } else {
+            long delay = backoffMillis(event.getAttempts());
+            logger.warn("Outbox event {} failed on attempt {}, retrying in {} ms: {}",
+                    event.getIdempotencyKey(), event.getAttempts(), delay, message);
+            update.set("status", OutboxEvent.PENDING)
+                  .set("nextAttemptAt", LocalDateTime.now().plusNanos(delay * 1_000_000));
+        }
+
+        try {
+            Query owned = new Query(Criteria.where("id").is(event.getId()).and("claimToken").is(claimToken));
+            mongoTemplate.updateFirst(owned, update, OutboxEvent.class);
+        } catch (Exception e) {
+            // The lease will expire and the event will be picked up again
+            logger.error("Failed to record retry for outbox event {}: {}", event.getIdempotencyKey(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Exponential backoff capped at the maximum, with the upper half randomised so
+     * events that failed together do not all retry at the same instant
+     */
+    private long backoffMillis(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        long delay = Math.min(maxBackoffMillis, initialBackoffMillis << exponent);
+        if (delay <= 1) {
+            return Math.max(delay, 0);
+        }
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+}
@@ -0,0 +1,288 @@
+package com.agroconnect.products;
+
+import com.agroconnect.products.ProductService.Product;
+import com.agroconnect.products.ProductService.ProductStatistics;
+import com.agroconnect.search.Tokens;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable, fully indexed snapshot of the product catalog.
+ *
+ * Built once per catalog change and published by ProductService through a volatile
+ * reference, so readers never lock and never see a half-built index. Every lookup
+ * returns a precomputed, unmodifiable list or a view of one.
+ *
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+public final class ProductCatalog {
+
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private static final ProductCatalog EMPTY = new ProductCatalog(List.of(), 0L, "empty");
+
+    private final long version;
+    private final String etag;
+    private final List<Product> products;
+    private final Map<String, Product> byId;
+    private final Map<String, List<Product>> byCategory;
+    private final Map<String, List<Product>> byAvailability;
+    private final List<Product> byPrice;
+    private final double[] sortedPrices;
+    private final List<String> categories;
+    private final List<Product> featured;
+    private final ProductStatistics statistics;
+
+    // search term -> positions (in products) of the products containing it; name terms tracked separately for ranking
+    private final NavigableMap<String, int[]> terms;
+    private final NavigableMap<String, int[]> nameTerms;
+
+    private ProductCatalog(List<Product> source, long version, String revision) {
+        this.version = version;
+        this.etag = "\"catalog-" + revision + "\"";
+        this.products = List.copyOf(source);
+
+        Map<String, Product> ids = new LinkedHashMap<>();
+        Map<String, List<Product>> categoryIndex = new LinkedHashMap<>();
+        Map<String, List<Product>> availabilityIndex = new LinkedHashMap<>();
+        LinkedHashSet<String> categoryNames = new LinkedHashSet<>();
+        List<Product> featuredProducts = new ArrayList<>();
+        long available = 0;
+        long highPriority = 0;
+        double priceSum = 0;
+
+        for (Product product : products) {
+            ids.put(product.getId(), product);
+            if (product.getCategory() != null) {
+                categoryIndex.computeIfAbsent(fold(product.getCategory()), key -> new ArrayList<>()).add(product);
+                categoryNames.add(product.getCategory());
+            }
+            if (product.getAvailability() != null) {
+                availabilityIndex.computeIfAbsent(fold(product.getAvailability()), key -> new ArrayList<>()).add(product);
+            }
+            if ("Available".equals(product.getAvailability())) {
+                available++;
+            }
+            if ("High".equals(product.getPriority())) {
+                highPriority++;
+                featuredProducts.add(product);
+            }
+            priceSum += product.getPrice();
+        }
+
+        Product[] priceOrder = products.toArray(new Product[0]);
+        Arrays.sort(priceOrder, Comparator.comparingDouble(Product::getPrice));
+        this.sortedPrices = new double[priceOrder.length];
+        for (int i = 0; i < priceOrder.length; i++) {
+            sortedPrices[i] = priceOrder[i].getPrice();
+        }
+
+        this.byId = Collections.unmodifiableMap(ids);
+        this.byCategory = freeze(categoryIndex);
+        this.byAvailability = freeze(availabilityIndex);
+        this.byPrice = List.of(priceOrder);
+        this.categories = List.copyOf(categoryNames);
+        this.featured = List.copyOf(featuredProducts);
+        this.statistics = new ProductStatistics(products.size(), available, highPriority,
+                products.isEmpty() ? 0.0 : priceSum / products.size());
+
+        Map<String, List<Integer>> allTerms = new TreeMap<>();
+        Map<String, List<Integer>> nameOnly = new TreeMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            Set<String> nameTokens = new HashSet<>(Tokens.tokenize(product.getName()));
+            Set<String> tokens = new HashSet<>(nameTokens);
+            tokens.addAll(Tokens.tokenize(product.getDescription()));
+            for (String token : tokens) {
+                allTerms.computeIfAbsent(token, key -> new ArrayList<>()).add(i);
+            }
+            for (String token : nameTokens) {
+                nameOnly.computeIfAbsent(token, key -> new ArrayList<>()).add(i);
+            }
+        }
+        this.terms = postings(allTerms);
+        this.nameTerms = postings(nameOnly);
+    }
+
+    /**
+     * Build a snapshot of the given products
+     */
+    public static ProductCatalog of(List<Product> products, long version) {
+        return new ProductCatalog(products, version, "v" + version);
+    }
+
+    /**
+     * Build a snapshot whose ETag is derived from a revision that identifies the catalog
+     * contents across instances and restarts, unlike the local version counter
+     */
+    public static ProductCatalog of(List<Product> products, long version, String revision) {
+        return new ProductCatalog(products, version, revision);
+    }
+
+    /**
+     * Snapshot with no products, used until the first load completes
+     */
+    public static ProductCatalog empty() {
+        return EMPTY;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Strong entity tag for every catalog response built from this snapshot
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public Optional<Product> findById(String id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public List<Product> findByCategory(String category) {
+        return category == null ? List.of() : byCategory.getOrDefault(fold(category), List.of());
+    }
+
+    public List<Product> findByAvailability(String availability) {
+        return availability == null ? List.of() : byAvailability.getOrDefault(fold(availability), List.of());
+    }
+
+    /**
+     * Products priced within [minPrice, maxPrice], cheapest first
+     */
+    public List<Product> findByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice > maxPrice) {
+            return List.of();
+        }
+        int from = lowerBound(minPrice);
+        int to = upperBound(maxPrice);
+        return from < to ? byPrice.subList(from, to) : List.of();
+    }
+
+    /**
+     * Products whose name or description contains every query word, either whole or as
+     * a word prefix; products matching more words in the name come first
+     */
+    public List<Product> search(String query) {
+        List<String> queryTerms = Tokens.tokenize(query).stream().distinct().limit(MAX_QUERY_TERMS).toList();
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Integer> matches = null;
+        Map<Integer, Integer> nameHits = new HashMap<>();
+        for (String term : queryTerms) {
+            Set<Integer> termMatches = new HashSet<>();
+            prefixRange(terms, term).values().forEach(positions -> {
+                for (int position : positions) {
+                    termMatches.add(position);
+                }
+            });
+            Set<Integer> nameMatches = new HashSet<>();
+            prefixRange(nameTerms, term).values().forEach(positions -> {
+                for (int position : positions) {
+                    nameMatches.add(position);
+                }
+            });
+            nameMatches.forEach(position -> nameHits.merge(position, 1, Integer::sum));
+
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.retainAll(termMatches);
+            }
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        return matches.stream()
+                .sorted(Comparator.<Integer>comparingInt(position -> nameHits.getOrDefault(position, 0)).reversed()
+                        .thenComparingInt(position -> position))
+                .map(products::get)
+                .toList();
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public List<Product> getFeatured() {
+        return featured;
+    }
+
+    public ProductStatistics getStatistics() {
+        return statistics;
+    }
+
+    // First index whose price is >= value
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First index whose price is > value
+    private int upperBound(double value) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static NavigableMap<String, int[]> prefixRange(NavigableMap<String, int[]> index, String prefix) {
+        return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static NavigableMap<String, int[]> postings(Map<String, List<Integer>> index) {
+        TreeMap<String, int[]> frozen = new TreeMap<>();
+        index.forEach((term, positions) -> frozen.put(term, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return Collections.unmodifiableNavigableMap(frozen);
+    }
+
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, List<Product>> freeze(Map<String, List<Product>> index) {
+        Map<String, List<Product>> frozen = new LinkedHashMap<>();
+        index.forEach((key, values) -> frozen.put(key, List.copyOf(values)));
+        return Collections.unmodifiableMap(frozen);
+    }
+}
@@ -1,14 +1,27 @@
 package com.agroconnect.products;
 
+import com.agroconnect.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Service for product management functionality
+ * Service for product management functionality.
+ *
+ * Products live in MongoDB and are served from an in-memory ProductCatalog snapshot,
+ * which is rebuilt and swapped in whenever the collection changes.
  * 
  * @author AgroConnect Team
  * @version 1.0.0
@@ -18,24 +31,25 @@ public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
+    private final ProductRepository productRepository;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private volatile ProductCatalog catalog = ProductCatalog.empty();
+    // Product count and latest update time of the loaded snapshot; a change in either means it is stale
+    private volatile long loadedCount = -1;
+    private volatile LocalDateTime loadedLastUpdate;
+
+    @Autowired
+    public ProductService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
     /**
      * Get all products
      */
     public List<Product> getAllProducts() {
         logger.debug("Getting all products");
-        // TODO: Implement product repository and database integration
-        return List.of(
-            new Product("1", "Smart Irrigation System", "Automated irrigation system with soil moisture sensors", 
-                       "Technology", 299.99, "Available", "High"),
-            new Product("2", "Organic Fertilizer", "Natural organic fertilizer for sustainable farming", 
-                       "Fertilizer", 49.99, "Available", "Medium"),
-            new Product("3", "Crop Monitoring Drone", "Drone with camera for crop monitoring and analysis", 
-                       "Technology", 899.99, "Available", "High"),
-            new Product("4", "Greenhouse Kit", "Complete greenhouse setup for year-round farming", 
-                       "Infrastructure", 599.99, "Available", "Medium"),
-            new Product("5", "Soil Testing Kit", "Comprehensive soil testing kit for pH and nutrient analysis", 
-                       "Tools", 79.99, "Available", "Low")
-        );
+        return catalog.getProducts();
     }
 
     /**
@@ -43,9 +57,7 @@ public class ProductService {
      */
     public Optional<Product> getProductById(String id) {
         logger.debug("Getting product by ID: {}", id);
-        return getAllProducts().stream()
-            .filter(product -> product.getId().equals(id))
-            .findFirst();
+        return catalog.findById(id);
     }
 
     /**
@@ -53,9 +65,7 @@ public class ProductService {
      */
     public List<Product> getProductsByCategory(String category) {
         logger.debug("Getting products by category: {}", category);
-        return getAllProducts().stream()
-            .filter(product -> product.getCategory().equalsIgnoreCase(category))
-            .toList();
+        return catalog.findByCategory(category);
     }
 
     /**
@@ -63,21 +73,15 @@ public class ProductService {
      */
     public List<Product> getProductsByAvailability(String availability) {
         logger.debug("Getting products by availability: {}", availability);
-        return getAllProducts().stream()
-            .filter(product -> product.getAvailability().equalsIgnoreCase(availability))
-            .toList();
+        return catalog.findByAvailability(availability);
     }
 
     /**
-     * Search products by name or description
+     * Search products by name or description, name matches first
      */
     public List<Product> searchProducts(String searchTerm) {
         logger.debug("Searching products with term: {}", searchTerm);
-        String lowerSearchTerm = searchTerm.toLowerCase();
-        return getAllProducts().stream()
-            .filter(product -> product.getName().toLowerCase().contains(lowerSearchTerm) ||
-                             product.getDescription().toLowerCase().contains(lowerSearchTerm))
-            .toList();
+        return catalog.search(searchTerm);
     }
 
     /**
@@ -85,10 +89,7 @@ public class ProductService {
      */
     public List<String> getProductCategories() {
         logger.debug("Getting product categories");
-        return getAllProducts().stream()
-            .map(Product::getCategory)
-            .distinct()
-            .toList();
+        return catalog.getCategories();
     }
 
     /**
@@ -96,9 +97,7 @@ public class ProductService {
      */
     public List<Product> getFeaturedProducts() {
         logger.debug("Getting featured products");
-        return getAllProducts().stream()
-            .filter(product -> "High".equals(product.getPriority()))
-            .toList();
+        return catalog.getFeatured();
     }
 
     /**
@@ -106,9 +105,7 @@ public class ProductService {
      */
     public List<Product> getProductsByPriceRange(double minPrice, double maxPrice) {
         logger.debug("Getting products by price range: {} - {}", minPrice, maxPrice);
-        return getAllProducts().stream()
-            .filter(product -> product.getPrice() >= minPrice && product.getPrice() <= maxPrice)
-            .toList();
+        return catalog.findByPriceRange(minPrice, maxPrice);
     }
 
     /**
@@ -116,22 +113,90 @@ public class ProductService {
      */
     public ProductStatistics getProductStatistics() {
         logger.debug("Getting product statistics");
-        List<Product> products = getAllProducts();
-        
-        long totalProducts = products.size();
-        long availableProducts = products.stream()
-            .filter(product -> "Available".equals(product.getAvailability()))
-            .count();
-        long highPriorityProducts = products.stream()
-            .filter(product -> "High".equals(product.getPriority()))
-            .count();
-        
-        double avgPrice = products.stream()
-            .mapToDouble(Product::getPrice)
-            .average()
-            .orElse(0.0);
-        
-        return new ProductStatistics(totalProducts, availableProducts, highPriorityProducts, avgPrice);
+        return catalog.getStatistics();
+    }
+
+    /**
+     * Current catalog snapshot
+     */
+    public ProductCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Seed the default products into an empty collection and load the first snapshot
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCatalog() {
+        try {
+            if (productRepository.count() == 0) {
+                productRepository.saveAll(defaultProducts());
+                logger.info("Seeded product catalog with default products");
+            }
+            reloadCatalog();
+        } catch (Exception e) {
+            logger.error("Failed to load product catalog: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Swap in a new snapshot when products were added, removed or updated since the last load
+     */
+    @Scheduled(fixedDelayString = "${products.catalog.refresh-interval:30000}",
+               initialDelayString = "${products.catalog.refresh-interval:30000}")
+    public void refreshCatalog() {
+        try {
+            if (productRepository.count() != loadedCount || !Objects.equals(lastUpdate(), loadedLastUpdate)) {
+                reloadCatalog();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to refresh product catalog: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load all products from the database and publish them as a new snapshot
+     */
+    public synchronized void reloadCatalog() {
+        long count = productRepository.count();
+        LocalDateTime lastUpdate = lastUpdate();
+        List<Product> products = productRepository.findAll().stream()
+            .map(ProductService::toProduct)
+            .sorted(Comparator.comparing(Product::getId))
+            .toList();
+        // Count plus latest update identifies the contents the same way on every instance
+        String revision = Long.toString(count, 36) + "-"
+            + (lastUpdate != null ? Long.toString(lastUpdate.toInstant(ZoneOffset.UTC).toEpochMilli(), 36) : "0");
+        catalog = ProductCatalog.of(products, catalogVersion.incrementAndGet(), revision);
+        loadedCount = count;
+        loadedLastUpdate = lastUpdate;
+        logger.info("Product catalog version {} loaded with {} products", catalog.getVersion(), products.size());
+    }
+
+    private LocalDateTime lastUpdate() {
+        return productRepository.findFirstByOrderByUpdatedAtDesc()
+            .map(com.agroconnect.model.Product::getUpdatedAt)
+            .orElse(null);
+    }
+
+    private static Product toProduct(com.agroconnect.model.Product document) {
+        return new Product(document.getId(), document.getName(), document.getDescription(),
+            document.getCategory(), document.getPrice(), document.getAvailability(), document.getPriority());
+    }
+
+    private static List<com.agroconnect.model.Product> defaultProducts() {
+        return List.of(
+            new com.agroconnect.model.Product("1", "Smart Irrigation System", "Automated irrigation system with soil moisture sensors", 
+                       "Technology", 299.99, "Available", "High"),
+            new com.agroconnect.model.Product("2", "Organic Fertilizer", "Natural organic fertilizer for sustainable farming", 
+                       "Fertilizer", 49.99, "Available", "Medium"),
+            new com.agroconnect.model.Product("3", "Crop Monitoring Drone", "Drone with camera for crop monitoring and analysis", 
+                       "Technology", 899.99, "Available", "High"),
+            new com.agroconnect.model.Product("4", "Greenhouse Kit", "Complete greenhouse setup for year-round farming", 
+                       "Infrastructure", 599.99, "Available", "Medium"),
+            new com.agroconnect.model.Product("5", "Soil Testing Kit", "Comprehensive soil testing kit for pH and nutrient analysis", 
+                       "Tools", 79.99, "Available", "Low")
+        );
     }
 
     /**
@@ -60,18 +60,6 @@ public interface ContactRepository extends MongoRepository<Contact, String> {
      */
     long countByNewsletterSubscription(boolean newsletterSubscription);
 
-    /**
-     * Find contacts with custom query for search functionality
-     */
-    @Query("{'$or': [{'firstName': {$regex: ?0, $options: 'i'}}, {'lastName': {$regex: ?0, $options: 'i'}}, {'email': {$regex: ?0, $options: 'i'}}, {'subject': {$regex: ?0, $options: 'i'}}]}")
-    List<Contact> findBySearchTerm(String searchTerm);
-
-    /**
-     * Find contacts with custom query for search functionality with pagination
-     */
-    @Query("{'$or': [{'firstName': {$regex: ?0, $options: 'i'}}, {'lastName': {$regex: ?0, $options: 'i'}}, {'email': {$regex: ?0, $options: 'i'}}, {'subject': {$regex: ?0, $options: 'i'}}]}")
-    Page<Contact> findBySearchTerm(String searchTerm, Pageable pageable);
-
     /**
      * Find contacts by farm type
      */
@@ -99,6 +87,13 @@ public interface ContactRepository extends MongoRepository<Contact, String> {
     @Query("{'company': {$regex: ?0, $options: 'i'}}")
     List<Contact> findByCompanyIgnoreCase(String company);
 
+    /**
+     * Find contacts whose company name equals the given one (case-insensitive),
+     * served by the company_ci collation index
+     */
+    @Query(value = "{'company': ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
+    List<Contact> findByCompanyEqualsIgnoreCase(String company);
+
     /**
      * Check if contact exists by email
      */
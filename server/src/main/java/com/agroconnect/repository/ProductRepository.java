@@ -0,0 +1,22 @@
+package com.agroconnect.repository;
+
+import com.agroconnect.model.Product;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for catalog products
+ * 
+ * @author AgroConnect Team
+ * @version 1.0.0
+ */
+@Repository
+public interface ProductRepository extends MongoRepository<Product, String> {
+
+    /**
+     * Most recently changed product, used to detect catalog changes
+     */
+    Optional<Product> findFirstByOrderByUpdatedAtDesc();
+}
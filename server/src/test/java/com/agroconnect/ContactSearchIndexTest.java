@@ -0,0 +1,105 @@
+package com.agroconnect;
+
+import com.agroconnect.contact.ContactSearchIndex;
+import com.agroconnect.model.Contact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactSearchIndexTest {
+
+    private ContactSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ContactSearchIndex();
+        searchIndex.index(contact("1", "David", "Miller", "david.miller@example.com", "Search Test", 1));
+        searchIndex.index(contact("2", "Eva", "Garcia", "eva.garcia@example.com", "Another Search Test", 2));
+        searchIndex.index(contact("3", "Davina", "Jones", "dj@farm.org", "Irrigation quote", 3));
+    }
+
+    @Test
+    void testExactMatch() {
+        ContactSearchIndex.SearchResult result = searchIndex.search("Garcia", 0, 10);
+
+        assertEquals(List.of("2"), result.getContactIds());
+        assertEquals(1, result.getTotalHits());
+    }
+
+    @Test
+    void testAllTermsMustMatch() {
+        assertEquals(2, searchIndex.search("Search Test", 0, 10).getTotalHits());
+        assertEquals(List.of("2"), searchIndex.search("another test", 0, 10).getContactIds());
+    }
+
+    @Test
+    void testPrefixMatch() {
+        ContactSearchIndex.SearchResult result = searchIndex.search("dav", 0, 10);
+
+        // David matches in first name and email, Davina only in first name
+        assertEquals(List.of("1", "3"), result.getContactIds());
+    }
+
+    @Test
+    void testExactMatchRanksAbovePrefixMatch() {
+        searchIndex.index(contact("4", "Evangeline", "Moss", "em@example.com", "Seed order", 4));
+
+        assertEquals(List.of("2", "4"), searchIndex.search("eva", 0, 10).getContactIds());
+    }
+
+    @Test
+    void testFuzzyMatch() {
+        assertEquals(List.of("1"), searchIndex.search("Millr", 0, 10).getContactIds());
+        assertEquals(List.of("3"), searchIndex.search("irigation", 0, 10).getContactIds());
+    }
+
+    @Test
+    void testRegexCharactersAreTreatedAsText() {
+        assertEquals(0, searchIndex.search(".*", 0, 10).getTotalHits());
+        assertEquals(List.of("1"), searchIndex.search("david.miller@example.com", 0, 10).getContactIds());
+    }
+
+    @Test
+    void testPaging() {
+        ContactSearchIndex.SearchResult firstPage = searchIndex.search("test", 0, 1);
+        ContactSearchIndex.SearchResult secondPage = searchIndex.search("test", 1, 1);
+
+        assertEquals(2, firstPage.getTotalHits());
+        assertEquals(List.of("2"), firstPage.getContactIds());
+        assertEquals(List.of("1"), secondPage.getContactIds());
+    }
+
+    @Test
+    void testReindexAndRemove() {
+        searchIndex.index(contact("1", "Dave", "Miller", "dave@example.com", "Search Test", 1));
+        assertEquals(0, searchIndex.search("david.miller", 0, 10).getTotalHits());
+        assertEquals(List.of("1"), searchIndex.search("dave", 0, 10).getContactIds());
+
+        searchIndex.remove("1");
+        assertEquals(0, searchIndex.search("miller", 0, 10).getTotalHits());
+        assertEquals(2, searchIndex.size());
+    }
+
+    @Test
+    void testSwapReplacesContentsAtOnce() {
+        ContactSearchIndex rebuilt = new ContactSearchIndex();
+        rebuilt.index(contact("5", "Nora", "Quinn", "nq@example.com", "Greenhouse", 5));
+        assertEquals(List.of("2"), searchIndex.search("garcia", 0, 10).getContactIds());
+
+        searchIndex.swap(rebuilt);
+        assertEquals(0, searchIndex.search("garcia", 0, 10).getTotalHits());
+        assertEquals(List.of("5"), searchIndex.search("quinn", 0, 10).getContactIds());
+        assertEquals(1, searchIndex.size());
+    }
+
+    private Contact contact(String id, String firstName, String lastName, String email, String subject, int day) {
+        Contact contact = new Contact(firstName, lastName, email, "+1-555-000-0000", subject, "Test message body");
+        contact.setId(id);
+        contact.setCreatedAt(LocalDateTime.of(2024, 1, day, 12, 0));
+        return contact;
+    }
+}
@@ -0,0 +1,86 @@
+package com.agroconnect;
+
+import com.agroconnect.contact.ContactSearchIndex;
+import com.agroconnect.contact.ContactService;
+import com.agroconnect.dto.ContactRequest;
+import com.agroconnect.model.Contact;
+import com.agroconnect.repository.ContactRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ContactServiceTest {
+
+    private ContactSearchIndex searchIndex;
+    private ContactService contactService;
+
+    @BeforeEach
+    void setUp() {
+        ContactRepository contactRepository = mock(ContactRepository.class);
+        when(contactRepository.save(any(Contact.class))).thenAnswer(call -> {
+            Contact contact = call.getArgument(0);
+            contact.setId("c1");
+            return contact;
+        });
+        searchIndex = new ContactSearchIndex();
+        contactService = new ContactService(contactRepository, searchIndex, mock(MongoTemplate.class, RETURNS_DEEP_STUBS));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testSaveIsIndexedAtOnceWithoutTransaction() {
+        contactService.saveContact(request(), "127.0.0.1", "test");
+
+        assertEquals(List.of("c1"), searchIndex.search("Garcia", 0, 10).getContactIds());
+    }
+
+    @Test
+    void testSaveIsIndexedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        contactService.saveContact(request(), "127.0.0.1", "test");
+        assertEquals(0, searchIndex.size());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of("c1"), searchIndex.search("Garcia", 0, 10).getContactIds());
+    }
+
+    @Test
+    void testRolledBackDeleteStaysIndexed() {
+        Contact contact = new Contact("Eva", "Garcia", "eva@example.com", "+1-555-000-0000", "Quote", "Body");
+        contact.setId("c1");
+        searchIndex.index(contact);
+        TransactionSynchronizationManager.initSynchronization();
+
+        contactService.deleteById("c1");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(List.of("c1"), searchIndex.search("Garcia", 0, 10).getContactIds());
+    }
+
+    private static ContactRequest request() {
+        ContactRequest request = new ContactRequest();
+        request.setFirstName("Eva");
+        request.setLastName("Garcia");
+        request.setEmail("eva@example.com");
+        request.setSubject("Irrigation quote");
+        request.setMessage("Please send a quote");
+        return request;
+    }
+}
@@ -0,0 +1,58 @@
+package com.agroconnect;
+
+import com.agroconnect.contact.CsvRecordReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvRecordReaderTest {
+
+    @Test
+    void testPlainRecords() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("firstName,email\nJohn,john@example.com\n"));
+
+        assertEquals(List.of("firstName", "email"), reader.readRecord());
+        assertEquals(List.of("John", "john@example.com"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void testQuotedFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new StringReader("\"Farm, Inc.\",\"He said \"\"hi\"\"\",plain\r\n"));
+
+        assertEquals(List.of("Farm, Inc.", "He said \"hi\"", "plain"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void testLineBreakInsideQuotesKeepsLineNumbers() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new StringReader("a,b\n1,\"first\nsecond\"\n\n2,x"));
+
+        reader.readRecord();
+        assertEquals(List.of("1", "first\nsecond"), reader.readRecord());
+        assertEquals(2, reader.getRecordLineNumber());
+        assertEquals(List.of("2", "x"), reader.readRecord());
+        assertEquals(5, reader.getRecordLineNumber());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void testEmptyFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(",,\n"));
+
+        assertEquals(List.of("", "", ""), reader.readRecord());
+    }
+
+    @Test
+    void testUnterminatedQuoteFails() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"open,field\n"));
+
+        assertThrows(IOException.class, reader::readRecord);
+    }
+}
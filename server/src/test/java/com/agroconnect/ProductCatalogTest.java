@@ -0,0 +1,95 @@
+package com.agroconnect;
+
+import com.agroconnect.products.ProductCatalog;
+import com.agroconnect.products.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductCatalogTest {
+
+    private ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = ProductCatalog.of(List.of(
+            new ProductService.Product("1", "Smart Irrigation System", "Irrigation", "Technology", 299.99, "Available", "High"),
+            new ProductService.Product("2", "Organic Fertilizer", "Fertilizer", "Fertilizer", 49.99, "Available", "Medium"),
+            new ProductService.Product("3", "Crop Monitoring Drone", "Drone", "Technology", 899.99, "Out of Stock", "High"),
+            new ProductService.Product("4", "Soil Testing Kit", "Soil", "Tools", 79.99, "Available", "Low")
+        ), 7L);
+    }
+
+    @Test
+    void testLookupById() {
+        assertEquals("Organic Fertilizer", catalog.findById("2").orElseThrow().getName());
+        assertTrue(catalog.findById("99").isEmpty());
+    }
+
+    @Test
+    void testCategoryAndAvailabilityIgnoreCase() {
+        assertEquals(List.of("1", "3"), ids(catalog.findByCategory("technology")));
+        assertEquals(List.of("3"), ids(catalog.findByAvailability("OUT OF STOCK")));
+        assertTrue(catalog.findByCategory("Seeds").isEmpty());
+    }
+
+    @Test
+    void testPriceRangeIsInclusiveAndSorted() {
+        assertEquals(List.of("2", "4", "1"), ids(catalog.findByPriceRange(49.99, 299.99)));
+        assertEquals(List.of("3"), ids(catalog.findByPriceRange(300, 10_000)));
+        assertTrue(catalog.findByPriceRange(100, 200).isEmpty());
+        assertTrue(catalog.findByPriceRange(500, 100).isEmpty());
+    }
+
+    @Test
+    void testPrecomputedViews() {
+        assertEquals(List.of("Technology", "Fertilizer", "Tools"), catalog.getCategories());
+        assertEquals(List.of("1", "3"), ids(catalog.getFeatured()));
+
+        ProductService.ProductStatistics statistics = catalog.getStatistics();
+        assertEquals(4, statistics.getTotalProducts());
+        assertEquals(3, statistics.getAvailableProducts());
+        assertEquals(2, statistics.getHighPriorityProducts());
+        assertEquals((299.99 + 49.99 + 899.99 + 79.99) / 4, statistics.getAveragePrice(), 1e-9);
+        assertEquals(7L, catalog.getVersion());
+    }
+
+    @Test
+    void testSearchMatchesWordPrefixesAndRanksNameHitsFirst() {
+        assertEquals(List.of("1"), ids(catalog.search("irrig")));
+        assertEquals(List.of("4"), ids(catalog.search("SOIL test")));
+        assertTrue(catalog.search("soil drone").isEmpty());
+        assertTrue(catalog.search("  ").isEmpty());
+
+        ProductCatalog ranked = ProductCatalog.of(List.of(
+            new ProductService.Product("1", "Greenhouse Kit", "Pairs well with drip irrigation", "Infrastructure", 599.99, "Available", "Medium"),
+            new ProductService.Product("2", "Drip Irrigation Set", "Water saving", "Technology", 129.99, "Available", "Medium")
+        ), 1L);
+        assertEquals(List.of("2", "1"), ids(ranked.search("irrigation")));
+    }
+
+    @Test
+    void testEmptyCatalog() {
+        ProductCatalog empty = ProductCatalog.empty();
+
+        assertTrue(empty.getProducts().isEmpty());
+        assertTrue(empty.findByPriceRange(0, Double.MAX_VALUE).isEmpty());
+        assertEquals(0.0, empty.getStatistics().getAveragePrice());
+    }
+
+    @Test
+    void testETagFollowsRevision() {
+        List<ProductService.Product> products = catalog.getProducts();
+
+        assertEquals("\"catalog-4-abc\"", ProductCatalog.of(products, 1L, "4-abc").getETag());
+        assertEquals(ProductCatalog.of(products, 1L, "4-abc").getETag(), ProductCatalog.of(products, 9L, "4-abc").getETag());
+        assertNotEquals(ProductCatalog.of(products, 1L, "4-abc").getETag(), ProductCatalog.of(products, 1L, "5-abc").getETag());
+    }
+
+    private static List<String> ids(List<ProductService.Product> products) {
+        return products.stream().map(ProductService.Product::getId).toList();
+    }
+}
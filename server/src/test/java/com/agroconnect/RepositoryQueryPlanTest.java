@@ -0,0 +1,266 @@
+package com.agroconnect;
+
+import com.agroconnect.model.Contact;
+import com.agroconnect.model.PageVisit;
+import com.agroconnect.repository.ContactRepository;
+import com.agroconnect.repository.PageVisitRepository;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs explain() on the commands issued by every repository query and fails when
+ * the winning plan contains a collection scan or an in-memory sort.
+ *
+ * Whole-collection reads (findAll, count, findAllPageCategories, findMostVisitedPages,
+ * findDistinctSessionIds) and the unanchored company regex (findByCompanyIgnoreCase)
+ * scan by design and are not checked.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+public class RepositoryQueryPlanTest {
+
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "aggregate", "count", "delete", "distinct");
+    private static final Set<String> REJECTED_STAGES = Set.of("COLLSCAN", "SORT");
+
+    private static final List<Document> capturedCommands = new CopyOnWriteArrayList<>();
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.host", mongo::getHost);
+        registry.add("spring.data.mongodb.port", mongo::getFirstMappedPort);
+    }
+
+    @TestConfiguration
+    static class CommandCaptureConfig {
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCapture() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (QUERY_COMMANDS.contains(event.getCommandName())) {
+                        capturedCommands.add(Document.parse(event.getCommand().toJson()));
+                    }
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private PageVisitRepository pageVisitRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        contactRepository.deleteAll();
+        pageVisitRepository.deleteAll();
+
+        for (int i = 0; i < 20; i++) {
+            Contact contact = new Contact("First", "Last", "user" + i + "@example.com", "+1-555-000-0000",
+                    "Subject " + i, "Message body " + i);
+            contact.setStatus(i % 2 == 0 ? "NEW" : "PROCESSED");
+            contact.setCompany(i % 3 == 0 ? "Green Acres" : null);
+            contact.setFarmType("Dairy");
+            contact.setLocation("Nairobi");
+            contact.setCreatedAt(LocalDateTime.now().minusDays(i));
+            contactRepository.save(contact);
+
+            PageVisit visit = new PageVisit();
+            visit.setPageUrl("/products/" + i);
+            visit.setPageTitle("Product " + i);
+            visit.setPageCategory("products");
+            visit.setSessionId("session-" + (i % 4));
+            visit.setUserId(i % 2 == 0 ? "user-" + i : null);
+            visit.setIpAddress("127.0.0.1");
+            visit.setDeviceType("mobile");
+            visit.setBrowser("Chrome");
+            visit.setOperatingSystem("Android");
+            visit.setCountry("KE");
+            visit.setCity("Nairobi");
+            visit.setReferrer("/home");
+            visit.setTimeOnPage((long) i);
+            visit.setUtmSource("newsletter");
+            visit.setUtmCampaign("harvest");
+            pageVisitRepository.save(visit);
+        }
+    }
+
+    @Test
+    void testContactRepositoryQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest byCreatedAt = PageRequest.of(0, 5, Sort.by("createdAt").descending());
+
+        assertIndexed("findByEmail", () -> contactRepository.findByEmail("user1@example.com"));
+        assertIndexed("findByStatus", () -> contactRepository.findByStatus("NEW"));
+        assertIndexed("findByStatus(paged)", () -> contactRepository.findByStatus("NEW", byCreatedAt));
+        assertIndexed("findByCreatedAtBetween", () -> contactRepository.findByCreatedAtBetween(now.minusDays(7), now));
+        assertIndexed("findByEmailAndStatus", () -> contactRepository.findByEmailAndStatus("user2@example.com", "NEW"));
+        assertIndexed("findFirstByEmailOrderByCreatedAtDesc",
+                () -> contactRepository.findFirstByEmailOrderByCreatedAtDesc("user3@example.com"));
+        assertIndexed("countByStatus", () -> contactRepository.countByStatus("NEW"));
+        assertIndexed("countByNewsletterSubscription", () -> contactRepository.countByNewsletterSubscription(true));
+        assertIndexed("findByFarmType", () -> contactRepository.findByFarmType("Dairy"));
+        assertIndexed("findByLocation", () -> contactRepository.findByLocation("Nairobi"));
+        assertIndexed("findByPreferredContactMethod", () -> contactRepository.findByPreferredContactMethod("email"));
+        assertIndexed("findTodayContacts", () -> contactRepository.findTodayContacts(now.minusDays(1), now));
+        assertIndexed("findByCompanyEqualsIgnoreCase",
+                () -> contactRepository.findByCompanyEqualsIgnoreCase("green acres"));
+        assertIndexed("existsByEmail", () -> contactRepository.existsByEmail("user4@example.com"));
+        assertIndexed("findAll(paged by createdAt)", () -> contactRepository.findAll(byCreatedAt));
+        assertIndexed("deleteByEmail", () -> contactRepository.deleteByEmail("user5@example.com"));
+        assertIndexed("deleteByStatus", () -> contactRepository.deleteByStatus("ARCHIVED"));
+    }
+
+    @Test
+    void testPageVisitRepositoryQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 5);
+
+        assertIndexed("findBySessionId", () -> pageVisitRepository.findBySessionId("session-1"));
+        assertIndexed("findByUserId", () -> pageVisitRepository.findByUserId("user-2"));
+        assertIndexed("findByPageCategory", () -> pageVisitRepository.findByPageCategory("products"));
+        assertIndexed("findByPageUrl", () -> pageVisitRepository.findByPageUrl("/products/1"));
+        assertIndexed("findByVisitTimestampBetween",
+                () -> pageVisitRepository.findByVisitTimestampBetween(now.minusDays(1), now));
+        assertIndexed("findByDeviceType", () -> pageVisitRepository.findByDeviceType("mobile"));
+        assertIndexed("findByBrowser", () -> pageVisitRepository.findByBrowser("Chrome"));
+        assertIndexed("findByCountry", () -> pageVisitRepository.findByCountry("KE"));
+        assertIndexed("findByUtmSource", () -> pageVisitRepository.findByUtmSource("newsletter"));
+        assertIndexed("findByUtmCampaign", () -> pageVisitRepository.findByUtmCampaign("harvest"));
+        assertIndexed("findAllByOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findAllByOrderByVisitTimestampDesc(page));
+        assertIndexed("countByPageCategory", () -> pageVisitRepository.countByPageCategory("products"));
+        assertIndexed("countByDeviceType", () -> pageVisitRepository.countByDeviceType("mobile"));
+        assertIndexed("countByBrowser", () -> pageVisitRepository.countByBrowser("Chrome"));
+        assertIndexed("countByCountry", () -> pageVisitRepository.countByCountry("KE"));
+        assertIndexed("findDistinctUserIds", () -> pageVisitRepository.findDistinctUserIds());
+        assertIndexed("findTimeOnPageData", () -> pageVisitRepository.findTimeOnPageData());
+        assertIndexed("findByVisitTimestampBetweenOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findByVisitTimestampBetweenOrderByVisitTimestampDesc(now.minusDays(1), now, page));
+        assertIndexed("findByPageCategoryOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findByPageCategoryOrderByVisitTimestampDesc("products", page));
+        assertIndexed("findByDeviceTypeOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findByDeviceTypeOrderByVisitTimestampDesc("mobile", page));
+        assertIndexed("findByBrowserOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findByBrowserOrderByVisitTimestampDesc("Chrome", page));
+        assertIndexed("findByCountryOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findByCountryOrderByVisitTimestampDesc("KE", page));
+        assertIndexed("findByUtmSourceOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findByUtmSourceOrderByVisitTimestampDesc("newsletter", page));
+        assertIndexed("findByUtmCampaignOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findByUtmCampaignOrderByVisitTimestampDesc("harvest", page));
+        assertIndexed("findByUserIdOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findByUserIdOrderByVisitTimestampDesc("user-2", page));
+        assertIndexed("findBySessionIdOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findBySessionIdOrderByVisitTimestampDesc("session-1", page));
+        assertIndexed("findByPageUrlOrderByVisitTimestampDesc",
+                () -> pageVisitRepository.findByPageUrlOrderByVisitTimestampDesc("/products/1", page));
+        assertIndexed("findByOperatingSystem", () -> pageVisitRepository.findByOperatingSystem("Android"));
+        assertIndexed("countByOperatingSystem", () -> pageVisitRepository.countByOperatingSystem("Android"));
+        assertIndexed("findByCity", () -> pageVisitRepository.findByCity("Nairobi"));
+        assertIndexed("countByCity", () -> pageVisitRepository.countByCity("Nairobi"));
+        assertIndexed("findByReferrer", () -> pageVisitRepository.findByReferrer("/home"));
+        assertIndexed("countByReferrer", () -> pageVisitRepository.countByReferrer("/home"));
+        assertIndexed("findVisitsWithTimeOnPage", () -> pageVisitRepository.findVisitsWithTimeOnPage());
+        assertIndexed("findVisitsWithUtmData", () -> pageVisitRepository.findVisitsWithUtmData());
+        assertIndexed("findVisitsWithGeolocationData", () -> pageVisitRepository.findVisitsWithGeolocationData());
+    }
+
+    /**
+     * Run the repository call, then explain every query command it sent
+     */
+    private void assertIndexed(String queryName, Runnable repositoryCall) {
+        capturedCommands.clear();
+        repositoryCall.run();
+        List<Document> commands = new ArrayList<>(capturedCommands);
+        assertFalse(commands.isEmpty(), queryName + " issued no query command");
+
+        for (Document command : commands) {
+            if (isUnfilteredCount(command)) {
+                // Page total for an unfiltered listing; counting the whole collection scans by definition
+                continue;
+            }
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new Document("explain", stripMetadata(command)).append("verbosity", "queryPlanner"));
+            List<String> stages = new ArrayList<>();
+            collectWinningPlanStages(explain, false, stages);
+            assertFalse(stages.isEmpty(), queryName + " explain returned no winning plan: " + explain.toJson());
+            for (String stage : stages) {
+                assertFalse(REJECTED_STAGES.contains(stage),
+                        queryName + " uses " + stage + " for " + command.toJson() + "; plan stages: " + stages);
+            }
+        }
+    }
+
+    private static boolean isUnfilteredCount(Document command) {
+        if (command.containsKey("count")) {
+            Document query = command.get("query", Document.class);
+            return query == null || query.isEmpty();
+        }
+        if (command.containsKey("aggregate")) {
+            List<?> pipeline = command.getList("pipeline", Object.class);
+            return pipeline.size() == 2
+                    && pipeline.get(0) instanceof Document match && match.get("$match", Document.class).isEmpty()
+                    && pipeline.get(1) instanceof Document group && group.containsKey("$group");
+        }
+        return false;
+    }
+
+    private static Document stripMetadata(Document command) {
+        Document stripped = new Document();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                stripped.append(key, value);
+            }
+        });
+        return stripped;
+    }
+
+    private static void collectWinningPlanStages(Object node, boolean inWinningPlan, List<String> stages) {
+        if (node instanceof Document document) {
+            if (inWinningPlan && document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            document.forEach((key, value) -> {
+                if (!key.equals("rejectedPlans") && !key.equals("slotBasedPlan")) {
+                    collectWinningPlanStages(value, inWinningPlan || key.equals("winningPlan"), stages);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> collectWinningPlanStages(item, inWinningPlan, stages));
+        }
+    }
+}
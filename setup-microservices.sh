@@ -118,6 +118,14 @@ build_docker_images() {
         cd ..
     fi
     
+    # Install the shared audit client used by the services
+    if [ -f "microservices/audit-client/pom.xml" ]; then
+        print_status "Building Audit Client..."
+        cd microservices/audit-client
+        mvn clean install -DskipTests
+        cd ../..
+    fi
+    
     # Build Product Service
     if [ -f "microservices/product-service/pom.xml" ]; then
         print_status "Building Product Service..."